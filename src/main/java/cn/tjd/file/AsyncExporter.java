@@ -0,0 +1,616 @@
+package cn.tjd.file;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 基于Servlet 3.0 AsyncContext的异步导出工具。导出任务在独立的有界线程池中执行，容器的请求线程在提交任务后立即返回，
+ * 大文件导出不会再占满Tomcat等容器的工作线程。<br/>
+ * 注意：对应的Servlet（或Filter链）需要开启asyncSupported；数据源（如数据库游标）会在导出线程中被访问，
+ * 不能依赖请求线程上的事务或ThreadLocal。<br/>
+ * 使用示例：
+ * <pre>
+ * private static final AsyncExporter EXPORTER = new AsyncExporter(4, 16, AsyncExporter.RejectPolicy.SERVICE_UNAVAILABLE);
+ * EXPORTER.exportCSV(request, response, headMap, dataIterator, "订单", "GBK");
+ * </pre>
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class AsyncExporter {
+
+    public static final long DEFAULT_TIMEOUT = 0;// 默认不超时
+
+    /**
+     * 导出任务，向响应中写出文件
+     */
+    public interface ExportTask {
+        void export(HttpServletResponse response) throws Exception;
+    }
+
+    /**
+     * 线程池与等待队列都已满时的处理策略
+     */
+    public enum RejectPolicy {
+        /**
+         * 响应503 Service Unavailable，并通过Retry-After提示客户端稍后重试
+         */
+        SERVICE_UNAVAILABLE,
+        /**
+         * 退化为在请求线程中同步导出
+         */
+        CALLER_RUNS
+    }
+
+    /**
+     * 导出失败（任务抛出异常、异步请求超时或出错）时的回调
+     */
+    public interface ErrorHandler {
+        void onError(HttpServletRequest request, Throwable error);
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncExporter.class.getName());
+    private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+
+    // 默认的错误回调，通过java.util.logging记录请求地址与异常
+    private static final ErrorHandler LOGGING_HANDLER = new ErrorHandler() {
+        @Override
+        public void onError(HttpServletRequest request, Throwable error) {
+            LOGGER.log(Level.SEVERE, "导出失败：" + request.getRequestURI(), error);
+        }
+    };
+
+    private final ThreadPoolExecutor executor;
+    private final RejectPolicy rejectPolicy;
+    private final long timeout;
+    private volatile ErrorHandler errorHandler = LOGGING_HANDLER;
+
+    /**
+     * @param concurrency   同时执行的导出任务数
+     * @param queueCapacity 等待队列长度
+     * @param rejectPolicy  线程池与等待队列都已满时的处理策略
+     */
+    public AsyncExporter(int concurrency, int queueCapacity, RejectPolicy rejectPolicy) {
+        this(concurrency, queueCapacity, rejectPolicy, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * @param concurrency   同时执行的导出任务数
+     * @param queueCapacity 等待队列长度
+     * @param rejectPolicy  线程池与等待队列都已满时的处理策略
+     * @param timeout       异步请求的超时时间（毫秒），0表示不超时
+     */
+    public AsyncExporter(int concurrency, int queueCapacity, RejectPolicy rejectPolicy, long timeout) {
+        if (concurrency <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("concurrency与queueCapacity必须大于0");
+        }
+        final String prefix = "async-export-" + POOL_SEQUENCE.incrementAndGet() + "-";
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new ThreadFactory() {
+            private final AtomicInteger sequence = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, prefix + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.rejectPolicy = rejectPolicy == null ? RejectPolicy.SERVICE_UNAVAILABLE : rejectPolicy;
+        this.timeout = timeout;
+    }
+
+    /**
+     * 异步执行导出任务，请求线程立即返回。<br/>
+     * 异步请求超时或者出错（如客户端断开）时，正在执行的任务会被中断，排队中的任务不再执行，
+     * 之后任务对响应的写出会抛出IOException（设置响应头等调用被忽略），不会再访问已经被容器回收的响应对象。
+     * 对响应的每次访问与结束异步请求在同一把锁内进行，超时或出错时容器线程会等待正在进行的一次写出返回
+     *
+     * @param request  请求对象
+     * @param response 响应对象
+     * @param task     导出任务
+     */
+    public void submit(HttpServletRequest request, HttpServletResponse response, ExportTask task) {
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(timeout);
+        ExportCall call = new ExportCall(request, asyncContext, task);
+        asyncContext.addListener(call);
+        try {
+            call.future = executor.submit(call);
+        } catch (RejectedExecutionException e) {
+            if (rejectPolicy == RejectPolicy.CALLER_RUNS) {
+                call.run();
+            } else {
+                call.reject();
+            }
+        }
+    }
+
+    /**
+     * 异步导出CSV文件，数据行可以是Map也可以是JavaBean
+     *
+     * @param request  请求对象
+     * @param response 响应对象
+     * @param headMap  表头名称
+     * @param dataIter 数据迭代器，会在导出线程中被访问
+     * @param filename 文件名称
+     * @param encoding 文件的编码格式
+     */
+    public void exportCSV(HttpServletRequest request, HttpServletResponse response, final LinkedHashMap<String, String> headMap,
+                          final Iterator<?> dataIter, final String filename, final String encoding) {
+        submit(request, response, new ExportTask() {
+            @Override
+            public void export(HttpServletResponse response) throws Exception {
+                response.setHeader("Content-Disposition", "attachment;fileName=" + URLEncoder.encode(filename + ".csv", "UTF-8"));
+                CSVUtils.generateCsvFromIterator(headMap, dataIter, encoding, response.getOutputStream());
+            }
+        });
+    }
+
+    /**
+     * 异步导出Excel文件，数据行可以是Map也可以是JavaBean
+     *
+     * @param request   请求对象
+     * @param response  响应对象
+     * @param excelType 导出的文件类型
+     * @param headMap   表头名称
+     * @param dataList  数据集合
+     * @param filename  文件名称
+     * @param sheetName 工作簿名称
+     */
+    public void exportExcel(HttpServletRequest request, HttpServletResponse response, final ExcelUtils.ExcelType excelType,
+                            final LinkedHashMap<String, String> headMap, final List<?> dataList, final String filename,
+                            final String sheetName) {
+        submit(request, response, new ExportTask() {
+            @Override
+            public void export(HttpServletResponse response) throws Exception {
+                response.setHeader("Content-Disposition", "attachment;fileName=" + URLEncoder.encode(filename + excelType.getSuffix(), "UTF-8"));
+                ExcelUtils.createWorkBookByObject(excelType, headMap, dataList, sheetName, response.getOutputStream(),
+                        CellFormatters.DEFAULT);
+            }
+        });
+    }
+
+    /**
+     * 设置导出失败时的回调，默认通过java.util.logging记录
+     *
+     * @param errorHandler 错误回调
+     * @return 当前导出工具
+     */
+    public AsyncExporter setErrorHandler(ErrorHandler errorHandler) {
+        if (errorHandler == null) {
+            throw new IllegalArgumentException("errorHandler不能为null");
+        }
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    /**
+     * @return 正在执行的导出任务数
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return 等待执行的导出任务数
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * 关闭线程池，已提交的任务会继续执行
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 一次异步导出：在线程池中执行导出任务，同时监听异步请求的超时与错误。<br/>
+     * finished标记异步请求已经结束（完成、超时或出错），保证complete()只调用一次，并拦截之后对响应的写出。
+     * finished只在持有lock时置为true，GuardedResponse在lock内检查finished并访问响应，监听器返回（容器回收响应）之前
+     * 不会有写出仍在进行
+     */
+    private final class ExportCall implements Runnable, AsyncListener {
+        private final HttpServletRequest request;
+        private final AsyncContext asyncContext;
+        private final ExportTask task;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final Object lock = new Object();
+        private volatile Future<?> future;
+
+        ExportCall(HttpServletRequest request, AsyncContext asyncContext, ExportTask task) {
+            this.request = request;
+            this.asyncContext = asyncContext;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (finished.get()) {
+                // 排队期间异步请求已经超时或出错
+                return;
+            }
+            HttpServletResponse response = new GuardedResponse((HttpServletResponse) asyncContext.getResponse(), finished, lock);
+            try {
+                task.export(response);
+            } catch (Exception e) {
+                if (!finished.get()) {
+                    reportError(request, e);
+                    sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "导出失败");// 已结束时被忽略
+                }
+            } finally {
+                complete();
+            }
+        }
+
+        void reject() {
+            HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+            response.setHeader("Retry-After", "30");
+            sendError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "导出任务过多，请稍后重试");
+            complete();
+        }
+
+        private void complete() {
+            if (finish(false)) {
+                asyncContext.complete();
+            }
+        }
+
+        /**
+         * 标记异步请求已经结束，等待正在进行的写出返回
+         *
+         * @param cancel 是否先中断导出任务（由监听器结束时），缩短等待的时间
+         * @return 是否由本次调用结束
+         */
+        private boolean finish(boolean cancel) {
+            if (finished.get()) {
+                return false;
+            }
+            Future<?> task = future;
+            if (cancel && task != null) {
+                task.cancel(true);
+            }
+            synchronized (lock) {
+                return finished.compareAndSet(false, true);
+            }
+        }
+
+        /**
+         * 异步请求超时或出错时中断导出任务，由监听器结束异步请求
+         */
+        private void abort(Throwable error, int status) {
+            if (!finish(true)) {
+                return;
+            }
+            reportError(request, error);
+            try {
+                HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+                if (!response.isCommitted()) {
+                    response.sendError(status);
+                }
+            } catch (Exception ignored) {
+                // 客户端已断开
+            }
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException ignored) {
+                // 容器已经结束了异步请求
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            abort(new TimeoutException("导出超时：超过" + timeout + "毫秒"), HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            Throwable error = event.getThrowable();
+            abort(error != null ? error : new IOException("异步请求出错"), HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish(true);// 异步请求被容器结束，停止导出任务
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    private void reportError(HttpServletRequest request, Throwable error) {
+        try {
+            errorHandler.onError(request, error);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "导出错误回调执行失败", e);
+        }
+    }
+
+    private static void sendError(HttpServletResponse response, int status, String message) {
+        if (!response.isCommitted()) {
+            try {
+                response.reset();
+                response.sendError(status, message);
+            } catch (Exception ignored) {
+                // 客户端已断开
+            }
+        }
+    }
+
+    /**
+     * 异步请求结束后拒绝写出的响应包装：每次访问响应都在lock内检查finished，结束之后写出抛出IOException，其他调用被忽略
+     */
+    private static final class GuardedResponse extends HttpServletResponseWrapper {
+        private final AtomicBoolean finished;
+        private final Object lock;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        GuardedResponse(HttpServletResponse response, AtomicBoolean finished, Object lock) {
+            super(response);
+            this.finished = finished;
+            this.lock = lock;
+        }
+
+        private void check() throws IOException {
+            if (finished.get()) {
+                throw new IOException("异步请求已结束（超时或客户端断开）");
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            synchronized (lock) {
+                check();
+                if (outputStream == null) {
+                    final ServletOutputStream delegate = super.getOutputStream();
+                    outputStream = new ServletOutputStream() {
+                        @Override
+                        public void write(int b) throws IOException {
+                            synchronized (lock) {
+                                check();
+                                delegate.write(b);
+                            }
+                        }
+
+                        @Override
+                        public void write(byte[] b, int off, int len) throws IOException {
+                            synchronized (lock) {
+                                check();
+                                delegate.write(b, off, len);
+                            }
+                        }
+
+                        @Override
+                        public void flush() throws IOException {
+                            synchronized (lock) {
+                                check();
+                                delegate.flush();
+                            }
+                        }
+
+                        @Override
+                        public void close() throws IOException {
+                            synchronized (lock) {
+                                check();
+                                delegate.close();
+                            }
+                        }
+                    };
+                }
+                return outputStream;
+            }
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            synchronized (lock) {
+                check();
+                if (writer == null) {
+                    final PrintWriter delegate = super.getWriter();
+                    writer = new PrintWriter(new Writer() {
+                        @Override
+                        public void write(char[] buf, int off, int len) throws IOException {
+                            synchronized (lock) {
+                                check();
+                                delegate.write(buf, off, len);
+                            }
+                        }
+
+                        @Override
+                        public void flush() throws IOException {
+                            synchronized (lock) {
+                                check();
+                                delegate.flush();
+                            }
+                        }
+
+                        @Override
+                        public void close() throws IOException {
+                            synchronized (lock) {
+                                check();
+                                delegate.close();
+                            }
+                        }
+                    });
+                }
+                return writer;
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            synchronized (lock) {
+                check();
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            synchronized (lock) {
+                check();
+                super.sendError(sc, msg);
+            }
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            synchronized (lock) {
+                check();
+                super.sendError(sc);
+            }
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            synchronized (lock) {
+                check();
+                super.sendRedirect(location);
+            }
+        }
+
+        @Override
+        public boolean isCommitted() {
+            synchronized (lock) {
+                return finished.get() || super.isCommitted();
+            }
+        }
+
+        @Override
+        public void reset() {
+            synchronized (lock) {
+                if (!finished.get()) {
+                    super.reset();
+                }
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            synchronized (lock) {
+                if (!finished.get()) {
+                    super.resetBuffer();
+                }
+            }
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            synchronized (lock) {
+                if (!finished.get()) {
+                    super.setStatus(sc);
+                }
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            synchronized (lock) {
+                if (!finished.get()) {
+                    super.setHeader(name, value);
+                }
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            synchronized (lock) {
+                if (!finished.get()) {
+                    super.addHeader(name, value);
+                }
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            synchronized (lock) {
+                if (!finished.get()) {
+                    super.setIntHeader(name, value);
+                }
+            }
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            synchronized (lock) {
+                if (!finished.get()) {
+                    super.addIntHeader(name, value);
+                }
+            }
+        }
+
+        @Override
+        public void setDateHeader(String name, long date) {
+            synchronized (lock) {
+                if (!finished.get()) {
+                    super.setDateHeader(name, date);
+                }
+            }
+        }
+
+        @Override
+        public void addDateHeader(String name, long date) {
+            synchronized (lock) {
+                if (!finished.get()) {
+                    super.addDateHeader(name, date);
+                }
+            }
+        }
+
+        @Override
+        public void setContentType(String type) {
+            synchronized (lock) {
+                if (!finished.get()) {
+                    super.setContentType(type);
+                }
+            }
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            synchronized (lock) {
+                if (!finished.get()) {
+                    super.setContentLength(len);
+                }
+            }
+        }
+
+        @Override
+        public void setCharacterEncoding(String charset) {
+            synchronized (lock) {
+                if (!finished.get()) {
+                    super.setCharacterEncoding(charset);
+                }
+            }
+        }
+    }
+}
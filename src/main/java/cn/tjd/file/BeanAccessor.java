@@ -0,0 +1,540 @@
+package cn.tjd.file;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JavaBean属性访问表，每个Class只创建一次并缓存（随Class的生命周期存在），供CSVUtils与ExcelUtils共享<br/>
+ * 属性的读取使用public的"get" + 首字母大写的属性名方法，返回boolean的属性也支持"is"方法，没有getter方法时直接读取同名的public字段，
+ * 都没有的属性读取为null（非public字段不会被导出）；每个属性在第一次访问时查找一次并缓存。<br/>
+ * 对于public类的public方法，通过LambdaMetafactory生成直接调用的Getter实现，其余情况使用MethodHandle调用，
+ * 避免了每个单元格都进行getMethod查找与Method.invoke反射调用。<br/>
+ * 导入时属性的写入使用public的"set" + 首字母大写的属性名方法，没有setter方法时直接写入同名的非final的public字段，
+ * 基本类型的属性直接解析为基本类型后写入，不经过装箱
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public final class BeanAccessor {
+
+    /**
+     * 属性读取器
+     */
+    public interface Getter {
+        Object get(Object bean);
+    }
+
+    /**
+     * 属性写入器，将单元格文本转换为属性的类型后写入JavaBean
+     */
+    public interface Binder {
+        void bind(Object bean, String text);
+    }
+
+    // 属性不存在时使用的读取器，始终返回null
+    static final Getter NULL_GETTER = new Getter() {
+        @Override
+        public Object get(Object bean) {
+            return null;
+        }
+    };
+
+    // 属性不存在或者不可写时缓存的写入器
+    private static final Binder NULL_BINDER = new Binder() {
+        @Override
+        public void bind(Object bean, String text) {
+        }
+    };
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<BeanAccessor> CACHE = new ClassValue<BeanAccessor>() {
+        @Override
+        protected BeanAccessor computeValue(Class<?> type) {
+            return new BeanAccessor(type);
+        }
+    };
+
+    private final Class<?> beanClass;
+    private final ConcurrentMap<String, Getter> getters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Binder> binders = new ConcurrentHashMap<>();
+    // 缓存的写入器所对应的转换器注册表版本
+    private volatile int converterVersion = ValueConverters.version();
+    private final MethodHandle constructor;
+
+    private BeanAccessor(Class<?> beanClass) {
+        this.beanClass = beanClass;
+        this.constructor = resolveConstructor(beanClass);
+    }
+
+    /**
+     * 获取指定Class的属性访问表
+     *
+     * @param clazz JavaBean的类型
+     * @return
+     */
+    public static BeanAccessor of(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * 获取指定属性的读取器
+     *
+     * @param property 属性名
+     * @return 属性不存在时返回null
+     */
+    public Getter getter(String property) {
+        Getter getter = getters.get(property);
+        if (getter == null) {
+            getter = resolveGetter(property);
+            Getter existing = getters.putIfAbsent(property, getter == null ? NULL_GETTER : getter);
+            if (existing != null) {
+                getter = existing;
+            }
+        }
+        return getter == NULL_GETTER ? null : getter;
+    }
+
+    /**
+     * 按照属性名数组的顺序获取读取器，不存在的属性对应的读取器始终返回null
+     *
+     * @param properties 属性名数组
+     * @return
+     */
+    public Getter[] getters(String[] properties) {
+        Getter[] result = new Getter[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            Getter getter = getter(properties[i]);
+            result[i] = getter == null ? NULL_GETTER : getter;
+        }
+        return result;
+    }
+
+    /**
+     * 读取JavaBean指定属性的值
+     *
+     * @param bean     JavaBean对象
+     * @param property 属性名
+     * @return 属性不存在时返回null
+     */
+    public Object get(Object bean, String property) {
+        Getter getter = getter(property);
+        return getter == null ? null : getter.get(bean);
+    }
+
+    /**
+     * 获取指定属性的写入器
+     *
+     * @param property 属性名
+     * @return 属性不存在、不可写或者没有对应类型的转换器时返回null
+     */
+    public Binder binder(String property) {
+        int version = ValueConverters.version();
+        if (version != converterVersion) {
+            // 注册了新的转换器，重新解析写入器
+            binders.clear();
+            converterVersion = version;
+        }
+        Binder binder = binders.get(property);
+        if (binder == null) {
+            binder = resolveBinder(property);
+            Binder existing = binders.putIfAbsent(property, binder == null ? NULL_BINDER : binder);
+            if (existing != null) {
+                binder = existing;
+            }
+        }
+        return binder == NULL_BINDER ? null : binder;
+    }
+
+    /**
+     * 通过无参构造方法创建JavaBean实例
+     *
+     * @return
+     */
+    public Object newInstance() {
+        if (constructor == null) {
+            throw new IllegalStateException(beanClass.getName() + "没有无参构造方法");
+        }
+        try {
+            return constructor.invoke();
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static MethodHandle resolveConstructor(Class<?> clazz) {
+        if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return LOOKUP.unreflectConstructor(constructor);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private Binder resolveBinder(String property) {
+        Method getter = findGetter(beanClass, property);
+        Binder result = null;
+        String name = "set" + capitalize(property);
+        for (Method method : beanClass.getMethods()) {
+            if (!method.getName().equals(name) || Modifier.isStatic(method.getModifiers())
+                    || method.getParameterTypes().length != 1 || method.isBridge()) {
+                continue;
+            }
+            Class<?> type = method.getParameterTypes()[0];
+            // 存在重载的setter方法时，优先使用与getter返回类型一致的方法
+            if (result != null && (getter == null || type != getter.getReturnType())) {
+                continue;
+            }
+            Binder binder = binder(unreflect(method), type);
+            if (binder != null) {
+                result = binder;
+            }
+        }
+        if (result == null && getter == null) {
+            Field field = publicField(beanClass, property);
+            if (field != null && !Modifier.isFinal(field.getModifiers())) {
+                try {
+                    result = binder(LOOKUP.unreflectSetter(field), field.getType());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("无法访问字段：" + field, e);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 根据属性类型创建写入器，基本类型直接解析后写入，避免装箱；基本类型的包装类型注册了自定义转换器时使用该转换器
+     *
+     * @param setter (bean, value)void形式的MethodHandle
+     * @param type   属性类型
+     * @return 没有对应类型的转换器时返回null
+     */
+    private static Binder binder(MethodHandle setter, Class<?> type) {
+        if (type.isPrimitive() && !ValueConverters.isDefault(type)) {
+            return converterBinder(setter, type);
+        }
+        if (type == int.class) {
+            final MethodHandle mh = setter.asType(MethodType.methodType(void.class, Object.class, int.class));
+            return new Binder() {
+                @Override
+                public void bind(Object bean, String text) {
+                    int value = Integer.parseInt(text.trim());
+                    try {
+                        mh.invokeExact(bean, value);
+                    } catch (Throwable e) {
+                        throw rethrow(e);
+                    }
+                }
+            };
+        }
+        if (type == long.class) {
+            final MethodHandle mh = setter.asType(MethodType.methodType(void.class, Object.class, long.class));
+            return new Binder() {
+                @Override
+                public void bind(Object bean, String text) {
+                    long value = Long.parseLong(text.trim());
+                    try {
+                        mh.invokeExact(bean, value);
+                    } catch (Throwable e) {
+                        throw rethrow(e);
+                    }
+                }
+            };
+        }
+        if (type == double.class) {
+            final MethodHandle mh = setter.asType(MethodType.methodType(void.class, Object.class, double.class));
+            return new Binder() {
+                @Override
+                public void bind(Object bean, String text) {
+                    double value = Double.parseDouble(text.trim());
+                    try {
+                        mh.invokeExact(bean, value);
+                    } catch (Throwable e) {
+                        throw rethrow(e);
+                    }
+                }
+            };
+        }
+        if (type == float.class) {
+            final MethodHandle mh = setter.asType(MethodType.methodType(void.class, Object.class, float.class));
+            return new Binder() {
+                @Override
+                public void bind(Object bean, String text) {
+                    float value = Float.parseFloat(text.trim());
+                    try {
+                        mh.invokeExact(bean, value);
+                    } catch (Throwable e) {
+                        throw rethrow(e);
+                    }
+                }
+            };
+        }
+        if (type == boolean.class) {
+            final MethodHandle mh = setter.asType(MethodType.methodType(void.class, Object.class, boolean.class));
+            return new Binder() {
+                @Override
+                public void bind(Object bean, String text) {
+                    boolean value = ValueConverters.parseBoolean(text);
+                    try {
+                        mh.invokeExact(bean, value);
+                    } catch (Throwable e) {
+                        throw rethrow(e);
+                    }
+                }
+            };
+        }
+        if (type == short.class) {
+            final MethodHandle mh = setter.asType(MethodType.methodType(void.class, Object.class, short.class));
+            return new Binder() {
+                @Override
+                public void bind(Object bean, String text) {
+                    short value = Short.parseShort(text.trim());
+                    try {
+                        mh.invokeExact(bean, value);
+                    } catch (Throwable e) {
+                        throw rethrow(e);
+                    }
+                }
+            };
+        }
+        if (type == byte.class) {
+            final MethodHandle mh = setter.asType(MethodType.methodType(void.class, Object.class, byte.class));
+            return new Binder() {
+                @Override
+                public void bind(Object bean, String text) {
+                    byte value = Byte.parseByte(text.trim());
+                    try {
+                        mh.invokeExact(bean, value);
+                    } catch (Throwable e) {
+                        throw rethrow(e);
+                    }
+                }
+            };
+        }
+        if (type == char.class) {
+            final MethodHandle mh = setter.asType(MethodType.methodType(void.class, Object.class, char.class));
+            return new Binder() {
+                @Override
+                public void bind(Object bean, String text) {
+                    char value = ValueConverters.parseChar(text);
+                    try {
+                        mh.invokeExact(bean, value);
+                    } catch (Throwable e) {
+                        throw rethrow(e);
+                    }
+                }
+            };
+        }
+        return converterBinder(setter, type);
+    }
+
+    private static Binder converterBinder(MethodHandle setter, Class<?> type) {
+        final ValueConverter<?> converter = ValueConverters.get(type);
+        if (converter == null) {
+            return null;
+        }
+        final MethodHandle mh = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return new Binder() {
+            @Override
+            public void bind(Object bean, String text) {
+                Object value = converter.convert(text);
+                try {
+                    mh.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            }
+        };
+    }
+
+    private Getter resolveGetter(String property) {
+        Method method = findGetter(beanClass, property);
+        if (method != null) {
+            return methodGetter(beanClass, method);
+        }
+        Field field = publicField(beanClass, property);
+        if (field == null) {
+            return null;
+        }
+        try {
+            return new HandleGetter(LOOKUP.unreflectGetter(field));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问字段：" + field, e);
+        }
+    }
+
+    /**
+     * 查找public的实例字段（包括父类中声明的），声明在非public类中的字段设置为可访问
+     */
+    private static Field publicField(Class<?> clazz, String name) {
+        try {
+            Field field = clazz.getField(name);
+            if (Modifier.isStatic(field.getModifiers())) {
+                return null;
+            }
+            if (!Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
+                field.setAccessible(true);
+            }
+            return field;
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 按照"get" + 首字母大写的属性名查找public的getter方法，找不到时查找返回boolean的"is"方法
+     */
+    private static Method findGetter(Class<?> clazz, String property) {
+        String name = capitalize(property);
+        Method method = publicMethod(clazz, "get" + name);
+        if (method != null && method.getReturnType() != void.class) {
+            return method;
+        }
+        method = publicMethod(clazz, "is" + name);
+        if (method != null && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+            return method;
+        }
+        return null;
+    }
+
+    private static Method publicMethod(Class<?> clazz, String name) {
+        try {
+            Method method = clazz.getMethod(name);
+            return Modifier.isStatic(method.getModifiers()) ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            // public类中声明的方法才能直接访问，非public类（如私有内部类）中的public方法需要先设置为可访问
+            if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            return LOOKUP.unreflect(method);
+        } catch (Exception e) {
+            throw new IllegalStateException("无法访问方法：" + method, e);
+        }
+    }
+
+    private static Getter methodGetter(Class<?> clazz, Method method) {
+        MethodHandle handle = unreflect(method);
+        if (Modifier.isPublic(clazz.getModifiers()) && Modifier.isPublic(method.getDeclaringClass().getModifiers())
+                && isVisible(method.getDeclaringClass()) && isVisible(method.getReturnType())) {
+            Getter getter = lambdaGetter(handle);
+            if (getter != null) {
+                return getter;
+            }
+        }
+        return new HandleGetter(handle);
+    }
+
+    /**
+     * 通过LambdaMetafactory生成直接调用getter方法的Getter实现，生成失败时返回null
+     */
+    private static Getter lambdaGetter(MethodHandle handle) {
+        try {
+            MethodType type = handle.type();
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get",
+                    MethodType.methodType(Getter.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(wrap(type.returnType()), type.parameterType(0)));
+            return (Getter) site.getTarget().invoke();
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * 生成的Lambda类由本类的ClassLoader加载，只有本类能够看到的类型才能使用LambdaMetafactory
+     */
+    private static boolean isVisible(Class<?> type) {
+        if (type.isPrimitive()) {
+            return true;
+        }
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, BeanAccessor.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) return Integer.class;
+        if (type == long.class) return Long.class;
+        if (type == double.class) return Double.class;
+        if (type == boolean.class) return Boolean.class;
+        if (type == float.class) return Float.class;
+        if (type == short.class) return Short.class;
+        if (type == byte.class) return Byte.class;
+        if (type == char.class) return Character.class;
+        return Void.class;
+    }
+
+    static String capitalize(String name) {
+        if (name.isEmpty()) {
+            return name;
+        }
+        return name.substring(0, 1).toUpperCase() + name.substring(1);
+    }
+
+    static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new IllegalStateException("访问JavaBean属性失败", e);
+    }
+
+    /**
+     * 基于MethodHandle的getter方法调用
+     */
+    private static class HandleGetter implements Getter {
+        private final MethodHandle handle;
+
+        HandleGetter(MethodHandle handle) {
+            this.handle = handle.asType(MethodType.methodType(Object.class, Object.class));
+        }
+
+        @Override
+        public Object get(Object bean) {
+            try {
+                return handle.invokeExact(bean);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package cn.tjd.file;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 将数据行绑定为JavaBean。表头与属性的映射在创建时解析一次，之后每一行只需按列下标调用属性写入器
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+final class BeanBinder<T> {
+
+    private final Class<T> clazz;
+    private final BeanAccessor accessor;
+    private final int[] columns;
+    private final String[] headers;
+    private final String[] properties;
+    private final BeanAccessor.Binder[] binders;
+
+    /**
+     * @param clazz       目标类型
+     * @param headerIndex 表头名称与列下标的映射
+     * @param headMap     属性名与表头名称的映射（与导出时的headMap一致），为null时表头名称即为属性名
+     */
+    BeanBinder(Class<T> clazz, Map<String, Integer> headerIndex, Map<String, String> headMap) {
+        this.clazz = clazz;
+        this.accessor = BeanAccessor.of(clazz);
+        List<Integer> columnList = new ArrayList<>();
+        List<String> headerList = new ArrayList<>();
+        List<String> propertyList = new ArrayList<>();
+        List<BeanAccessor.Binder> binderList = new ArrayList<>();
+        if (headMap == null) {
+            for (Map.Entry<String, Integer> entry : headerIndex.entrySet()) {
+                add(entry.getKey(), entry.getKey(), entry.getValue(), columnList, headerList, propertyList, binderList);
+            }
+        } else {
+            for (Map.Entry<String, String> entry : headMap.entrySet()) {
+                add(entry.getKey(), entry.getValue(), headerIndex.get(entry.getValue()),
+                        columnList, headerList, propertyList, binderList);
+            }
+        }
+        int size = columnList.size();
+        this.columns = new int[size];
+        for (int i = 0; i < size; i++) {
+            columns[i] = columnList.get(i);
+        }
+        this.headers = headerList.toArray(new String[size]);
+        this.properties = propertyList.toArray(new String[size]);
+        this.binders = binderList.toArray(new BeanAccessor.Binder[size]);
+    }
+
+    private void add(String property, String header, Integer column, List<Integer> columnList, List<String> headerList,
+                     List<String> propertyList, List<BeanAccessor.Binder> binderList) {
+        BeanAccessor.Binder binder = accessor.binder(property);
+        if (column == null || binder == null) {
+            return;
+        }
+        columnList.add(column);
+        headerList.add(header);
+        propertyList.add(property);
+        binderList.add(binder);
+    }
+
+    /**
+     * 将一行数据绑定为新的JavaBean实例，空单元格不会写入，对应属性保留默认值
+     *
+     * @param row 数据行
+     * @return
+     */
+    T bind(RowView row) {
+        T bean = clazz.cast(accessor.newInstance());
+        for (int i = 0; i < columns.length; i++) {
+            String text = row.get(columns[i]);
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+            try {
+                binders[i].bind(bean, text);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("第" + row.getRowNumber() + "行[" + headers[i] + "]列的值[" + text
+                        + "]无法写入属性" + clazz.getSimpleName() + "." + properties[i], e);
+            }
+        }
+        return bean;
+    }
+}
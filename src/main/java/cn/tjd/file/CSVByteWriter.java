@@ -0,0 +1,400 @@
+package cn.tjd.file;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+/**
+ * 直接输出字节的CSV写入引擎，输出结果与CSVFormat.DEFAULT下的CSVPrinter保持一致（RFC 4180，最小化引号，CRLF换行）。<br/>
+ * 字符直接编码到可复用的字节缓冲区中：UTF-8与ASCII字符直接写入，GBK等其他兼容ASCII的编码只对非ASCII字符调用CharsetEncoder；
+ * 引号判断与转义在同一次扫描中完成；整数、Float/Double（保留两位小数）以及Date（yyyy-MM-dd HH:mm:ss）直接写入数字，
+ * 不产生中间字符串。该类不是线程安全的
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+final class CSVByteWriter implements Closeable, Flushable {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte COMMA = ',';
+    private static final byte QUOTE = '"';
+    private static final byte[] RECORD_SEPARATOR = {'\r', '\n'};
+
+    private final OutputStream out;
+    private final boolean utf8;
+    private final CharsetEncoder encoder;
+    private final int maxBytesPerChar;
+    private final Calendar calendar = new GregorianCalendar();
+    private byte[] buf;
+    private int pos;
+    private boolean newRecord = true;
+
+    CSVByteWriter(OutputStream out, Charset charset, int bufferSize) {
+        if (!isSupported(charset)) {
+            throw new IllegalArgumentException("不支持的编码格式：" + charset.name());
+        }
+        this.out = out;
+        this.utf8 = StandardCharsets.UTF_8.equals(charset);
+        this.encoder = utf8 ? null : charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.maxBytesPerChar = utf8 ? 3 : (int) Math.ceil(encoder.maxBytesPerChar());
+        this.buf = new byte[Math.max(bufferSize, 1024)];
+    }
+
+    /**
+     * 只支持兼容ASCII的编码格式（UTF-8、GBK、GB18030、ISO-8859-1等）
+     */
+    static boolean isSupported(Charset charset) {
+        if (!charset.canEncode()) {
+            return false;
+        }
+        byte[] ascii = "\r\n\",-.:0123456789 AZaz".getBytes(charset);
+        return Arrays.equals(ascii, "\r\n\",-.:0123456789 AZaz".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * 判断值的类型是否可以由writeValue直接编码，且结果与CellFormatters的默认规则一致
+     */
+    static boolean isNative(Object value) {
+        return value == null || value instanceof String || value instanceof Integer || value instanceof Long
+                || value instanceof Double || value instanceof Float || value instanceof Date
+                || value instanceof Short || value instanceof Byte || value instanceof BigInteger
+                || value instanceof Boolean;
+    }
+
+    /**
+     * 写入一个单元格，写入规则与CellFormatters.DEFAULT保持一致
+     */
+    void writeValue(Object value) throws IOException {
+        if (value == null) {
+            writeField("");
+        } else if (value instanceof String) {
+            writeField((String) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            writeLong(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            writeDecimal(FixedDecimal.unscaled(((Double) value).doubleValue(), 2), (Number) value);
+        } else if (value instanceof Float) {
+            writeDecimal(FixedDecimal.unscaled(((Float) value).floatValue(), 2), (Number) value);
+        } else if (value instanceof Date) {
+            writeDate((Date) value);
+        } else if (value instanceof BigInteger || value instanceof Boolean) {
+            writeAscii(value.toString());
+        } else {
+            writeField(value.toString());
+        }
+    }
+
+    /**
+     * 写入整数
+     */
+    void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        beginField();
+        ensure(21);
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+        pos = putDigits(value, pos);
+    }
+
+    /**
+     * 按照两位小数写入浮点数
+     */
+    void writeDouble(double value) throws IOException {
+        long unscaled = FixedDecimal.unscaled(value, 2);
+        writeDecimal(unscaled, unscaled == FixedDecimal.NOT_EXACT ? Double.valueOf(value) : null);
+    }
+
+    private void writeDecimal(long unscaled, Number original) throws IOException {
+        if (unscaled == FixedDecimal.NOT_EXACT) {
+            writeAscii(FixedDecimal.slowFormat(original, 2));
+            return;
+        }
+        beginField();
+        ensure(24);
+        if (unscaled < 0) {
+            buf[pos++] = '-';
+            unscaled = -unscaled;
+        }
+        pos = putDigits(unscaled / 100, pos);
+        int fraction = (int) (unscaled % 100);
+        buf[pos++] = '.';
+        buf[pos++] = (byte) ('0' + fraction / 10);
+        buf[pos++] = (byte) ('0' + fraction % 10);
+    }
+
+    /**
+     * 按照yyyy-MM-dd HH:mm:ss格式写入日期
+     */
+    void writeDate(Date date) throws IOException {
+        writeDate(date.getTime());
+    }
+
+    /**
+     * 按照yyyy-MM-dd HH:mm:ss格式写入毫秒时间戳，与CellFormatters.DEFAULT_DATE使用同一套格式化规则
+     */
+    void writeDate(long millis) throws IOException {
+        if (!CellFormatters.setDefaultDate(calendar, millis)) {
+            writeAscii(CellFormatters.formatDefaultDate(millis));
+            return;
+        }
+        beginField();
+        ensure(CellFormatters.DEFAULT_DATE_LENGTH);
+        pos = CellFormatters.putDefaultDate(calendar, buf, pos);
+    }
+
+    /**
+     * 按照yyyy-MM-dd格式写入自1970-01-01起的天数
+     */
+    void writeEpochDay(long epochDay) throws IOException {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            writeAscii(CellFormatters.DEFAULT_LOCAL_DATE.format(date));
+            return;
+        }
+        beginField();
+        ensure(10);
+        put4(year);
+        buf[pos++] = '-';
+        put2(date.getMonthValue());
+        buf[pos++] = '-';
+        put2(date.getDayOfMonth());
+    }
+
+    /**
+     * 写入文本单元格，在一次扫描中完成编码、引号转义以及是否需要引号的判断
+     */
+    void writeField(CharSequence value) throws IOException {
+        boolean first = newRecord;
+        beginField();
+        int len = value.length();
+        if (len == 0) {
+            // 与CSVPrinter一致：行首的空值需要加引号，否则空行无法被解析为一个单元格
+            if (first) {
+                ensure(2);
+                buf[pos++] = QUOTE;
+                buf[pos++] = QUOTE;
+            }
+            return;
+        }
+        long worst = (long) len * Math.max(maxBytesPerChar, 2) + 2;
+        if (worst > buf.length - pos) {
+            flushBuffer();
+            if (worst > buf.length) {
+                buf = new byte[(int) Math.min(Integer.MAX_VALUE - 8, worst)];
+            }
+        }
+        int start = pos;
+        boolean quote = value.charAt(0) <= '#';
+        int i = 0;
+        while (i < len) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == QUOTE) {
+                    buf[pos++] = QUOTE;
+                    quote = true;
+                } else if (c == COMMA || c == '\r' || c == '\n') {
+                    quote = true;
+                }
+                buf[pos++] = (byte) c;
+                i++;
+            } else if (utf8) {
+                i = putUtf8(value, i, len);
+            } else {
+                int end = i + 1;
+                while (end < len && value.charAt(end) >= 0x80) {
+                    end++;
+                }
+                encode(value, i, end);
+                i = end;
+            }
+        }
+        if (!quote && value.charAt(len - 1) <= ' ') {
+            quote = true;
+        }
+        if (quote) {
+            System.arraycopy(buf, start, buf, start + 1, pos - start);
+            buf[start] = QUOTE;
+            pos++;
+            buf[pos++] = QUOTE;
+        }
+    }
+
+    /**
+     * 写入已编码的完整记录，用于并行格式化的结果
+     */
+    void writeBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buf.length - pos) {
+            flushBuffer();
+            if (bytes.length > buf.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    /**
+     * 结束当前行
+     */
+    void endRecord() throws IOException {
+        ensure(RECORD_SEPARATOR.length);
+        buf[pos++] = RECORD_SEPARATOR[0];
+        buf[pos++] = RECORD_SEPARATOR[1];
+        newRecord = true;
+    }
+
+    /**
+     * 写入一整行
+     */
+    void writeRecord(Object[] values) throws IOException {
+        for (Object value : values) {
+            writeValue(value);
+        }
+        endRecord();
+    }
+
+    /**
+     * 写入一个已知只包含ASCII字符且不需要引号的值
+     */
+    private void writeAscii(String value) throws IOException {
+        if (value.isEmpty() || value.charAt(0) <= '#' || value.indexOf(',') >= 0) {
+            writeField(value);
+            return;
+        }
+        beginField();
+        int len = value.length();
+        ensure(len);
+        for (int i = 0; i < len; i++) {
+            buf[pos++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void beginField() throws IOException {
+        if (newRecord) {
+            newRecord = false;
+        } else {
+            ensure(1);
+            buf[pos++] = COMMA;
+        }
+    }
+
+    private int putUtf8(CharSequence value, int i, int len) {
+        char c = value.charAt(i);
+        if (c < 0x800) {
+            buf[pos++] = (byte) (0xC0 | (c >> 6));
+            buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            return i + 1;
+        }
+        if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(value.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, value.charAt(i + 1));
+            buf[pos++] = (byte) (0xF0 | (cp >> 18));
+            buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            return i + 2;
+        }
+        if (Character.isSurrogate(c)) {
+            // 不成对的代理字符，与OutputStreamWriter一致替换为'?'
+            buf[pos++] = '?';
+            return i + 1;
+        }
+        buf[pos++] = (byte) (0xE0 | (c >> 12));
+        buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        buf[pos++] = (byte) (0x80 | (c & 0x3F));
+        return i + 1;
+    }
+
+    private void encode(CharSequence value, int start, int end) {
+        CharBuffer in = CharBuffer.wrap(value, start, end);
+        ByteBuffer target = ByteBuffer.wrap(buf, pos, buf.length - pos);
+        encoder.reset();
+        CoderResult result = encoder.encode(in, target, true);
+        if (!result.isUnderflow()) {
+            throw new IllegalStateException("字节缓冲区空间不足：" + result);
+        }
+        encoder.flush(target);
+        pos = target.position();
+    }
+
+    private int putDigits(long value, int at) {
+        if (value == 0) {
+            buf[at++] = '0';
+            return at;
+        }
+        int digits = 0;
+        for (long v = value; v > 0; v /= 10) {
+            digits++;
+        }
+        int end = at + digits;
+        for (int p = end - 1; p >= at; p--) {
+            buf[p] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    private void put2(int value) {
+        buf[pos++] = (byte) ('0' + value / 10);
+        buf[pos++] = (byte) ('0' + value % 10);
+    }
+
+    private void put4(int value) {
+        buf[pos++] = (byte) ('0' + value / 1000);
+        buf[pos++] = (byte) ('0' + value / 100 % 10);
+        buf[pos++] = (byte) ('0' + value / 10 % 10);
+        buf[pos++] = (byte) ('0' + value % 10);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buf.length - pos < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (pos > 0) {
+            out.write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            out.close();
+        }
+    }
+}
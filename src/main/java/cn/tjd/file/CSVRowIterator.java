@@ -0,0 +1,59 @@
+package cn.tjd.file;
+
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 逐行读取CSV文件的迭代器，每次只从CSVParser中拉取一条记录。使用完毕后需要调用close()关闭底层的输入流
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class CSVRowIterator implements Iterator<RowView>, Closeable {
+
+    private final CSVParser parser;
+    private final Iterator<CSVRecord> records;
+    private final Map<String, Integer> headerIndex;
+    private long rowNumber = 0;
+
+    CSVRowIterator(CSVParser parser) {
+        this.parser = parser;
+        this.records = parser.iterator();
+        this.headerIndex = parser.getHeaderMap();
+    }
+
+    /**
+     * @return 表头名称与列下标的映射
+     */
+    public Map<String, Integer> getHeaderIndex() {
+        return headerIndex;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return records.hasNext();
+    }
+
+    /**
+     * 每次返回一个新的行视图（仅持有当前记录的引用），可以在迭代之外继续使用
+     */
+    @Override
+    public RowView next() {
+        if (!records.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return new CSVRowView(headerIndex).reset(records.next(), ++rowNumber);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,43 @@
+package cn.tjd.file;
+
+import org.apache.commons.csv.CSVRecord;
+
+import java.util.Map;
+
+/**
+ * 基于CSVRecord的数据行视图，多行之间可以复用同一个实例
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+final class CSVRowView extends RowView {
+
+    private CSVRecord record;
+    private long rowNumber;
+
+    CSVRowView(Map<String, Integer> headerIndex) {
+        super(headerIndex);
+    }
+
+    CSVRowView reset(CSVRecord record, long rowNumber) {
+        this.record = record;
+        this.rowNumber = rowNumber;
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return record.size();
+    }
+
+    @Override
+    public String get(int index) {
+        return index < record.size() ? record.get(index) : "";
+    }
+
+    @Override
+    public long getRowNumber() {
+        return rowNumber;
+    }
+}
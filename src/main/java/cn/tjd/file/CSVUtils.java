@@ -5,14 +5,16 @@ import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.CSVRecord;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.*;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.math.BigDecimal;
 import java.net.URLEncoder;
-import java.text.SimpleDateFormat;
+import java.nio.charset.Charset;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * CSVUtils是用于CSV文件快速导入导出的工具类，依赖于<br/>
@@ -33,10 +35,27 @@ import java.util.*;
 public class CSVUtils {
 
     public static final String DEFAULT_DATE_PATTERN = "yyyy-MM-dd HH:mm:ss";// 默认日期格式
+    public static final int DEFAULT_FLUSH_ROWS = 1000;// 流式导出时，每写出多少行刷新一次输出流
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;// 写缓冲区大小
 
     private CSVUtils() {
     }
 
+    /**
+     * CSV写入引擎
+     */
+    public enum Engine {
+        /**
+         * 基于commons-csv的CSVPrinter（默认）
+         */
+        COMMONS_CSV,
+        /**
+         * 直接将字符编码到字节缓冲区的写入引擎，输出结果与COMMONS_CSV一致，吞吐量更高、产生的垃圾对象更少，
+         * 只支持UTF-8、GBK等兼容ASCII的编码格式
+         */
+        NATIVE
+    }
+
     /**
      * --------------------------导出-----------------------------------------------
      */
@@ -112,6 +131,158 @@ public class CSVUtils {
         generateCsv(headMap, dataArray, encoding, response.getOutputStream());
     }
 
+    /**
+     * 根据Map类型数据的迭代器，以流式的方式导出CSV文件，数据边读取边写出，适用于数据量较大、无法一次性加载到内存的场景
+     *
+     * @param headMap   表头名称
+     * @param dataIter  数据迭代器
+     * @param filename  文件名称
+     * @param encoding  文件的编码格式
+     * @param response  响应对象
+     * @throws IOException
+     */
+    public static void exportCSVByMapFromIterator(LinkedHashMap<String, String> headMap, Iterator<? extends Map<String, ?>> dataIter,
+                                                  String filename, String encoding, HttpServletResponse response) throws IOException {
+        response.setHeader("Content-Disposition", "attachment;fileName=" + URLEncoder.encode(filename + ".csv", "UTF-8"));
+        generateCsvFromIterator(headMap, dataIter, encoding, response.getOutputStream());
+    }
+
+    /**
+     * 根据Map类型数据的Stream，以流式的方式导出CSV文件。Stream由调用方负责关闭
+     *
+     * @param headMap    表头名称
+     * @param dataStream 数据流
+     * @param filename   文件名称
+     * @param encoding   文件的编码格式
+     * @param response   响应对象
+     * @throws IOException
+     */
+    public static void exportCSVByMapFromStream(LinkedHashMap<String, String> headMap, Stream<? extends Map<String, ?>> dataStream,
+                                                String filename, String encoding, HttpServletResponse response) throws IOException {
+        exportCSVByMapFromIterator(headMap, dataStream == null ? null : dataStream.iterator(), filename, encoding, response);
+    }
+
+    /**
+     * 根据分页回调，逐页拉取Map类型的数据并导出CSV文件，内存中最多只保留一页数据
+     *
+     * @param headMap  表头名称
+     * @param fetcher  分页取数回调
+     * @param pageSize 每页条数
+     * @param filename 文件名称
+     * @param encoding 文件的编码格式
+     * @param response 响应对象
+     * @throws IOException
+     */
+    public static void exportCSVByMapFromPages(LinkedHashMap<String, String> headMap, PageFetcher<? extends Map<String, ?>> fetcher, int pageSize,
+                                               String filename, String encoding, HttpServletResponse response) throws IOException {
+        exportCSVByMapFromIterator(headMap, new PagedIterator<>(fetcher, pageSize), filename, encoding, response);
+    }
+
+    /**
+     * 根据JavaBean数据的迭代器，以流式的方式导出CSV文件
+     *
+     * @param headMap  表头名称，key与JavaBean的属性名相对应
+     * @param dataIter 数据迭代器
+     * @param filename 文件名称
+     * @param encoding 文件编码
+     * @param response 响应对象
+     * @throws IOException
+     */
+    public static void exportCSVByObjectFromIterator(LinkedHashMap<String, String> headMap, Iterator<?> dataIter,
+                                                     String filename, String encoding, HttpServletResponse response) throws IOException {
+        response.setHeader("Content-Disposition", "attachment;fileName=" + URLEncoder.encode(filename + ".csv", "UTF-8"));
+        generateCsvFromIterator(headMap, dataIter, encoding, response.getOutputStream());
+    }
+
+    /**
+     * 根据JavaBean数据的Stream，以流式的方式导出CSV文件。Stream由调用方负责关闭
+     *
+     * @param headMap    表头名称，key与JavaBean的属性名相对应
+     * @param dataStream 数据流
+     * @param filename   文件名称
+     * @param encoding   文件编码
+     * @param response   响应对象
+     * @throws IOException
+     */
+    public static void exportCSVByObjectFromStream(LinkedHashMap<String, String> headMap, Stream<?> dataStream,
+                                                   String filename, String encoding, HttpServletResponse response) throws IOException {
+        exportCSVByObjectFromIterator(headMap, dataStream == null ? null : dataStream.iterator(), filename, encoding, response);
+    }
+
+    /**
+     * 根据分页回调，逐页拉取JavaBean数据并导出CSV文件，内存中最多只保留一页数据
+     *
+     * @param headMap  表头名称，key与JavaBean的属性名相对应
+     * @param fetcher  分页取数回调
+     * @param pageSize 每页条数
+     * @param filename 文件名称
+     * @param encoding 文件编码
+     * @param response 响应对象
+     * @throws IOException
+     */
+    public static void exportCSVByObjectFromPages(LinkedHashMap<String, String> headMap, PageFetcher<?> fetcher, int pageSize,
+                                                  String filename, String encoding, HttpServletResponse response) throws IOException {
+        exportCSVByObjectFromIterator(headMap, new PagedIterator<>(fetcher, pageSize), filename, encoding, response);
+    }
+
+    /**
+     * 以压缩的方式流式导出CSV文件，数据行可以是Map也可以是JavaBean。<br/>
+     * 压缩方式为GZIP_ENCODING时，客户端支持gzip则设置Content-Encoding: gzip，否则不压缩；
+     * GZIP_FILE导出为.csv.gz文件；ZIP导出为包含该CSV文件的.zip压缩包
+     *
+     * @param headMap     表头名称
+     * @param dataIter    数据迭代器
+     * @param filename    文件名称
+     * @param encoding    文件的编码格式
+     * @param compression 压缩方式、压缩级别与缓冲区大小
+     * @param request     请求对象，用于判断客户端是否支持gzip
+     * @param response    响应对象
+     * @throws IOException
+     */
+    public static void exportCSVCompressed(LinkedHashMap<String, String> headMap, Iterator<?> dataIter, String filename,
+                                           String encoding, ExportCompression compression, HttpServletRequest request,
+                                           HttpServletResponse response) throws IOException {
+        OutputStream outputStream = compression.open(request, response, filename, ".csv", "text/csv;charset=" + encoding);
+        try {
+            generateCsvFromIterator(headMap, dataIter, encoding, outputStream);
+        } finally {
+            // generateCsv在headMap为null时不会关闭输出流，这里确保压缩数据的结尾被写出
+            outputStream.close();
+        }
+    }
+
+    /**
+     * 将JDBC结果集直接导出为CSV文件，表头取自ResultSetMetaData，数据行边读取边写出，不需要先转换为Map集合。
+     * 结果集由调用方关闭
+     *
+     * @param resultSet 结果集
+     * @param labels    表头名称，key为列的别名，未指定的列使用别名作为表头，可以为null
+     * @param filename  文件名称
+     * @param encoding  文件的编码格式
+     * @param response  响应对象
+     * @throws IOException
+     * @throws SQLException
+     */
+    public static void exportResultSet(ResultSet resultSet, Map<String, String> labels, String filename,
+                                       String encoding, HttpServletResponse response) throws IOException, SQLException {
+        response.setHeader("Content-Disposition", "attachment;fileName=" + URLEncoder.encode(filename + ".csv", "UTF-8"));
+        generateCsv(resultSet, labels, encoding, response.getOutputStream());
+    }
+
+    /**
+     * 将按列存储的数据集导出为CSV文件，数字与日期直接从基本类型数组中格式化输出
+     *
+     * @param table    数据集
+     * @param filename 文件名称
+     * @param encoding 文件的编码格式
+     * @param response 响应对象
+     * @throws IOException
+     */
+    public static void exportCSV(ColumnTable table, String filename, String encoding, HttpServletResponse response) throws IOException {
+        response.setHeader("Content-Disposition", "attachment;fileName=" + URLEncoder.encode(filename + ".csv", "UTF-8"));
+        generateCsv(table, encoding, response.getOutputStream());
+    }
+
     /**
      * 通过标准输出流，导出CSV文件
      *
@@ -123,111 +294,526 @@ public class CSVUtils {
      */
     public static void generateCsv(LinkedHashMap<String, String> headMap, List dataArray,
                                    String encoding, OutputStream outputStream) throws IOException {
-        OutputStreamWriter osw = new OutputStreamWriter(outputStream, encoding);
-        CSVFormat csvFormat = null;
-        CSVPrinter csvPrinter = null;
-
-        if (headMap != null) {
-            Set<String> keySet = headMap.keySet();
-            //生成文件头
-            String[] titles = keySet.toArray(new String[keySet.size()]);
-            csvFormat = CSVFormat.DEFAULT.withHeader(titles);
-            csvPrinter = new CSVPrinter(osw, csvFormat);
+        generateCsvFromIterator(headMap, dataArray == null ? null : dataArray.iterator(), encoding, outputStream);
+    }
+
+    /**
+     * 通过标准输出流，以流式的方式导出CSV文件。数据行边迭代边写出，每写出DEFAULT_FLUSH_ROWS行刷新一次输出流，
+     * 内存占用与数据总量无关，客户端也能在第一时间收到数据
+     *
+     * @param headMap      表头约束；headMap的key与数据对象（Map）的key相对应；headMap的value用于指定CSV表头显示的文字
+     * @param dataIter     数据行迭代器,数据行具体的类型可以是Map也可以是JavaBean
+     * @param encoding     文件的编码格式
+     * @param outputStream 输出流
+     * @throws IOException
+     */
+    public static void generateCsvFromIterator(LinkedHashMap<String, String> headMap, Iterator<?> dataIter,
+                                               String encoding, OutputStream outputStream) throws IOException {
+        generateCsvFromIterator(headMap, dataIter, encoding, outputStream, Engine.COMMONS_CSV);
+    }
+
+    /**
+     * 通过标准输出流，使用指定的写入引擎以流式的方式导出CSV文件
+     *
+     * @param headMap      表头约束；headMap的key与数据对象（Map）的key相对应；headMap的value用于指定CSV表头显示的文字
+     * @param dataIter     数据行迭代器,数据行具体的类型可以是Map也可以是JavaBean
+     * @param encoding     文件的编码格式
+     * @param outputStream 输出流
+     * @param engine       写入引擎，编码格式不被NATIVE引擎支持时自动使用COMMONS_CSV
+     * @throws IOException
+     */
+    public static void generateCsvFromIterator(LinkedHashMap<String, String> headMap, Iterator<?> dataIter,
+                                               String encoding, OutputStream outputStream, Engine engine) throws IOException {
+        generateCsvFromIterator(headMap, dataIter, encoding, outputStream, engine, CellFormatters.DEFAULT);
+    }
+
+    /**
+     * 通过标准输出流，使用指定的写入引擎与单元格格式化规则，以流式的方式导出CSV文件
+     *
+     * @param headMap      表头约束；headMap的key与数据对象（Map）的key相对应；headMap的value用于指定CSV表头显示的文字
+     * @param dataIter     数据行迭代器,数据行具体的类型可以是Map也可以是JavaBean
+     * @param encoding     文件的编码格式
+     * @param outputStream 输出流
+     * @param engine       写入引擎，编码格式不被NATIVE引擎支持时自动使用COMMONS_CSV
+     * @param formatters   单元格格式化器注册表，按列注册的格式化器与headMap的key相对应
+     * @throws IOException
+     */
+    public static void generateCsvFromIterator(LinkedHashMap<String, String> headMap, Iterator<?> dataIter, String encoding,
+                                               OutputStream outputStream, Engine engine, CellFormatters formatters) throws IOException {
+        generateCsvFromIterator(headMap, dataIter, encoding, outputStream, engine, formatters, null);
+    }
+
+    /**
+     * 通过标准输出流，使用指定的写入引擎与单元格格式化规则，以流式的方式导出CSV文件，可以开启并行格式化。<br/>
+     * 并行格式化时数据行按批次在线程池中完成取值、格式化、转义（NATIVE引擎还包括编码），
+     * 调用线程按顺序写出各批次并在每个批次后刷新输出流，输出结果与单线程导出一致
+     *
+     * @param headMap      表头约束；headMap的key与数据对象（Map）的key相对应；headMap的value用于指定CSV表头显示的文字
+     * @param dataIter     数据行迭代器,数据行具体的类型可以是Map也可以是JavaBean
+     * @param encoding     文件的编码格式
+     * @param outputStream 输出流
+     * @param engine       写入引擎，编码格式不被NATIVE引擎支持时自动使用COMMONS_CSV
+     * @param formatters   单元格格式化器注册表，按列注册的格式化器与headMap的key相对应
+     * @param parallel     并行格式化配置，为null时在调用线程中逐行格式化
+     * @throws IOException
+     */
+    public static void generateCsvFromIterator(LinkedHashMap<String, String> headMap, Iterator<?> dataIter, String encoding,
+                                               OutputStream outputStream, Engine engine, CellFormatters formatters,
+                                               ParallelFormatting parallel) throws IOException {
+        if (headMap == null) {
+            return;
+        }
+        if (parallel != null) {
+            generateCsvParallel(headMap, dataIter, Charset.forName(encoding), outputStream,
+                    engine == Engine.NATIVE && CSVByteWriter.isSupported(Charset.forName(encoding)), formatters, parallel);
+            return;
+        }
+        if (engine == Engine.NATIVE && CSVByteWriter.isSupported(Charset.forName(encoding))) {
+            generateCsvNative(headMap, dataIter, Charset.forName(encoding), outputStream, formatters);
+            return;
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, encoding), WRITE_BUFFER_SIZE);
+        Set<String> keySet = headMap.keySet();
+        //生成文件头
+        String[] titles = keySet.toArray(new String[keySet.size()]);
+        CSVFormat csvFormat = CSVFormat.DEFAULT.withHeader(titles);
+        CSVPrinter csvPrinter = new CSVPrinter(writer, csvFormat);
+        try {
+            //表头写出后立即刷新，让客户端尽早收到数据
+            csvPrinter.flush();
             //生成数据行
-            for (Object row : dataArray) {
-                csvPrinter.printRecord(generateRowArray(headMap, row));
+            if (dataIter != null) {
+                RowExtractor extractor = new RowExtractor(titles);
+                CellFormatters.Bound bound = formatters.bind(titles);
+                Object[] row = new Object[titles.length];
+                int rows = 0;
+                while (dataIter.hasNext()) {
+                    csvPrinter.printRecord(generateRowArray(extractor, bound, dataIter.next(), row));
+                    if (++rows % DEFAULT_FLUSH_ROWS == 0) {
+                        csvPrinter.flush();
+                    }
+                }
             }
+            csvPrinter.flush();
+        } finally {
+            csvPrinter.close();
         }
-        if (csvPrinter != null) {
-            try {
-                csvPrinter.flush();
-                csvPrinter.close();
-            } catch (IOException e) {
-                csvPrinter.flush();
-                csvPrinter.close();
+    }
+
+    private static void generateCsvNative(LinkedHashMap<String, String> headMap, Iterator<?> dataIter, Charset charset,
+                                          OutputStream outputStream, CellFormatters formatters) throws IOException {
+        Set<String> keySet = headMap.keySet();
+        String[] titles = keySet.toArray(new String[keySet.size()]);
+        CSVByteWriter writer = new CSVByteWriter(outputStream, charset, CSVByteWriter.DEFAULT_BUFFER_SIZE);
+        try {
+            //生成文件头，写出后立即刷新
+            writer.writeRecord(titles);
+            writer.flush();
+            if (dataIter != null) {
+                RowExtractor extractor = new RowExtractor(titles);
+                CellFormatters.Bound bound = formatters.bind(titles);
+                Object[] row = new Object[titles.length];
+                int rows = 0;
+                while (dataIter.hasNext()) {
+                    extractor.extract(dataIter.next(), row);
+                    for (int i = 0; i < row.length; i++) {
+                        Object value = row[i];
+                        // 默认格式化规则下，数字与日期由写入引擎直接编码，不产生中间字符串
+                        if (CSVByteWriter.isNative(value) && bound.isDefault(i, value)) {
+                            writer.writeValue(value);
+                        } else {
+                            writer.writeField(bound.format(i, value));
+                        }
+                    }
+                    writer.endRecord();
+                    if (++rows % DEFAULT_FLUSH_ROWS == 0) {
+                        writer.flush();
+                    }
+                }
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * 并行格式化各批次数据行，由调用线程按顺序写出。NATIVE引擎在线程池中直接编码为字节；
+     * COMMONS_CSV引擎在线程池中生成文本，由调用线程统一编码，避免UTF-16等编码在每个批次前重复写出BOM
+     */
+    private static void generateCsvParallel(LinkedHashMap<String, String> headMap, Iterator<?> dataIter, final Charset charset,
+                                            OutputStream outputStream, final boolean nativeEngine, CellFormatters formatters,
+                                            ParallelFormatting parallel) throws IOException {
+        Set<String> keySet = headMap.keySet();
+        final String[] titles = keySet.toArray(new String[keySet.size()]);
+        final CellFormatters.Bound bound = formatters.bind(titles);
+        OrderedBatchPipeline<Object> pipeline = new OrderedBatchPipeline<>(parallel, dataIter,
+                new OrderedBatchPipeline.BatchFormatter<Object>() {
+                    @Override
+                    public Object format(List<Object> rows) throws IOException {
+                        return nativeEngine ? formatNativeBatch(rows, titles, bound, charset) : formatBatch(rows, titles, bound);
+                    }
+                });
+        try {
+            if (nativeEngine) {
+                CSVByteWriter writer = new CSVByteWriter(outputStream, charset, CSVByteWriter.DEFAULT_BUFFER_SIZE);
+                try {
+                    writer.writeRecord(titles);
+                    writer.flush();
+                    byte[] batch;
+                    while ((batch = (byte[]) pipeline.next()) != null) {
+                        writer.writeBytes(batch);
+                        writer.flush();
+                    }
+                } finally {
+                    writer.close();
+                }
+            } else {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, charset), WRITE_BUFFER_SIZE);
+                CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(titles));
+                try {
+                    csvPrinter.flush();
+                    String batch;
+                    while ((batch = (String) pipeline.next()) != null) {
+                        writer.write(batch);
+                        writer.flush();
+                    }
+                } finally {
+                    csvPrinter.close();
+                }
             }
+        } finally {
+            pipeline.cancel();
+        }
+    }
+
+    private static byte[] formatNativeBatch(List<Object> rows, String[] titles, CellFormatters.Bound bound, Charset charset) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows.size() * titles.length * 16);
+        CSVByteWriter writer = new CSVByteWriter(bytes, charset, 8192);
+        RowExtractor extractor = new RowExtractor(titles);
+        Object[] row = new Object[titles.length];
+        for (Object dataRow : rows) {
+            extractor.extract(dataRow, row);
+            for (int i = 0; i < row.length; i++) {
+                Object value = row[i];
+                if (CSVByteWriter.isNative(value) && bound.isDefault(i, value)) {
+                    writer.writeValue(value);
+                } else {
+                    writer.writeField(bound.format(i, value));
+                }
+            }
+            writer.endRecord();
+        }
+        writer.close();
+        return bytes.toByteArray();
+    }
+
+    private static String formatBatch(List<Object> rows, String[] titles, CellFormatters.Bound bound) throws IOException {
+        StringBuilder builder = new StringBuilder(rows.size() * titles.length * 16);
+        CSVPrinter printer = new CSVPrinter(builder, CSVFormat.DEFAULT);
+        RowExtractor extractor = new RowExtractor(titles);
+        Object[] row = new Object[titles.length];
+        for (Object dataRow : rows) {
+            printer.printRecord(generateRowArray(extractor, bound, dataRow, row));
         }
+        return builder.toString();
     }
 
     /**
-     * 按照表头指定的顺序，生成数据行
+     * 通过标准输出流，以流式的方式导出CSV文件。Stream由调用方负责关闭
      *
-     * @param headMap
-     * @param dataRow dataRow为数据行对象，可能是一个Map对象，也可能是一个JavaBean
-     * @return
+     * @param headMap      表头约束
+     * @param dataStream   数据流,数据行具体的类型可以是Map也可以是JavaBean
+     * @param encoding     文件的编码格式
+     * @param outputStream 输出流
+     * @throws IOException
+     */
+    public static void generateCsvFromStream(LinkedHashMap<String, String> headMap, Stream<?> dataStream,
+                                             String encoding, OutputStream outputStream) throws IOException {
+        generateCsvFromIterator(headMap, dataStream == null ? null : dataStream.iterator(), encoding, outputStream);
+    }
+
+    /**
+     * 通过分页回调逐页拉取数据，并通过标准输出流导出CSV文件。只有上一页写出后才会拉取下一页
+     *
+     * @param headMap      表头约束
+     * @param fetcher      分页取数回调
+     * @param pageSize     每页条数
+     * @param encoding     文件的编码格式
+     * @param outputStream 输出流
+     * @throws IOException
      */
-    private static Object[] generateRowArray(LinkedHashMap<String, String> headMap, Object dataRow) {
-        Object[] rowObjects = new Object[headMap.size()];
-        int i = 0;
-        if (dataRow instanceof Map) {
-            for (Map.Entry<String, String> entry : headMap.entrySet()) {
-                Object o = ((Map) dataRow).get(entry.getKey());
-                rowObjects[i] = objToString(o);
-                i++;
+    public static void generateCsvFromPages(LinkedHashMap<String, String> headMap, PageFetcher<?> fetcher, int pageSize,
+                                            String encoding, OutputStream outputStream) throws IOException {
+        generateCsvFromIterator(headMap, new PagedIterator<>(fetcher, pageSize), encoding, outputStream);
+    }
+
+    /**
+     * 通过标准输出流，将JDBC结果集以流式的方式导出为CSV文件。<br/>
+     * 各列按列序号通过getLong、getDouble等方法读取，格式与CellFormatters的默认规则一致，编码格式兼容ASCII时
+     * 由NATIVE引擎直接编码，不产生中间字符串与包装对象。结果集未设置fetchSize时设置为1000，结果集由调用方关闭
+     *
+     * @param resultSet    结果集
+     * @param labels       表头名称，key为列的别名，未指定的列使用别名作为表头，可以为null
+     * @param encoding     文件的编码格式
+     * @param outputStream 输出流
+     * @throws IOException
+     * @throws SQLException
+     */
+    public static void generateCsv(ResultSet resultSet, Map<String, String> labels, String encoding,
+                                   OutputStream outputStream) throws IOException, SQLException {
+        ResultSetColumns columns = ResultSetColumns.of(resultSet, labels);
+        int size = columns.size();
+        Charset charset = Charset.forName(encoding);
+        if (CSVByteWriter.isSupported(charset)) {
+            CSVByteWriter writer = new CSVByteWriter(outputStream, charset, CSVByteWriter.DEFAULT_BUFFER_SIZE);
+            try {
+                writer.writeRecord(columns.getTitles());
+                writer.flush();
+                int rows = 0;
+                while (resultSet.next()) {
+                    for (int i = 0; i < size; i++) {
+                        columns.write(resultSet, i, writer);
+                    }
+                    writer.endRecord();
+                    if (++rows % DEFAULT_FLUSH_ROWS == 0) {
+                        writer.flush();
+                    }
+                }
+            } finally {
+                writer.close();
             }
-        } else {//如果是JavaBean
-            Class<?> clazz = dataRow.getClass();
-            for (Map.Entry<String, String> entry : headMap.entrySet()) {
-                String filedName = entry.getKey();
-                try {
-                    Method method = clazz.getMethod("get" + filedName.substring(0, 1).toUpperCase() + filedName.substring(1));
-                    Object cell = method.invoke(dataRow);
-                    rowObjects[i] = objToString(cell);
-                } catch (Exception e) {
-                    rowObjects[i] = "";
+            return;
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, charset), WRITE_BUFFER_SIZE);
+        CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(columns.getTitles()));
+        try {
+            csvPrinter.flush();
+            Object[] row = new Object[size];
+            int rows = 0;
+            while (resultSet.next()) {
+                for (int i = 0; i < size; i++) {
+                    row[i] = columns.read(resultSet, i, null);
+                }
+                csvPrinter.printRecord(row);
+                if (++rows % DEFAULT_FLUSH_ROWS == 0) {
+                    csvPrinter.flush();
                 }
-                i++;
             }
+            csvPrinter.flush();
+        } finally {
+            csvPrinter.close();
+        }
+    }
 
+    /**
+     * 通过标准输出流，将按列存储的数据集导出为CSV文件。编码格式兼容ASCII时由NATIVE引擎直接从基本类型数组中编码，
+     * 不产生中间字符串与包装对象
+     *
+     * @param table        数据集
+     * @param encoding     文件的编码格式
+     * @param outputStream 输出流
+     * @throws IOException
+     */
+    public static void generateCsv(ColumnTable table, String encoding, OutputStream outputStream) throws IOException {
+        int size = table.getColumnCount();
+        int rowCount = table.getRowCount();
+        Charset charset = Charset.forName(encoding);
+        if (CSVByteWriter.isSupported(charset)) {
+            CSVByteWriter writer = new CSVByteWriter(outputStream, charset, CSVByteWriter.DEFAULT_BUFFER_SIZE);
+            try {
+                writer.writeRecord(table.getNames());
+                for (int row = 0; row < rowCount; row++) {
+                    for (int i = 0; i < size; i++) {
+                        table.write(i, row, writer);
+                    }
+                    writer.endRecord();
+                }
+            } finally {
+                writer.close();
+            }
+            return;
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, charset), WRITE_BUFFER_SIZE);
+        CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(table.getNames()));
+        try {
+            Object[] values = new Object[size];
+            for (int row = 0; row < rowCount; row++) {
+                for (int i = 0; i < size; i++) {
+                    values[i] = table.read(i, row, null);
+                }
+                csvPrinter.printRecord(values);
+            }
+            csvPrinter.flush();
+        } finally {
+            csvPrinter.close();
         }
-        return rowObjects;
     }
 
-    private static String objToString(Object obj) {
-        String result = null;
-        if (obj == null) {
-            result = "";
-        } else if (obj instanceof Date) {
-            result = new SimpleDateFormat(DEFAULT_DATE_PATTERN).format(obj);
-        } else if (obj instanceof Float || obj instanceof Double) {
-            result = new BigDecimal(obj.toString()).setScale(2, BigDecimal.ROUND_HALF_UP).toString();
-        } else {
-            result = obj.toString();
+    /**
+     * 按照表头指定的顺序，生成数据行。row数组会被复用，CSVPrinter写出后即可覆盖
+     *
+     * @param extractor 列值提取器
+     * @param bound     单元格格式化器
+     * @param dataRow   dataRow为数据行对象，可能是一个Map对象，也可能是一个JavaBean
+     * @param row       用于存放结果的数组
+     * @return
+     */
+    private static Object[] generateRowArray(RowExtractor extractor, CellFormatters.Bound bound, Object dataRow, Object[] row) {
+        extractor.extract(dataRow, row);
+        for (int i = 0; i < row.length; i++) {
+            row[i] = bound.format(i, row[i]);
         }
-        return result;
+        return row;
     }
 
     /**
      * --------------------------导入-----------------------------------------------
      */
 
+    /**
+     * 读取CSV文件的全部数据行，第一行作为表头，返回的每个Map的key为表头名称
+     *
+     * @param inputStream 输入流，由调用方关闭
+     * @param encoding    文件的编码格式
+     * @return
+     * @throws IOException
+     */
     public static List<Map<String, String>> readAll(InputStream inputStream, String encoding) throws IOException {
-        Reader reader = new BufferedReader(new InputStreamReader(inputStream, encoding));
-        CSVParser parser = CSVFormat.EXCEL.withHeader().parse(reader);
-        List<CSVRecord> records = parser.getRecords();
-        //存在一行数据
-        if (records.size() >= 1) {
-            List<Map<String, String>> result = new ArrayList<>(records.size());
-            Map<String, Integer> headerMap = parser.getHeaderMap();
-            for (int i = 1; i < records.size(); i++) {
-                Map<String, String> row = convertToMap(headerMap, records.get(i));
-                result.add(row);
+        final List<Map<String, String>> result = new ArrayList<>();
+        read(inputStream, encoding, new RowHandler<RowView>() {
+            @Override
+            public void handle(RowView row) {
+                result.add(row.toMap());
+            }
+        });
+        return result.isEmpty() ? Collections.<Map<String, String>>emptyList() : result;
+    }
+
+    /**
+     * 读取CSV文件的全部数据行，单元格经过去重器去重，返回的每个Map为共享表头索引的紧凑只读Map。<br/>
+     * 适用于包含状态、地区等低基数列的大文件，读取完成后可以通过去重器查看估算节省的内存
+     *
+     * @param inputStream  输入流，由调用方关闭
+     * @param encoding     文件的编码格式
+     * @param deduplicator 字符串去重器，每次导入使用一个新的实例
+     * @return
+     * @throws IOException
+     */
+    public static List<Map<String, String>> readAll(InputStream inputStream, String encoding,
+                                                    final StringDeduplicator deduplicator) throws IOException {
+        final List<Map<String, String>> result = new ArrayList<>();
+        read(inputStream, encoding, new RowHandler<RowView>() {
+            @Override
+            public void handle(RowView row) {
+                result.add(deduplicator.toMap(row));
             }
-            return result;
+        });
+        return result.isEmpty() ? Collections.<Map<String, String>>emptyList() : result;
+    }
+
+    /**
+     * 以流式的方式逐行读取CSV文件，第一行作为表头，每读取一行回调一次handler，内存占用与文件大小无关。<br/>
+     * 回调中得到的RowView会被复用，仅在回调期间有效。读取完毕后不会关闭输入流
+     *
+     * @param inputStream 输入流，由调用方关闭
+     * @param encoding    文件的编码格式
+     * @param handler     数据行回调
+     * @throws IOException
+     */
+    public static void read(InputStream inputStream, String encoding, RowHandler<? super RowView> handler) throws IOException {
+        // CSVParser只持有对输入流的包装，不关闭也不会泄漏资源，输入流的生命周期交给调用方
+        CSVParser parser = createParser(inputStream, encoding);
+        CSVRowView view = new CSVRowView(parser.getHeaderMap());
+        long rowNumber = 0;
+        for (CSVRecord record : parser) {
+            handler.handle(view.reset(record, ++rowNumber));
         }
-        return Collections.emptyList();
     }
 
-    private static Map<String, String> convertToMap(Map<String, Integer> title, CSVRecord row) {
-        if (title.size() > 0) {
-            Map<String, String> result = new LinkedHashMap<>(title.size());//指定大小，避免扩容造性能损耗
-            for (Map.Entry<String, Integer> titleEntry : title.entrySet()) {
-                Integer index = titleEntry.getValue();
-                String value = row.size() > index ? row.get(index) : "";
-                result.put(titleEntry.getKey(), value);
+    /**
+     * 以迭代器的方式逐行读取CSV文件，第一行作为表头。使用完毕后需要关闭迭代器
+     *
+     * @param inputStream 输入流
+     * @param encoding    文件的编码格式
+     * @return
+     * @throws IOException
+     */
+    public static CSVRowIterator iterator(InputStream inputStream, String encoding) throws IOException {
+        return new CSVRowIterator(createParser(inputStream, encoding));
+    }
+
+    /**
+     * 以Stream的方式逐行读取CSV文件，第一行作为表头。Stream关闭时会关闭底层的输入流，建议配合try-with-resources使用
+     *
+     * @param inputStream 输入流
+     * @param encoding    文件的编码格式
+     * @return
+     * @throws IOException
+     */
+    public static Stream<RowView> stream(InputStream inputStream, String encoding) throws IOException {
+        final CSVRowIterator iterator = iterator(inputStream, encoding);
+        Spliterator<RowView> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    iterator.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
             }
-            return result;
+        });
+    }
+
+    /**
+     * 读取CSV文件的全部数据行，并将每一行绑定为指定类型的JavaBean。<br/>
+     * headMap的key为JavaBean的属性名，value为CSV的表头名称（与导出时的headMap一致），为null时表头名称即为属性名。
+     * 单元格文本通过ValueConverters转换为属性的类型，基本类型的属性直接解析，不经过装箱
+     *
+     * @param inputStream 输入流，由调用方关闭
+     * @param encoding    文件的编码格式
+     * @param clazz       JavaBean的类型，需要有无参构造方法
+     * @param headMap     属性名与表头名称的映射
+     * @return
+     * @throws IOException
+     */
+    public static <T> List<T> readAll(InputStream inputStream, String encoding, Class<T> clazz,
+                                      Map<String, String> headMap) throws IOException {
+        final List<T> result = new ArrayList<>();
+        read(inputStream, encoding, clazz, headMap, new RowHandler<T>() {
+            @Override
+            public void handle(T row) {
+                result.add(row);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 以流式的方式逐行读取CSV文件，并将每一行绑定为指定类型的JavaBean后回调handler
+     *
+     * @param inputStream 输入流，由调用方关闭
+     * @param encoding    文件的编码格式
+     * @param clazz       JavaBean的类型，需要有无参构造方法
+     * @param headMap     属性名与表头名称的映射，为null时表头名称即为属性名
+     * @param handler     数据行回调
+     * @throws IOException
+     */
+    public static <T> void read(InputStream inputStream, String encoding, Class<T> clazz, Map<String, String> headMap,
+                                RowHandler<? super T> handler) throws IOException {
+        CSVParser parser = createParser(inputStream, encoding);
+        Map<String, Integer> headerIndex = parser.getHeaderMap();
+        BeanBinder<T> binder = new BeanBinder<>(clazz, headerIndex, headMap);
+        CSVRowView view = new CSVRowView(headerIndex);
+        long rowNumber = 0;
+        for (CSVRecord record : parser) {
+            handler.handle(binder.bind(view.reset(record, ++rowNumber)));
         }
-        return Collections.emptyMap();
+    }
+
+    private static CSVParser createParser(InputStream inputStream, String encoding) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(inputStream, encoding));
+        return CSVFormat.EXCEL.withHeader().parse(reader);
     }
 }
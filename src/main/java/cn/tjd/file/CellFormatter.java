@@ -0,0 +1,19 @@
+package cn.tjd.file;
+
+/**
+ * 单元格格式化器，导出时用于将单元格的值转换为文本。实现类需要是线程安全的
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public interface CellFormatter {
+
+    /**
+     * 将单元格的值格式化为文本
+     *
+     * @param value 单元格的值，不为null
+     * @return
+     */
+    String format(Object value);
+}
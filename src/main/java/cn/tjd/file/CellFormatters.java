@@ -0,0 +1,356 @@
+package cn.tjd.file;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 单元格格式化器注册表，CSVUtils与ExcelUtils共享。支持按列（headMap的key）与按类型注册格式化器，按列注册的优先。<br/>
+ * 默认规则与原有输出保持一致：Date按yyyy-MM-dd HH:mm:ss格式化，Float/Double保留两位小数（HALF_UP），其余调用toString()；
+ * java.time类型分别按yyyy-MM-dd HH:mm:ss、yyyy-MM-dd、HH:mm:ss格式化。<br/>
+ * java.time类型使用线程安全的DateTimeFormatter格式化，java.util.Date与原有输出一致按SimpleDateFormat的规则格式化
+ * （1582-10-15之前的日期使用儒略历），两者均按pattern缓存；小数格式化不经过BigDecimal。
+ * DEFAULT实例不可修改，自定义规则请通过create()创建新的注册表
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public final class CellFormatters {
+
+    private static final ConcurrentMap<String, DateTimeFormatter> PATTERNS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ThreadLocal<SimpleDateFormat>> LEGACY_PATTERNS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Calendar> CALENDARS = new ThreadLocal<Calendar>() {
+        @Override
+        protected Calendar initialValue() {
+            return new GregorianCalendar();
+        }
+    };
+    static final int DEFAULT_DATE_LENGTH = 19;// 默认格式yyyy-MM-dd HH:mm:ss的长度
+
+    static final CellFormatter TO_STRING = new CellFormatter() {
+        @Override
+        public String format(Object value) {
+            return value.toString();
+        }
+    };
+    static final CellFormatter DEFAULT_DATE = date(CSVUtils.DEFAULT_DATE_PATTERN);
+    static final CellFormatter DEFAULT_LOCAL_DATE = date("yyyy-MM-dd");
+    static final CellFormatter DEFAULT_LOCAL_TIME = date("HH:mm:ss");
+    static final CellFormatter DEFAULT_DECIMAL = decimal(2);
+
+    /**
+     * 默认的格式化器注册表
+     */
+    public static final CellFormatters DEFAULT = new CellFormatters(false);
+
+    private final boolean mutable;
+    private final Map<Class<?>, CellFormatter> typeFormatters;
+    private final Map<String, CellFormatter> columnFormatters;
+    private final ConcurrentMap<Class<?>, CellFormatter> resolved = new ConcurrentHashMap<>();
+
+    private CellFormatters(boolean mutable) {
+        this.mutable = mutable;
+        this.typeFormatters = new LinkedHashMap<>();
+        this.columnFormatters = new ConcurrentHashMap<>();
+        typeFormatters.put(Date.class, DEFAULT_DATE);
+        typeFormatters.put(Double.class, DEFAULT_DECIMAL);
+        typeFormatters.put(Float.class, DEFAULT_DECIMAL);
+        typeFormatters.put(LocalDateTime.class, DEFAULT_DATE);
+        typeFormatters.put(LocalDate.class, DEFAULT_LOCAL_DATE);
+        typeFormatters.put(LocalTime.class, DEFAULT_LOCAL_TIME);
+        typeFormatters.put(ZonedDateTime.class, DEFAULT_DATE);
+        typeFormatters.put(OffsetDateTime.class, DEFAULT_DATE);
+        typeFormatters.put(Instant.class, DEFAULT_DATE);
+    }
+
+    /**
+     * 创建一个包含默认规则的注册表，可以在此基础上注册自定义的格式化器
+     *
+     * @return
+     */
+    public static CellFormatters create() {
+        return new CellFormatters(true);
+    }
+
+    /**
+     * 为指定类型（包括其子类）注册格式化器
+     *
+     * @param type      值的类型
+     * @param formatter 格式化器
+     * @return 当前注册表
+     */
+    public synchronized CellFormatters forType(Class<?> type, CellFormatter formatter) {
+        checkMutable();
+        typeFormatters.put(type, formatter);
+        resolved.clear();
+        return this;
+    }
+
+    /**
+     * 为指定列注册格式化器，优先于按类型注册的格式化器
+     *
+     * @param column    列的key，与headMap的key相对应
+     * @param formatter 格式化器
+     * @return 当前注册表
+     */
+    public CellFormatters forColumn(String column, CellFormatter formatter) {
+        checkMutable();
+        columnFormatters.put(column, formatter);
+        return this;
+    }
+
+    /**
+     * 格式化单元格的值
+     *
+     * @param column 列的key，可以为null
+     * @param value  单元格的值
+     * @return value为null时返回空字符串
+     */
+    public String format(String column, Object value) {
+        if (value == null) {
+            return "";
+        }
+        CellFormatter formatter = column == null ? null : columnFormatters.get(column);
+        if (formatter == null) {
+            formatter = typeFormatter(value.getClass());
+        }
+        return formatter.format(value);
+    }
+
+    /**
+     * 按照列的顺序绑定按列注册的格式化器，导出时每个单元格只需按下标取用
+     */
+    Bound bind(String[] columns) {
+        CellFormatter[] formatters = new CellFormatter[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            formatters[i] = columnFormatters.get(columns[i]);
+        }
+        return new Bound(this, formatters);
+    }
+
+    CellFormatter typeFormatter(Class<?> type) {
+        CellFormatter formatter = resolved.get(type);
+        if (formatter == null) {
+            formatter = resolve(type);
+            resolved.put(type, formatter);
+        }
+        return formatter;
+    }
+
+    private synchronized CellFormatter resolve(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            CellFormatter formatter = typeFormatters.get(c);
+            if (formatter != null) {
+                return formatter;
+            }
+        }
+        for (Map.Entry<Class<?>, CellFormatter> entry : typeFormatters.entrySet()) {
+            if (entry.getKey().isAssignableFrom(type)) {
+                return entry.getValue();
+            }
+        }
+        return TO_STRING;
+    }
+
+    private void checkMutable() {
+        if (!mutable) {
+            throw new UnsupportedOperationException("默认注册表不可修改，请通过CellFormatters.create()创建新的注册表");
+        }
+    }
+
+    /**
+     * 按照pattern格式化日期时间，支持Date及java.time的常用类型。<br/>
+     * java.util.Date按SimpleDateFormat的规则格式化，与java.util.Date本身使用的历法一致（1582-10-15之前为儒略历）；
+     * Instant与java.time类型按DateTimeFormatter的规则格式化（ISO历法）。常用的y、M、d、H、m、s、S在两者中含义相同，
+     * pattern只被DateTimeFormatter支持时java.util.Date也按DateTimeFormatter格式化
+     *
+     * @param pattern 日期格式，如yyyy-MM-dd HH:mm:ss
+     * @return
+     */
+    public static CellFormatter date(String pattern) {
+        DateTimeFormatter formatter = PATTERNS.get(pattern);
+        if (formatter == null) {
+            formatter = DateTimeFormatter.ofPattern(pattern);
+            DateTimeFormatter previous = PATTERNS.putIfAbsent(pattern, formatter);
+            if (previous != null) {
+                formatter = previous;
+            }
+        }
+        final DateTimeFormatter dateTimeFormatter = formatter;
+        final ThreadLocal<SimpleDateFormat> dateFormat = legacyFormat(pattern);
+        final boolean defaultPattern = CSVUtils.DEFAULT_DATE_PATTERN.equals(pattern);
+        return new CellFormatter() {
+            @Override
+            public String format(Object value) {
+                if (value instanceof Date) {
+                    if (defaultPattern) {
+                        return formatDefaultDate(((Date) value).getTime());
+                    }
+                    if (dateFormat != null) {
+                        return dateFormat.get().format((Date) value);
+                    }
+                    return dateTimeFormatter.format(Instant.ofEpochMilli(((Date) value).getTime()).atZone(ZoneId.systemDefault()));
+                }
+                if (value instanceof Instant) {
+                    return dateTimeFormatter.format(((Instant) value).atZone(ZoneId.systemDefault()));
+                }
+                return dateTimeFormatter.format((TemporalAccessor) value);
+            }
+        };
+    }
+
+    /**
+     * 按照默认格式yyyy-MM-dd HH:mm:ss格式化java.util.Date。CSV的两种写入引擎共用这一套规则：
+     * COMMONS_CSV通过DEFAULT_DATE得到字符串，NATIVE通过setDefaultDate与putDefaultDate直接写入字节缓冲区
+     *
+     * @param millis 毫秒时间戳
+     * @return
+     */
+    static String formatDefaultDate(long millis) {
+        Calendar calendar = CALENDARS.get();
+        if (!setDefaultDate(calendar, millis)) {
+            return legacyFormat(CSVUtils.DEFAULT_DATE_PATTERN).get().format(new Date(millis));
+        }
+        byte[] bytes = new byte[DEFAULT_DATE_LENGTH];
+        putDefaultDate(calendar, bytes, 0);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 将日历设置为指定的时间，GregorianCalendar与SimpleDateFormat使用相同的历法
+     *
+     * @return 年份为公元1000~9999年时返回true，可以通过putDefaultDate写入；否则需要通过formatDefaultDate格式化
+     */
+    static boolean setDefaultDate(Calendar calendar, long millis) {
+        calendar.setTimeInMillis(millis);
+        int year = calendar.get(Calendar.YEAR);
+        return year >= 1000 && year <= 9999 && calendar.get(Calendar.ERA) == GregorianCalendar.AD;
+    }
+
+    /**
+     * 按照yyyy-MM-dd HH:mm:ss格式写入日历的各个字段，共DEFAULT_DATE_LENGTH个ASCII字符
+     *
+     * @return 写入后的位置
+     */
+    static int putDefaultDate(Calendar calendar, byte[] buf, int at) {
+        int year = calendar.get(Calendar.YEAR);
+        buf[at++] = (byte) ('0' + year / 1000);
+        buf[at++] = (byte) ('0' + year / 100 % 10);
+        at = put2(buf, at, year % 100);
+        buf[at++] = '-';
+        at = put2(buf, at, calendar.get(Calendar.MONTH) + 1);
+        buf[at++] = '-';
+        at = put2(buf, at, calendar.get(Calendar.DAY_OF_MONTH));
+        buf[at++] = ' ';
+        at = put2(buf, at, calendar.get(Calendar.HOUR_OF_DAY));
+        buf[at++] = ':';
+        at = put2(buf, at, calendar.get(Calendar.MINUTE));
+        buf[at++] = ':';
+        return put2(buf, at, calendar.get(Calendar.SECOND));
+    }
+
+    private static int put2(byte[] buf, int at, int value) {
+        buf[at++] = (byte) ('0' + value / 10);
+        buf[at++] = (byte) ('0' + value % 10);
+        return at;
+    }
+
+    /**
+     * @return pattern只被DateTimeFormatter支持时返回null
+     */
+    private static ThreadLocal<SimpleDateFormat> legacyFormat(final String pattern) {
+        ThreadLocal<SimpleDateFormat> format = LEGACY_PATTERNS.get(pattern);
+        if (format == null) {
+            try {
+                new SimpleDateFormat(pattern);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            format = new ThreadLocal<SimpleDateFormat>() {
+                @Override
+                protected SimpleDateFormat initialValue() {
+                    return new SimpleDateFormat(pattern);
+                }
+            };
+            ThreadLocal<SimpleDateFormat> previous = LEGACY_PATTERNS.putIfAbsent(pattern, format);
+            if (previous != null) {
+                format = previous;
+            }
+        }
+        return format;
+    }
+
+    /**
+     * 按照固定的小数位数（HALF_UP）格式化数字，Float/Double不经过BigDecimal
+     *
+     * @param scale 小数位数，取值范围0~9
+     * @return
+     */
+    public static CellFormatter decimal(final int scale) {
+        if (scale < 0 || scale > 9) {
+            throw new IllegalArgumentException("scale的取值范围为0~9");
+        }
+        return new CellFormatter() {
+            @Override
+            public String format(Object value) {
+                if (value instanceof Double || value instanceof Float) {
+                    return FixedDecimal.format((Number) value, scale);
+                }
+                return new BigDecimal(value.toString()).setScale(scale, RoundingMode.HALF_UP).toString();
+            }
+        };
+    }
+
+    /**
+     * 绑定了列顺序的格式化器，非线程安全的使用场景下每次导出创建一个
+     */
+    static final class Bound {
+        private final CellFormatters registry;
+        private final CellFormatter[] columnFormatters;
+
+        private Bound(CellFormatters registry, CellFormatter[] columnFormatters) {
+            this.registry = registry;
+            this.columnFormatters = columnFormatters;
+        }
+
+        String format(int column, Object value) {
+            if (value == null) {
+                return "";
+            }
+            CellFormatter formatter = columnFormatters[column];
+            if (formatter == null) {
+                formatter = registry.typeFormatter(value.getClass());
+            }
+            return formatter.format(value);
+        }
+
+        /**
+         * 判断指定单元格是否使用默认的格式化规则
+         */
+        boolean isDefault(int column, Object value) {
+            if (columnFormatters[column] != null) {
+                return false;
+            }
+            return value == null || registry == DEFAULT
+                    || registry.typeFormatter(value.getClass()) == DEFAULT.typeFormatter(value.getClass());
+        }
+    }
+}
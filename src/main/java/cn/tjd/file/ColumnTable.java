@@ -0,0 +1,294 @@
+package cn.tjd.file;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按列存储的导出数据集，CSVUtils与ExcelUtils可以直接从基本类型数组中格式化输出，不需要为每行创建Map、为每个单元格创建包装对象。<br/>
+ * 支持int[]、long[]、double[]、字典编码的字符串以及以毫秒时间戳（日期时间）或天数（日期）表示的日期列，
+ * 每列可以通过setNull()标记空值。数组由调用方创建并直接引用，不会被复制，数组长度不能小于行数。<br/>
+ * 使用示例：
+ * <pre>
+ * ColumnTable table = new ColumnTable(ids.length)
+ *         .addLong("订单号", ids)
+ *         .addString("城市", cityDictionary, cityCodes)
+ *         .addDouble("金额", amounts)
+ *         .addDateTime("下单时间", createTimes);
+ * ExcelUtils.createWorkBook(ExcelUtils.ExcelType.XLSX_STREAM, table, "订单", outputStream);
+ * </pre>
+ * 文本格式与CellFormatters的默认规则一致：浮点数保留两位小数，日期时间按yyyy-MM-dd HH:mm:ss格式化，日期按yyyy-MM-dd格式化
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public final class ColumnTable {
+
+    private static final int INT = 0;
+    private static final int LONG = 1;
+    private static final int DOUBLE = 2;
+    private static final int STRING = 3;
+    private static final int DATE_TIME = 4;
+    private static final int DATE = 5;
+
+    private final int rowCount;
+    private final List<Column> columns = new ArrayList<>();
+
+    /**
+     * 列的数据与空值位图
+     */
+    private static final class Column {
+        final String name;
+        final int type;
+        final int[] ints;
+        final long[] longs;
+        final double[] doubles;
+        final String[] dictionary;
+        BitSet nulls;
+
+        Column(String name, int type, int[] ints, long[] longs, double[] doubles, String[] dictionary) {
+            this.name = name;
+            this.type = type;
+            this.ints = ints;
+            this.longs = longs;
+            this.doubles = doubles;
+            this.dictionary = dictionary;
+        }
+    }
+
+    /**
+     * @param rowCount 数据行数
+     */
+    public ColumnTable(int rowCount) {
+        if (rowCount < 0) {
+            throw new IllegalArgumentException("rowCount不能小于0");
+        }
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * 添加int类型的列
+     *
+     * @param name   表头名称
+     * @param values 列数据
+     * @return 当前数据集
+     */
+    public ColumnTable addInt(String name, int[] values) {
+        checkLength(name, values.length);
+        return add(new Column(name, INT, values, null, null, null));
+    }
+
+    /**
+     * 添加long类型的列
+     *
+     * @param name   表头名称
+     * @param values 列数据
+     * @return 当前数据集
+     */
+    public ColumnTable addLong(String name, long[] values) {
+        checkLength(name, values.length);
+        return add(new Column(name, LONG, null, values, null, null));
+    }
+
+    /**
+     * 添加double类型的列
+     *
+     * @param name   表头名称
+     * @param values 列数据
+     * @return 当前数据集
+     */
+    public ColumnTable addDouble(String name, double[] values) {
+        checkLength(name, values.length);
+        return add(new Column(name, DOUBLE, null, null, values, null));
+    }
+
+    /**
+     * 添加字典编码的字符串列，重复度高的字符串（如城市、状态）每个取值只保存一份
+     *
+     * @param name       表头名称
+     * @param dictionary 字典
+     * @param codes      每行的取值在字典中的下标，-1表示空值
+     * @return 当前数据集
+     * @throws IllegalArgumentException 下标小于-1或者超出字典的范围
+     */
+    public ColumnTable addString(String name, String[] dictionary, int[] codes) {
+        checkLength(name, codes.length);
+        for (int i = 0; i < rowCount; i++) {
+            if (codes[i] < -1 || codes[i] >= dictionary.length) {
+                throw new IllegalArgumentException("列" + name + "第" + i + "行的字典下标超出范围：" + codes[i]
+                        + "，字典长度为" + dictionary.length);
+            }
+        }
+        return add(new Column(name, STRING, codes, null, null, dictionary));
+    }
+
+    /**
+     * 添加字符串列，取值按字典编码后保存，null表示空值
+     *
+     * @param name   表头名称
+     * @param values 列数据
+     * @return 当前数据集
+     */
+    public ColumnTable addString(String name, String[] values) {
+        checkLength(name, values.length);
+        Map<String, Integer> index = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] codes = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            String value = values[i];
+            if (value == null) {
+                codes[i] = -1;
+                continue;
+            }
+            Integer code = index.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                index.put(value, code);
+                dictionary.add(value);
+            }
+            codes[i] = code;
+        }
+        return add(new Column(name, STRING, codes, null, null, dictionary.toArray(new String[dictionary.size()])));
+    }
+
+    /**
+     * 添加日期时间列，按yyyy-MM-dd HH:mm:ss格式输出
+     *
+     * @param name         表头名称
+     * @param epochMillis  毫秒时间戳
+     * @return 当前数据集
+     */
+    public ColumnTable addDateTime(String name, long[] epochMillis) {
+        checkLength(name, epochMillis.length);
+        return add(new Column(name, DATE_TIME, null, epochMillis, null, null));
+    }
+
+    /**
+     * 添加日期列，按yyyy-MM-dd格式输出
+     *
+     * @param name      表头名称
+     * @param epochDays 自1970-01-01起的天数，即LocalDate.toEpochDay()
+     * @return 当前数据集
+     */
+    public ColumnTable addDate(String name, int[] epochDays) {
+        checkLength(name, epochDays.length);
+        return add(new Column(name, DATE, epochDays, null, null, null));
+    }
+
+    /**
+     * 将指定单元格标记为空值
+     *
+     * @param column 列的下标
+     * @param row    行的下标
+     * @return 当前数据集
+     */
+    public ColumnTable setNull(int column, int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("row: " + row);
+        }
+        Column c = columns.get(column);
+        if (c.nulls == null) {
+            c.nulls = new BitSet(rowCount);
+        }
+        c.nulls.set(row);
+        return this;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    /**
+     * @return 表头名称，同时作为ExcelExportConfig按列指定数字格式时的列名
+     */
+    public String[] getNames() {
+        String[] names = new String[columns.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = columns.get(i).name;
+        }
+        return names;
+    }
+
+    private ColumnTable add(Column column) {
+        columns.add(column);
+        return this;
+    }
+
+    private void checkLength(String name, int length) {
+        if (length < rowCount) {
+            throw new IllegalArgumentException("列" + name + "的数据长度小于行数：" + length + " < " + rowCount);
+        }
+    }
+
+    /**
+     * 读取单元格的值
+     *
+     * @param cellValue 不为null时，可以写为Excel原生单元格的值解析到cellValue中
+     * @return 值已解析到cellValue时返回null，否则返回单元格的文本，空值返回空字符串
+     */
+    String read(int column, int row, ExcelCellValue cellValue) {
+        Column c = columns.get(column);
+        if (c.nulls != null && c.nulls.get(row)) {
+            return "";
+        }
+        switch (c.type) {
+            case INT:
+                return cellValue != null && cellValue.resolveLong(c.ints[row]) ? null : Integer.toString(c.ints[row]);
+            case LONG:
+                return cellValue != null && cellValue.resolveLong(c.longs[row]) ? null : Long.toString(c.longs[row]);
+            case DOUBLE:
+                return cellValue != null && cellValue.resolveDouble(c.doubles[row])
+                        ? null : CellFormatters.DEFAULT_DECIMAL.format(c.doubles[row]);
+            case DATE_TIME:
+                return cellValue != null && cellValue.resolveDateTime(c.longs[row])
+                        ? null : CellFormatters.DEFAULT_DATE.format(new Date(c.longs[row]));
+            case DATE:
+                return cellValue != null && cellValue.resolveEpochDay(c.ints[row])
+                        ? null : CellFormatters.DEFAULT_LOCAL_DATE.format(LocalDate.ofEpochDay(c.ints[row]));
+            default:
+                int code = c.ints[row];
+                return code < 0 ? "" : c.dictionary[code];
+        }
+    }
+
+    /**
+     * 将单元格的值写入CSV，数字与日期由写入引擎直接编码
+     */
+    void write(int column, int row, CSVByteWriter writer) throws IOException {
+        Column c = columns.get(column);
+        if (c.nulls != null && c.nulls.get(row)) {
+            writer.writeField("");
+            return;
+        }
+        switch (c.type) {
+            case INT:
+                writer.writeLong(c.ints[row]);
+                break;
+            case LONG:
+                writer.writeLong(c.longs[row]);
+                break;
+            case DOUBLE:
+                writer.writeDouble(c.doubles[row]);
+                break;
+            case DATE_TIME:
+                writer.writeDate(c.longs[row]);
+                break;
+            case DATE:
+                writer.writeEpochDay(c.ints[row]);
+                break;
+            default:
+                int code = c.ints[row];
+                writer.writeField(code < 0 ? "" : c.dictionary[code]);
+        }
+    }
+}
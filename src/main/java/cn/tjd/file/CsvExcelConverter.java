@@ -0,0 +1,282 @@
+package cn.tjd.file;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * CSV与Excel之间的流式转换工具。解析器读取的数据行直接交给写入器逐行写出，不会将整个文件加载到内存中，
+ * 适用于GB级别的文件转换。<br/>
+ * 1. CSV转Excel：按文本写入单元格（保留前导0、长数字等原始内容），可以选择将第一行作为表头（带表头样式，换Sheet时重复写出）；
+ * 列数多于第一行的数据行按实际的列数写入（超出的列没有表头）。超出单个Sheet行数上限时自动创建新的Sheet，推荐使用ExcelType.XLSX_STREAM<br/>
+ * 2. Excel转CSV：基于SAX解析，单元格按Excel中显示的格式转换为文本，可以选择是否写出第一个非空行（表头），空行被跳过。
+ * XLS文件请使用File参数的方法，避免将整个文件读入内存；XLSX的共享字符串表会被加载到内存中
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public final class CsvExcelConverter {
+
+    private CsvExcelConverter() {
+    }
+
+    /**
+     * 将CSV转换为Excel，第一行作为表头
+     *
+     * @param csvInput     CSV输入流，转换完成后关闭
+     * @param encoding     CSV文件的编码格式
+     * @param excelType    Excel文件的格式
+     * @param sheetName    工作簿名称
+     * @param outputStream 输出流，转换完成后关闭
+     * @throws IOException
+     */
+    public static void csvToExcel(InputStream csvInput, String encoding, ExcelUtils.ExcelType excelType, String sheetName,
+                                  OutputStream outputStream) throws IOException {
+        csvToExcel(csvInput, encoding, true, excelType, sheetName, outputStream, ExcelExportConfig.DEFAULT);
+    }
+
+    /**
+     * 按照导出配置将CSV转换为Excel
+     *
+     * @param csvInput         CSV输入流，转换完成后关闭
+     * @param encoding         CSV文件的编码格式，文件开头的BOM会被忽略
+     * @param firstRowAsHeader 是否将第一行作为表头，为false时所有行都按数据行写入
+     * @param excelType        Excel文件的格式
+     * @param sheetName        工作簿名称
+     * @param outputStream     输出流，转换完成后关闭
+     * @param config           导出配置，按列指定数字格式对文本单元格不生效
+     * @throws IOException
+     */
+    public static void csvToExcel(InputStream csvInput, String encoding, boolean firstRowAsHeader, ExcelUtils.ExcelType excelType,
+                                  String sheetName, OutputStream outputStream, ExcelExportConfig config) throws IOException {
+        Reader reader = skipBom(new BufferedReader(new InputStreamReader(csvInput, encoding)));
+        CSVParser parser = CSVFormat.EXCEL.parse(reader);
+        try {
+            Iterator<CSVRecord> records = parser.iterator();
+            if (!records.hasNext()) {
+                ExcelUtils.writeWorkBook(excelType, new String[0], null, new CsvCursor(records, null),
+                        sheetName, outputStream, config);
+                return;
+            }
+            CSVRecord first = records.next();
+            String[] firstRow = new String[first.size()];
+            for (int i = 0; i < firstRow.length; i++) {
+                firstRow[i] = first.get(i);
+            }
+            String[] keys = new String[firstRow.length];
+            Arrays.fill(keys, "");
+            if (firstRowAsHeader) {
+                ExcelUtils.writeWorkBook(excelType, firstRow, firstRow, new CsvCursor(records, null),
+                        sheetName, outputStream, config);
+            } else {
+                ExcelUtils.writeWorkBook(excelType, keys, null, new CsvCursor(records, firstRow),
+                        sheetName, outputStream, config);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);// CSV数据源不会抛出SQLException
+        } catch (IllegalStateException e) {
+            // CSVParser的迭代器将IOException包装为IllegalStateException
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * 在解析之前跳过文件开头的BOM，否则以引号开头的第一个字段会因为BOM被当作未加引号的字段解析
+     */
+    private static BufferedReader skipBom(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        return reader;
+    }
+
+    /**
+     * 将Excel中的第一个Sheet转换为CSV，保留表头
+     *
+     * @param excelInput   Excel输入流，根据文件头自动识别XLS与XLSX格式，转换完成后关闭
+     * @param encoding     CSV文件的编码格式
+     * @param outputStream 输出流，转换完成后关闭
+     * @throws IOException
+     */
+    public static void excelToCsv(InputStream excelInput, String encoding, OutputStream outputStream) throws IOException {
+        excelToCsv(excelInput, 0, true, encoding, outputStream);
+    }
+
+    /**
+     * 将Excel中的指定Sheet转换为CSV
+     *
+     * @param excelInput    Excel输入流，根据文件头自动识别XLS与XLSX格式，转换完成后关闭
+     * @param sheetIndex    Sheet下标，从0开始
+     * @param includeHeader 是否写出第一个非空行（表头）
+     * @param encoding      CSV文件的编码格式
+     * @param outputStream  输出流，转换完成后关闭
+     * @throws IOException
+     */
+    public static void excelToCsv(InputStream excelInput, int sheetIndex, boolean includeHeader, String encoding,
+                                  OutputStream outputStream) throws IOException {
+        CsvRowWriter writer = new CsvRowWriter(outputStream, Charset.forName(encoding), includeHeader);
+        try {
+            ExcelSaxReader.read(excelInput, sheetIndex, writer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * 将Excel文件中的指定Sheet转换为CSV，XLS文件按需读取，不会整个加载到内存中
+     *
+     * @param excelFile     Excel文件，根据文件头自动识别XLS与XLSX格式
+     * @param sheetIndex    Sheet下标，从0开始
+     * @param includeHeader 是否写出第一个非空行（表头）
+     * @param encoding      CSV文件的编码格式
+     * @param outputStream  输出流，转换完成后关闭
+     * @throws IOException
+     */
+    public static void excelToCsv(File excelFile, int sheetIndex, boolean includeHeader, String encoding,
+                                  OutputStream outputStream) throws IOException {
+        CsvRowWriter writer = new CsvRowWriter(outputStream, Charset.forName(encoding), includeHeader);
+        try {
+            ExcelSaxReader.read(excelFile, sheetIndex, writer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * 逐行读取CSV记录的游标，单元格全部按文本写入
+     */
+    private static final class CsvCursor implements ExcelUtils.CellCursor {
+
+        private final Iterator<CSVRecord> records;
+        private String[] pending;
+        private CSVRecord record;
+        private String[] row;
+
+        /**
+         * @param pending 已读取的第一个数据行，没有时为null
+         */
+        CsvCursor(Iterator<CSVRecord> records, String[] pending) {
+            this.records = records;
+            this.pending = pending;
+        }
+
+        @Override
+        public boolean next() {
+            if (pending != null) {
+                row = pending;
+                pending = null;
+                return true;
+            }
+            row = null;
+            if (!records.hasNext()) {
+                return false;
+            }
+            record = records.next();
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return row != null ? row.length : record.size();
+        }
+
+        @Override
+        public String read(int k, ExcelCellValue cellValue) {
+            if (row != null) {
+                return k < row.length ? row[k] : "";
+            }
+            return k < record.size() ? record.get(k) : "";
+        }
+    }
+
+    /**
+     * 将SAX解析得到的数据行写出为CSV记录，列数不足第一行的记录补齐空字段
+     */
+    private static final class CsvRowWriter implements ExcelSaxReader.RawRowHandler {
+
+        private final CSVByteWriter byteWriter;
+        private final CSVPrinter printer;
+        private final boolean includeHeader;
+        private boolean first = true;
+        private int columns;
+        private String[] values = new String[0];
+
+        CsvRowWriter(OutputStream outputStream, Charset charset, boolean includeHeader) throws IOException {
+            this.includeHeader = includeHeader;
+            if (CSVByteWriter.isSupported(charset)) {
+                this.byteWriter = new CSVByteWriter(outputStream, charset, CSVByteWriter.DEFAULT_BUFFER_SIZE);
+                this.printer = null;
+            } else {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, charset), 64 * 1024);
+                this.byteWriter = null;
+                this.printer = new CSVPrinter(writer, CSVFormat.DEFAULT);
+            }
+        }
+
+        @Override
+        public void handle(RowView row) {
+            if (first) {
+                first = false;
+                columns = row.size();
+                if (!includeHeader) {
+                    return;
+                }
+            }
+            int size = Math.max(columns, row.size());
+            try {
+                if (byteWriter != null) {
+                    for (int i = 0; i < size; i++) {
+                        byteWriter.writeField(row.get(i));
+                    }
+                    byteWriter.endRecord();
+                } else {
+                    if (values.length != size) {
+                        values = new String[size];
+                    }
+                    for (int i = 0; i < size; i++) {
+                        values[i] = row.get(i);
+                    }
+                    printer.printRecord((Object[]) values);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void close() throws IOException {
+            if (byteWriter != null) {
+                byteWriter.close();
+            } else {
+                printer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package cn.tjd.file;
+
+import java.util.List;
+
+/**
+ * 一个批次数据行的格式化结果，并行格式化时在线程池中生成，由写出线程逐个单元格读取。
+ * 单元格按行优先的顺序保存在基本类型数组中，原生单元格保存解析后的数值与数字格式，其余单元格保存文本
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+final class ExcelCellBatch {
+
+    private static final byte TEXT = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte INTEGRAL = 2;
+    private static final byte DECIMAL = 3;
+
+    private final int rows;
+    private final int columns;
+    private final byte[] kinds;
+    private final long[] longs;
+    private final double[] doubles;
+    private final String[] texts;// 文本单元格的文本或者原生单元格的数字格式
+
+    private ExcelCellBatch(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        int cells = rows * columns;
+        this.kinds = new byte[cells];
+        this.longs = new long[cells];
+        this.doubles = new double[cells];
+        this.texts = new String[cells];
+    }
+
+    /**
+     * 提取并格式化一个批次的数据行，规则与单线程导出一致
+     *
+     * @param rows       数据行，可以是Map也可以是JavaBean
+     * @param keys       表头key
+     * @param formatters 单元格格式化器注册表
+     * @param typed      是否将数字、日期、布尔值写为原生单元格
+     */
+    static ExcelCellBatch format(List<Object> rows, String[] keys, CellFormatters formatters, boolean typed) {
+        ExcelCellBatch batch = new ExcelCellBatch(rows.size(), keys.length);
+        RowExtractor extractor = new RowExtractor(keys);
+        CellFormatters.Bound bound = formatters.bind(keys);
+        ExcelCellValue cellValue = new ExcelCellValue();
+        Object[] values = new Object[keys.length];
+        int cell = 0;
+        for (Object row : rows) {
+            extractor.extract(row, values);
+            for (int k = 0; k < keys.length; k++, cell++) {
+                Object value = values[k];
+                if (typed && value != null && bound.isDefault(k, value) && cellValue.resolve(value)) {
+                    if (cellValue.isBoolean()) {
+                        batch.kinds[cell] = BOOLEAN;
+                        batch.longs[cell] = cellValue.longValue();
+                    } else {
+                        batch.kinds[cell] = cellValue.isIntegral() ? INTEGRAL : DECIMAL;
+                        batch.longs[cell] = cellValue.longValue();
+                        batch.doubles[cell] = cellValue.doubleValue();
+                        batch.texts[cell] = cellValue.format();
+                    }
+                } else {
+                    batch.texts[cell] = bound.format(k, value);
+                }
+            }
+        }
+        return batch;
+    }
+
+    int size() {
+        return rows;
+    }
+
+    /**
+     * 读取第row行第k列的单元格
+     *
+     * @param cellValue 原生单元格的值恢复到cellValue中
+     * @return 原生单元格返回null，否则返回单元格的文本
+     */
+    String read(int row, int k, ExcelCellValue cellValue) {
+        int cell = row * columns + k;
+        byte kind = kinds[cell];
+        if (kind == TEXT) {
+            return texts[cell];
+        }
+        cellValue.assign(kind == BOOLEAN, kind == INTEGRAL, longs[cell], doubles[cell], texts[cell]);
+        return null;
+    }
+}
@@ -0,0 +1,215 @@
+package cn.tjd.file;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * 将Java值解析为Excel的原生单元格类型：Number写为数值单元格，Date及java.time类型写为带日期格式的数值单元格，Boolean写为布尔单元格。<br/>
+ * 数值单元格的默认格式与CellFormatters的默认文本格式保持一致（整数为0，Float/Double为0.00，日期为yyyy-mm-dd hh:mm:ss），
+ * 超出Excel精度（15位有效数字）或日期范围的值返回false，由调用方按文本写入。
+ * 同一次导出中复用一个实例，该类不是线程安全的
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+final class ExcelCellValue {
+
+    static final String FORMAT_INTEGER = "0";
+    static final String FORMAT_DECIMAL = "0.00";
+    static final String FORMAT_DATE_TIME = "yyyy-mm-dd hh:mm:ss";
+    static final String FORMAT_DATE = "yyyy-mm-dd";
+    static final String FORMAT_TIME = "hh:mm:ss";
+
+    private static final long MAX_EXACT = 999999999999999L;// Excel最多保存15位有效数字
+    private static final long DAY_MILLIS = 86400000L;
+    private static final long EPOCH_SERIAL = 25569;// 1970-01-01对应的Excel日期序号
+    private static final double MIN_DATE_SERIAL = 61;// 1900-03-01，更早的日期受Excel的1900闰年问题影响
+
+    private static final String[] SCALE_FORMATS = {"0", "0.0", "0.00", "0.000", "0.0000", "0.00000", "0.000000",
+            "0.0000000", "0.00000000", "0.000000000", "0.0000000000"};
+
+    private final TimeZone timeZone = TimeZone.getDefault();
+    private boolean bool;
+    private boolean integral;
+    private long longValue;
+    private double doubleValue;
+    private String format;
+
+    /**
+     * 解析单元格的值
+     *
+     * @return 可以写为原生类型时返回true，否则返回false（应按文本写入）
+     */
+    boolean resolve(Object value) {
+        bool = false;
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            long v = ((Number) value).longValue();
+            return v >= -MAX_EXACT && v <= MAX_EXACT && setLong(v, FORMAT_INTEGER);
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double v = ((Number) value).doubleValue();
+            return !Double.isNaN(v) && !Double.isInfinite(v) && setDouble(v, FORMAT_DECIMAL);
+        }
+        if (value instanceof Date) {
+            return resolveDateTime(((Date) value).getTime());
+        }
+        if (value instanceof LocalDateTime) {
+            return setDateTime((LocalDateTime) value);
+        }
+        if (value instanceof LocalDate) {
+            return setDate(((LocalDate) value).toEpochDay() + EPOCH_SERIAL, FORMAT_DATE);
+        }
+        if (value instanceof LocalTime) {
+            return setDouble(((LocalTime) value).toNanoOfDay() / (DAY_MILLIS * 1000000.0), FORMAT_TIME);
+        }
+        if (value instanceof Instant) {
+            return setDateTime(LocalDateTime.ofInstant((Instant) value, ZoneId.systemDefault()));
+        }
+        if (value instanceof ZonedDateTime) {
+            return setDateTime(((ZonedDateTime) value).toLocalDateTime());
+        }
+        if (value instanceof OffsetDateTime) {
+            return setDateTime(((OffsetDateTime) value).toLocalDateTime());
+        }
+        if (value instanceof Boolean) {
+            bool = true;
+            longValue = ((Boolean) value) ? 1 : 0;
+            format = null;
+            return true;
+        }
+        if (value instanceof BigDecimal) {
+            BigDecimal v = (BigDecimal) value;
+            // 有效数字（不计末尾的0）超过15位时，写为数值单元格会丢失精度
+            if (v.precision() > 15 && v.stripTrailingZeros().precision() > 15
+                    || v.abs().compareTo(BigDecimal.valueOf(MAX_EXACT)) > 0) {
+                return false;
+            }
+            int scale = Math.max(0, Math.min(v.scale(), SCALE_FORMATS.length - 1));
+            return v.scale() <= 0 ? setLong(v.longValue(), FORMAT_INTEGER) : setDouble(v.doubleValue(), SCALE_FORMATS[scale]);
+        }
+        if (value instanceof BigInteger) {
+            BigInteger v = (BigInteger) value;
+            return v.bitLength() < 50 && setLong(v.longValue(), FORMAT_INTEGER);
+        }
+        return false;
+    }
+
+    /**
+     * 解析整数，与resolve(Long)的结果一致
+     */
+    boolean resolveLong(long value) {
+        bool = false;
+        return value >= -MAX_EXACT && value <= MAX_EXACT && setLong(value, FORMAT_INTEGER);
+    }
+
+    /**
+     * 解析浮点数，与resolve(Double)的结果一致
+     */
+    boolean resolveDouble(double value) {
+        bool = false;
+        return !Double.isNaN(value) && !Double.isInfinite(value) && setDouble(value, FORMAT_DECIMAL);
+    }
+
+    /**
+     * 解析毫秒时间戳，与resolve(Date)的结果一致
+     */
+    boolean resolveDateTime(long millis) {
+        bool = false;
+        return setDate((millis + timeZone.getOffset(millis)) / (double) DAY_MILLIS + EPOCH_SERIAL, FORMAT_DATE_TIME);
+    }
+
+    /**
+     * 解析自1970-01-01起的天数，与resolve(LocalDate)的结果一致
+     */
+    boolean resolveEpochDay(long epochDay) {
+        bool = false;
+        return setDate(epochDay + EPOCH_SERIAL, FORMAT_DATE);
+    }
+
+    /**
+     * 恢复已解析的值，用于并行格式化的结果
+     */
+    void assign(boolean bool, boolean integral, long longValue, double doubleValue, String format) {
+        this.bool = bool;
+        this.integral = integral;
+        this.longValue = longValue;
+        this.doubleValue = doubleValue;
+        this.format = format;
+    }
+
+    private boolean setDateTime(LocalDateTime value) {
+        return setDate(value.toLocalDate().toEpochDay() + EPOCH_SERIAL
+                + value.toLocalTime().toNanoOfDay() / (DAY_MILLIS * 1000000.0), FORMAT_DATE_TIME);
+    }
+
+    private boolean setDate(double serial, String format) {
+        if (serial < MIN_DATE_SERIAL || serial >= 2958466) {// 2958466为10000-01-01
+            return false;
+        }
+        if (serial == Math.rint(serial)) {
+            return setLong((long) serial, format);
+        }
+        return setDouble(serial, format);
+    }
+
+    private boolean setLong(long value, String format) {
+        this.integral = true;
+        this.longValue = value;
+        this.doubleValue = value;
+        this.format = format;
+        return true;
+    }
+
+    private boolean setDouble(double value, String format) {
+        if (value == Math.rint(value) && Math.abs(value) <= MAX_EXACT) {
+            return setLong((long) value, format);
+        }
+        this.integral = false;
+        this.doubleValue = value;
+        this.format = format;
+        return true;
+    }
+
+    /**
+     * @return 是否为布尔值
+     */
+    boolean isBoolean() {
+        return bool;
+    }
+
+    boolean booleanValue() {
+        return longValue != 0;
+    }
+
+    /**
+     * @return 数值是否为整数，整数可以按long精确写出
+     */
+    boolean isIntegral() {
+        return integral;
+    }
+
+    long longValue() {
+        return longValue;
+    }
+
+    double doubleValue() {
+        return doubleValue;
+    }
+
+    /**
+     * @return 数值单元格的Excel格式，布尔值返回null
+     */
+    String format() {
+        return format;
+    }
+}
@@ -0,0 +1,254 @@
+package cn.tjd.file;
+
+import org.apache.poi.util.DefaultTempFileCreationStrategy;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Excel导出配置，用于控制大数据量导出时的内存占用：<br/>
+ * 1. SXSSF的行访问窗口（内存中保留的行数，超出后写入临时文件）以及临时文件是否压缩，临时文件目录见setTempDir(File)<br/>
+ * 2. 单个Sheet的最大行数（包含表头），超出后自动创建新的Sheet继续写入，默认为文件格式的上限（XLS为65536，XLSX为1048576）<br/>
+ * 3. XLS格式的内存预算，XLS（HSSF）需要在内存中构建整个文件，预计占用超出预算时拒绝导出或者自动改为XLSX格式<br/>
+ * 4. 单元格类型：默认将数字、日期、布尔值写为Excel的原生类型（可排序、求和），也可以按列指定数字格式<br/>
+ * 5. 并行格式化：数据行的取值与格式化在线程池中并行完成，工作簿仍由调用线程按顺序写入，默认不开启
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class ExcelExportConfig {
+
+    public static final int XLS_MAX_ROWS = 65536;// .xls格式单个Sheet的最大行数
+    public static final int XLSX_MAX_ROWS = 1048576;// .xlsx格式单个Sheet的最大行数
+    public static final int ESTIMATED_XLS_CELL_BYTES = 100;// HSSF中单个单元格的预估内存占用（字节）
+
+    /**
+     * 默认配置（只读，调用setter抛出UnsupportedOperationException）：数字、日期、布尔值写为Excel的原生类型，
+     * 与最初版本全部写为文本的输出不同，需要文本输出时使用new ExcelExportConfig().setTypedCells(false)
+     */
+    public static final ExcelExportConfig DEFAULT = new ReadOnlyConfig();
+
+    /**
+     * XLS格式超出内存预算时的处理方式
+     */
+    public enum XlsOverflow {
+        /**
+         * 抛出IllegalStateException，拒绝导出
+         */
+        REFUSE,
+        /**
+         * 改为导出XLSX格式（仅在导出前能够确定总行数时生效，否则与REFUSE一致）
+         */
+        UPGRADE
+    }
+
+    private int windowSize = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+    private boolean compressTempFiles = true;
+    private int maxRowsPerSheet = 0;
+    private long xlsMemoryBudget = 0;
+    private XlsOverflow xlsOverflow = XlsOverflow.UPGRADE;
+    private boolean typedCells = true;
+    private final Map<String, String> columnFormats = new HashMap<>();
+    private ParallelFormatting parallel;
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * @param windowSize SXSSF在内存中保留的行数，超出后写入临时文件
+     * @return 当前配置
+     */
+    public ExcelExportConfig setWindowSize(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize必须大于0");
+        }
+        this.windowSize = windowSize;
+        return this;
+    }
+
+    /**
+     * 指定SXSSF临时文件的目录。POI的临时文件策略是进程级的全局配置，对同一JVM中的所有导出（以及其他使用POI的代码）生效，
+     * 因此不属于单次导出的配置，应当在应用启动时调用一次，不要在导出过程中修改
+     *
+     * @param tempDir 临时文件目录，不存在时自动创建，为null时恢复为java.io.tmpdir下的poifiles目录
+     */
+    public static synchronized void setTempDir(File tempDir) {
+        if (tempDir != null && !tempDir.exists()) tempDir.mkdirs();
+        TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy(tempDir));
+    }
+
+    public boolean isCompressTempFiles() {
+        return compressTempFiles;
+    }
+
+    /**
+     * @param compressTempFiles 临时文件是否压缩，压缩可以节省磁盘空间，但会消耗更多CPU
+     * @return 当前配置
+     */
+    public ExcelExportConfig setCompressTempFiles(boolean compressTempFiles) {
+        this.compressTempFiles = compressTempFiles;
+        return this;
+    }
+
+    public int getMaxRowsPerSheet() {
+        return maxRowsPerSheet;
+    }
+
+    /**
+     * @param maxRowsPerSheet 单个Sheet的最大行数（包含表头），小于等于0或者超出文件格式上限时使用文件格式的上限
+     * @return 当前配置
+     */
+    public ExcelExportConfig setMaxRowsPerSheet(int maxRowsPerSheet) {
+        this.maxRowsPerSheet = maxRowsPerSheet;
+        return this;
+    }
+
+    public long getXlsMemoryBudget() {
+        return xlsMemoryBudget;
+    }
+
+    /**
+     * @param xlsMemoryBudget XLS格式导出的内存预算（字节），小于等于0表示不限制
+     * @return 当前配置
+     */
+    public ExcelExportConfig setXlsMemoryBudget(long xlsMemoryBudget) {
+        this.xlsMemoryBudget = xlsMemoryBudget;
+        return this;
+    }
+
+    public XlsOverflow getXlsOverflow() {
+        return xlsOverflow;
+    }
+
+    /**
+     * @param xlsOverflow XLS格式超出内存预算时的处理方式
+     * @return 当前配置
+     */
+    public ExcelExportConfig setXlsOverflow(XlsOverflow xlsOverflow) {
+        this.xlsOverflow = xlsOverflow;
+        return this;
+    }
+
+    public boolean isTypedCells() {
+        return typedCells;
+    }
+
+    /**
+     * @param typedCells 是否将数字、日期、布尔值写为Excel的原生类型，为false时与CSV一致全部按格式化后的文本写入
+     * @return 当前配置
+     */
+    public ExcelExportConfig setTypedCells(boolean typedCells) {
+        this.typedCells = typedCells;
+        return this;
+    }
+
+    /**
+     * 指定列的数字格式，对该列的数值与日期单元格生效，如#,##0.00、0.00%、yyyy年m月d日
+     *
+     * @param column 列的key，与headMap的key相对应
+     * @param format Excel数字格式
+     * @return 当前配置
+     */
+    public ExcelExportConfig setColumnFormat(String column, String format) {
+        columnFormats.put(column, format);
+        return this;
+    }
+
+    public String getColumnFormat(String column) {
+        return columnFormats.get(column);
+    }
+
+    public ParallelFormatting getParallel() {
+        return parallel;
+    }
+
+    /**
+     * @param parallel 并行格式化配置，为null时在调用线程中逐行格式化。只对Map与JavaBean数据行生效
+     * @return 当前配置
+     */
+    public ExcelExportConfig setParallel(ParallelFormatting parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * 按照列的顺序取得各列的数字格式，未指定的列为null
+     */
+    String[] columnFormats(String[] columns) {
+        String[] formats = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            formats[i] = columnFormats.get(columns[i]);
+        }
+        return formats;
+    }
+
+    /**
+     * 计算指定格式下单个Sheet的最大行数
+     */
+    int sheetRowLimit(ExcelUtils.ExcelType excelType) {
+        int formatLimit = excelType == ExcelUtils.ExcelType.XLS ? XLS_MAX_ROWS : XLSX_MAX_ROWS;
+        return maxRowsPerSheet > 1 && maxRowsPerSheet < formatLimit ? maxRowsPerSheet : formatLimit;
+    }
+
+    /**
+     * 判断XLS格式下指定数量的单元格是否超出内存预算
+     */
+    boolean exceedsXlsBudget(long cells) {
+        return xlsMemoryBudget > 0 && cells * ESTIMATED_XLS_CELL_BYTES > xlsMemoryBudget;
+    }
+
+    /**
+     * 只读的默认配置，避免修改DEFAULT影响同一JVM中的所有导出
+     */
+    private static final class ReadOnlyConfig extends ExcelExportConfig {
+
+        private static UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("ExcelExportConfig.DEFAULT不能修改，请使用new ExcelExportConfig()");
+        }
+
+        @Override
+        public ExcelExportConfig setWindowSize(int windowSize) {
+            throw readOnly();
+        }
+
+        @Override
+        public ExcelExportConfig setCompressTempFiles(boolean compressTempFiles) {
+            throw readOnly();
+        }
+
+        @Override
+        public ExcelExportConfig setMaxRowsPerSheet(int maxRowsPerSheet) {
+            throw readOnly();
+        }
+
+        @Override
+        public ExcelExportConfig setXlsMemoryBudget(long xlsMemoryBudget) {
+            throw readOnly();
+        }
+
+        @Override
+        public ExcelExportConfig setXlsOverflow(XlsOverflow xlsOverflow) {
+            throw readOnly();
+        }
+
+        @Override
+        public ExcelExportConfig setTypedCells(boolean typedCells) {
+            throw readOnly();
+        }
+
+        @Override
+        public ExcelExportConfig setColumnFormat(String column, String format) {
+            throw readOnly();
+        }
+
+        @Override
+        public ExcelExportConfig setParallel(ParallelFormatting parallel) {
+            throw readOnly();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package cn.tjd.file;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 逐行读取Excel文件的迭代器。SAX解析只能以回调的方式进行，因此解析在独立的后台线程中执行，
+ * 数据行按批次通过有界队列传递给迭代线程，解析进度受消费速度约束，内存占用保持恒定。<br/>
+ * 使用完毕（包括提前结束迭代）后需要调用close()，以停止后台解析线程并关闭底层的输入流，建议配合try-with-resources使用：<br/>
+ * try (ExcelRowIterator rows = ExcelUtils.iterator(inputStream)) {<br/>
+ * &nbsp;&nbsp;&nbsp;&nbsp;while (rows.hasNext()) { ... }<br/>
+ * }<br/>
+ * 后台线程只持有迭代器的弱引用，未关闭的迭代器被垃圾回收后，后台线程在下一次等待队列空位超时后停止解析
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class ExcelRowIterator implements Iterator<RowView>, Closeable {
+
+    private static final int BATCH_SIZE = 256;
+    private static final int QUEUE_CAPACITY = 4;
+    private static final long OFFER_TIMEOUT_MILLIS = 100;// 后台线程等待队列空位的超时时间，超时后检查迭代器是否已关闭或者被回收
+    private static final Object END = new Object();
+    private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+
+    private final Producer producer;
+    private final Thread worker;
+    private Iterator<RowView> batch = Collections.<RowView>emptyList().iterator();
+    private boolean finished;
+
+    ExcelRowIterator(final InputStream inputStream, final int sheetIndex) {
+        this(new Source() {
+            @Override
+            public void read(RowHandler<? super RowView> handler) throws IOException {
+                ExcelSaxReader.read(inputStream, sheetIndex, handler);
+            }
+        });
+    }
+
+    ExcelRowIterator(final File file, final int sheetIndex) {
+        this(new Source() {
+            @Override
+            public void read(RowHandler<? super RowView> handler) throws IOException {
+                ExcelSaxReader.read(file, sheetIndex, handler);
+            }
+        });
+    }
+
+    private ExcelRowIterator(Source source) {
+        this.producer = new Producer(source, this);
+        this.worker = new Thread(producer, "excel-reader-" + THREAD_SEQUENCE.incrementAndGet());
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    private interface Source {
+        void read(RowHandler<? super RowView> handler) throws IOException;
+    }
+
+    /**
+     * 迭代器关闭或者被回收后用于中断解析
+     */
+    private static final class ClosedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ClosedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * 后台解析任务，与迭代器共享队列，只持有迭代器的弱引用，使得未关闭的迭代器仍然可以被回收
+     */
+    private static final class Producer implements Runnable {
+
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final Source source;
+        private final WeakReference<ExcelRowIterator> owner;
+        private volatile boolean closed;
+
+        Producer(Source source, ExcelRowIterator owner) {
+            this.source = source;
+            this.owner = new WeakReference<>(owner);
+        }
+
+        @Override
+        public void run() {
+            Object last = END;
+            try {
+                BatchHandler handler = new BatchHandler(this);
+                source.read(handler);
+                handler.flush();
+            } catch (ClosedException e) {
+                return;
+            } catch (Throwable e) {
+                last = e;
+            }
+            offer(last);
+        }
+
+        /**
+         * 等待队列空位，迭代器关闭或者被回收后抛出ClosedException
+         */
+        void offer(Object item) {
+            try {
+                while (!closed && owner.get() != null) {
+                    if (queue.offer(item, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new ClosedException();
+        }
+    }
+
+    /**
+     * 将解析得到的数据行复制后按批次放入队列
+     */
+    private static final class BatchHandler implements RowHandler<RowView> {
+
+        private final Producer producer;
+        private List<RowView> rows = new ArrayList<>(BATCH_SIZE);
+
+        BatchHandler(Producer producer) {
+            this.producer = producer;
+        }
+
+        @Override
+        public void handle(RowView row) {
+            rows.add(((ExcelRowView) row).copy());
+            if (rows.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                producer.offer(rows);
+                rows = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean hasNext() {
+        while (!batch.hasNext()) {
+            if (finished || producer.closed) {
+                return false;
+            }
+            Object item;
+            try {
+                item = producer.queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("读取Excel时线程被中断", e);
+            }
+            if (item == END) {
+                finished = true;
+            } else if (item instanceof Throwable) {
+                finished = true;
+                Throwable cause = (Throwable) item;
+                if (cause instanceof IOException) {
+                    throw new UncheckedIOException((IOException) cause);
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            } else {
+                batch = ((List<RowView>) item).iterator();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 每次返回一个新的行视图，可以在迭代之外继续使用
+     */
+    @Override
+    public RowView next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return batch.next();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (producer.closed) {
+            return;
+        }
+        producer.closed = true;
+        batch = Collections.<RowView>emptyList().iterator();// 关闭后不再返回当前批次中剩余的数据行
+        worker.interrupt();
+        producer.queue.clear();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
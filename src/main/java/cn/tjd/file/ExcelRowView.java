@@ -0,0 +1,77 @@
+package cn.tjd.file;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 基于字符串数组的Excel数据行视图，SAX解析时多行之间复用同一个实例
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+final class ExcelRowView extends RowView {
+
+    private final Map<String, Integer> headerIndex;
+    private String[] cells;
+    private int size;
+    private long rowNumber;
+
+    ExcelRowView(Map<String, Integer> headerIndex) {
+        this(headerIndex, new String[16], 0, 0);
+    }
+
+    private ExcelRowView(Map<String, Integer> headerIndex, String[] cells, int size, long rowNumber) {
+        super(headerIndex);
+        this.headerIndex = headerIndex;
+        this.cells = cells;
+        this.size = size;
+        this.rowNumber = rowNumber;
+    }
+
+    /**
+     * 清空当前行，准备接收下一行的单元格
+     */
+    void reset(long rowNumber) {
+        this.size = 0;
+        this.rowNumber = rowNumber;
+    }
+
+    /**
+     * 写入单元格，中间缺失的单元格以空字符串填充
+     */
+    void set(int column, String value) {
+        if (column >= cells.length) {
+            cells = Arrays.copyOf(cells, Math.max(column + 1, cells.length * 2));
+        }
+        for (int i = size; i < column; i++) {
+            cells[i] = "";
+        }
+        cells[column] = value == null ? "" : value;
+        if (column >= size) {
+            size = column + 1;
+        }
+    }
+
+    /**
+     * 复制当前行，复制得到的视图不会再被修改
+     */
+    ExcelRowView copy() {
+        return new ExcelRowView(headerIndex, Arrays.copyOf(cells, size), size, rowNumber);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String get(int index) {
+        return index >= 0 && index < size ? cells[index] : "";
+    }
+
+    @Override
+    public long getRowNumber() {
+        return rowNumber;
+    }
+}
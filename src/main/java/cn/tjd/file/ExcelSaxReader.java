@@ -0,0 +1,454 @@
+package cn.tjd.file;
+
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.MissingRecordAwareHSSFListener;
+import org.apache.poi.hssf.eventusermodel.dummyrecord.LastCellOfRowDummyRecord;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基于事件模型（SAX）的Excel读取器，不构建工作簿对象，内存占用与文件大小基本无关：<br/>
+ * XLSX通过XSSFReader逐个解析Sheet的XML，共享字符串通过ReadOnlySharedStringsTable查找；
+ * XLS通过HSSF事件API逐条处理记录。<br/>
+ * 第一个非空行作为表头，之后每一行回调一次handler，空行会被跳过。单元格统一读取为文本：
+ * 数值单元格返回原始数值（不应用千分位等显示格式），日期单元格按yyyy-MM-dd HH:mm:ss格式化（纯时间为HH:mm:ss），
+ * 公式单元格返回缓存的计算结果
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+final class ExcelSaxReader {
+
+    private static final byte[] OLE2_MAGIC = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+    private static final byte[] ZIP_MAGIC = {'P', 'K', 0x03, 0x04};
+    // FormulaRecord缓存结果的类型代码（与CellType的code一致，POI 3.16中CellType.forInt与getCode均已过时）
+    private static final int FORMULA_RESULT_STRING = 1;
+    private static final int FORMULA_RESULT_BOOLEAN = 4;
+    private static final int FORMULA_RESULT_ERROR = 5;
+
+    private ExcelSaxReader() {
+    }
+
+    /**
+     * 读取输入流中的指定Sheet，根据文件头自动识别XLS与XLSX格式。
+     * XLSX需要随机访问zip条目，会先将输入流写入临时文件，读取完毕后删除。读取完毕后关闭输入流
+     */
+    static void read(InputStream inputStream, int sheetIndex, RowHandler<? super RowView> handler) throws IOException {
+        InputStream in = new BufferedInputStream(inputStream);
+        try {
+            in.mark(OLE2_MAGIC.length);
+            byte[] header = new byte[OLE2_MAGIC.length];
+            int length = readFully(in, header);
+            in.reset();
+            if (startsWith(header, length, OLE2_MAGIC)) {
+                readXls(new NPOIFSFileSystem(in), sheetIndex, handler);
+            } else if (startsWith(header, length, ZIP_MAGIC)) {
+                File temp = File.createTempFile("excel-import", ".xlsx");
+                try {
+                    OutputStream out = new FileOutputStream(temp);
+                    try {
+                        byte[] buffer = new byte[8192];
+                        int n;
+                        while ((n = in.read(buffer)) != -1) {
+                            out.write(buffer, 0, n);
+                        }
+                    } finally {
+                        out.close();
+                    }
+                    readXlsx(temp, sheetIndex, handler);
+                } finally {
+                    temp.delete();
+                }
+            } else {
+                throw new IllegalArgumentException("不支持的Excel文件格式");
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * 读取文件中的指定Sheet，根据文件头自动识别XLS与XLSX格式
+     */
+    static void read(File file, int sheetIndex, RowHandler<? super RowView> handler) throws IOException {
+        byte[] header = new byte[OLE2_MAGIC.length];
+        int length;
+        InputStream in = new FileInputStream(file);
+        try {
+            length = readFully(in, header);
+        } finally {
+            in.close();
+        }
+        if (startsWith(header, length, OLE2_MAGIC)) {
+            readXls(new NPOIFSFileSystem(file, true), sheetIndex, handler);
+        } else if (startsWith(header, length, ZIP_MAGIC)) {
+            readXlsx(file, sheetIndex, handler);
+        } else {
+            throw new IllegalArgumentException("不支持的Excel文件格式：" + file.getName());
+        }
+    }
+
+    private static void readXlsx(File file, int sheetIndex, RowHandler<? super RowView> handler) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+        } catch (OpenXML4JException e) {
+            throw new IOException("Excel文件解析失败", e);
+        }
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            // POI 3.16的SheetIterator可能重复返回同一个Sheet，按部件名称去重后再计算下标
+            Set<String> seen = new HashSet<>();
+            int index = 0;
+            while (sheets.hasNext()) {
+                InputStream sheet = sheets.next();
+                try {
+                    if (!seen.add(sheets.getSheetPart().getPartName().getName())) {
+                        continue;
+                    }
+                    if (index++ == sheetIndex) {
+                        XMLReader parser = SAXHelper.newXMLReader();
+                        parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings,
+                                new XlsxRowCollector(handler), new CellTextFormatter(), false));
+                        parser.parse(new InputSource(sheet));
+                        return;
+                    }
+                } finally {
+                    sheet.close();
+                }
+            }
+            throw new IllegalArgumentException("Sheet下标超出范围：" + sheetIndex);
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Excel文件解析失败", e);
+        } finally {
+            pkg.revert();// 只读打开，不需要保存
+        }
+    }
+
+    private static void readXls(NPOIFSFileSystem fs, int sheetIndex, RowHandler<? super RowView> handler) throws IOException {
+        try {
+            XlsRowCollector collector = new XlsRowCollector(handler, sheetIndex);
+            MissingRecordAwareHSSFListener listener = new MissingRecordAwareHSSFListener(collector.formatListener);
+            HSSFRequest request = new HSSFRequest();
+            request.addListenerForAllRecords(listener);
+            new HSSFEventFactory().processWorkbookEvents(request, fs.getRoot());
+            if (collector.sheetCount <= sheetIndex) {
+                throw new IllegalArgumentException("Sheet下标超出范围：" + sheetIndex);
+            }
+        } finally {
+            fs.close();
+        }
+    }
+
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int length = 0;
+        int n;
+        while (length < buffer.length && (n = in.read(buffer, length, buffer.length - length)) != -1) {
+            length += n;
+        }
+        return length;
+    }
+
+    private static boolean startsWith(byte[] header, int length, byte[] magic) {
+        if (length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (header[i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 标记接口：处理器实现该接口时，表头行也作为普通数据行交给处理器，行号为Excel中的行号（从1开始），不建立表头索引
+     */
+    interface RawRowHandler extends RowHandler<RowView> {
+    }
+
+    /**
+     * 将一个个单元格组装为数据行，第一个非空行作为表头
+     */
+    private static class RowCollector {
+
+        private final RowHandler<? super RowView> handler;
+        private final boolean raw;
+        private ExcelRowView view = new ExcelRowView(null);
+        private int headerRow = -1;
+        private int currentRow = -1;
+
+        RowCollector(RowHandler<? super RowView> handler) {
+            this.handler = handler;
+            this.raw = handler instanceof RawRowHandler;
+        }
+
+        void startRow(int rowIndex) {
+            currentRow = rowIndex;
+            view.reset(raw ? rowIndex + 1 : headerRow < 0 ? 0 : rowIndex - headerRow);
+        }
+
+        void cell(int column, String value) {
+            view.set(column, value);
+        }
+
+        void endRow() {
+            if (currentRow < 0 || view.size() == 0) {
+                currentRow = -1;
+                return;
+            }
+            if (headerRow < 0 && !raw) {
+                Map<String, Integer> headerIndex = new LinkedHashMap<>();
+                for (int i = 0; i < view.size(); i++) {
+                    String name = view.get(i);
+                    if (!name.isEmpty() && !headerIndex.containsKey(name)) {
+                        headerIndex.put(name, i);
+                    }
+                }
+                headerRow = currentRow;
+                view = new ExcelRowView(headerIndex);
+            } else {
+                handler.handle(view);
+            }
+            currentRow = -1;
+        }
+    }
+
+    private static final class XlsxRowCollector extends RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private int lastColumn;
+
+        XlsxRowCollector(RowHandler<? super RowView> handler) {
+            super(handler);
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            super.startRow(rowNum);
+            lastColumn = -1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            super.endRow();
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? lastColumn + 1 : columnIndex(cellReference);
+            lastColumn = column;
+            cell(column, formattedValue);
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+        }
+
+        /**
+         * 将单元格引用（如AB12）中的列字母转换为从0开始的列下标
+         */
+        private static int columnIndex(String cellReference) {
+            int column = 0;
+            for (int i = 0; i < cellReference.length(); i++) {
+                char c = cellReference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
+    }
+
+    private static final class XlsRowCollector extends RowCollector implements HSSFListener {
+
+        private final int sheetIndex;
+        private final FormatTrackingHSSFListener formatListener;
+        private final CellTextFormatter formatter = new CellTextFormatter();
+        private SSTRecord sst;
+        private int sheetCount;
+        private boolean active;
+        private int row = -1;
+        private int formulaColumn = -1;
+        private boolean pendingEndRow;
+
+        XlsRowCollector(RowHandler<? super RowView> handler, int sheetIndex) {
+            super(handler);
+            this.sheetIndex = sheetIndex;
+            this.formatListener = new FormatTrackingHSSFListener(this);
+        }
+
+        @Override
+        public void processRecord(Record record) {
+            switch (record.getSid()) {
+                case BOFRecord.sid:
+                    if (((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET) {
+                        active = sheetCount++ == sheetIndex;
+                    }
+                    break;
+                case EOFRecord.sid:
+                    if (active) {
+                        endCurrentRow();
+                        active = false;
+                    }
+                    break;
+                case SSTRecord.sid:
+                    sst = (SSTRecord) record;
+                    break;
+                case LabelSSTRecord.sid:
+                    LabelSSTRecord labelSST = (LabelSSTRecord) record;
+                    onCell(labelSST, sst == null ? "" : sst.getString(labelSST.getSSTIndex()).getString());
+                    break;
+                case LabelRecord.sid:
+                    onCell((LabelRecord) record, ((LabelRecord) record).getValue());
+                    break;
+                case NumberRecord.sid:
+                    NumberRecord number = (NumberRecord) record;
+                    onCell(number, formatNumber(number, number.getValue()));
+                    break;
+                case BoolErrRecord.sid:
+                    BoolErrRecord boolErr = (BoolErrRecord) record;
+                    onCell(boolErr, boolErr.isBoolean() ? String.valueOf(boolErr.getBooleanValue()).toUpperCase()
+                            : FormulaError.forInt(boolErr.getErrorValue()).getString());
+                    break;
+                case FormulaRecord.sid:
+                    FormulaRecord formula = (FormulaRecord) record;
+                    if (formula.hasCachedResultString()) {
+                        // 字符串结果保存在紧随其后的StringRecord中
+                        onCell(formula, "");
+                        formulaColumn = active ? formula.getColumn() : -1;
+                        break;
+                    }
+                    int resultType = formula.getCachedResultType();
+                    if (resultType == FORMULA_RESULT_STRING) {
+                        onCell(formula, "");
+                    } else if (resultType == FORMULA_RESULT_BOOLEAN) {
+                        onCell(formula, formula.getCachedBooleanValue() ? "TRUE" : "FALSE");
+                    } else if (resultType == FORMULA_RESULT_ERROR) {
+                        onCell(formula, FormulaError.forInt(formula.getCachedErrorValue()).getString());
+                    } else {
+                        onCell(formula, formatNumber(formula, formula.getValue()));
+                    }
+                    break;
+                case StringRecord.sid:
+                    if (active && formulaColumn >= 0) {
+                        cell(formulaColumn, ((StringRecord) record).getString());
+                    }
+                    formulaColumn = -1;
+                    if (pendingEndRow) {
+                        pendingEndRow = false;
+                        endCurrentRow();
+                    }
+                    break;
+                default:
+                    if (active && record instanceof LastCellOfRowDummyRecord) {
+                        if (formulaColumn >= 0) {
+                            // 等待公式的StringRecord之后再结束当前行
+                            pendingEndRow = true;
+                        } else {
+                            endCurrentRow();
+                        }
+                    }
+            }
+        }
+
+        private void onCell(CellValueRecordInterface record, String value) {
+            if (!active) {
+                return;
+            }
+            if (record.getRow() != row) {
+                endCurrentRow();
+                row = record.getRow();
+                startRow(row);
+            }
+            cell(record.getColumn(), value);
+        }
+
+        private void endCurrentRow() {
+            if (row >= 0) {
+                endRow();
+                row = -1;
+            }
+        }
+
+        private String formatNumber(CellValueRecordInterface record, double value) {
+            return formatter.formatRawCellContents(value, formatListener.getFormatIndex(record),
+                    formatListener.getFormatString(record));
+        }
+    }
+
+    /**
+     * 单元格文本格式化：日期按统一的格式输出，其余数值输出原始值（最多15位有效数字，与Excel一致）
+     */
+    private static final class CellTextFormatter extends DataFormatter {
+
+        private static final MathContext EXCEL_PRECISION = new MathContext(15);
+
+        private final SimpleDateFormat dateTimeFormat = new SimpleDateFormat(ExcelUtils.DEFAULT_DATE_PATTERN);
+        private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                Calendar calendar = DateUtil.getJavaCalendar(value, false, null, true);
+                return (value < 1 ? timeFormat : dateTimeFormat).format(calendar.getTime());
+            }
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                return Long.toString((long) value);
+            }
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                return Double.toString(value);
+            }
+            return BigDecimal.valueOf(value).round(EXCEL_PRECISION).stripTrailingZeros().toPlainString();
+        }
+    }
+}
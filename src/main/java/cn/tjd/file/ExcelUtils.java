@@ -2,22 +2,34 @@ package cn.tjd.file;
 
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.WorkbookUtil;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.lang.reflect.Method;
-import java.math.BigDecimal;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -37,12 +49,17 @@ public class ExcelUtils {
 
     public static final String DEFAULT_DATE_PATTERN = "yyyy-MM-dd HH:mm:ss";// 默认日期格式
     public static final int DEFAULT_COLUMN_WIDTH = 17;// 默认列宽
+    public static final int MAX_SHEET_NAME_LENGTH = 31;// Sheet名称的最大长度
 
     private ExcelUtils() {
     }
 
+    /**
+     * XLS：HSSF，整个文件在内存中构建；XLSX：SXSSF，超出窗口的行写入临时文件；
+     * XLSX_STREAM：直接输出OOXML，不创建POI对象，适用于数据量大、只需要表头与数据样式的平面表格导出
+     */
     public enum ExcelType {
-        XLS(".xls"), XLSX(".xlsx");
+        XLS(".xls"), XLSX(".xlsx"), XLSX_STREAM(".xlsx");
 
         private String suffix;
 
@@ -122,9 +139,143 @@ public class ExcelUtils {
         createWorkBookByObject(excelType, headMap, dataList, sheetname, response.getOutputStream());
     }
 
+    /**
+     * 根据Map类型的数据集与导出配置导出Excel文件，XLS格式超出内存预算而改为XLSX格式时，文件后缀会同步修改
+     *
+     * @param excelType 导出的文件类型
+     * @param headMap   表头名称
+     * @param dataArray 数据集合
+     * @param filename  文件名称
+     * @param sheetname 工作簿名称
+     * @param config    导出配置
+     * @param response  响应对象
+     * @throws IOException
+     */
+    public static void exportExcelByMap(ExcelType excelType, LinkedHashMap<String, String> headMap, List<Map<String, Object>> dataArray, String filename, String sheetname, ExcelExportConfig config, HttpServletResponse response) throws IOException {
+        ExcelType actualType = resolveExcelType(excelType, headMap.size(), dataArray == null ? 0 : dataArray.size(), config);
+        response.setHeader("Content-Disposition", "attachment;fileName=" + URLEncoder.encode(filename + actualType.getSuffix(), "UTF-8"));
+        createWorkBookByMap(actualType, headMap, dataArray, sheetname, response.getOutputStream(), CellFormatters.DEFAULT, config);
+    }
+
+    /**
+     * 根据JavaBean数据集与导出配置导出Excel文件，XLS格式超出内存预算而改为XLSX格式时，文件后缀会同步修改
+     *
+     * @param excelType 导出的文件类型
+     * @param headMap   表头名称
+     * @param dataList  数据集合
+     * @param filename  文件名称
+     * @param sheetname 工作簿名称
+     * @param config    导出配置
+     * @param response  响应对象
+     * @throws IOException
+     */
+    public static void exportExcelByObject(ExcelType excelType, LinkedHashMap<String, String> headMap, List dataList, String filename, String sheetname, ExcelExportConfig config, HttpServletResponse response) throws IOException {
+        ExcelType actualType = resolveExcelType(excelType, headMap.size(), dataList == null ? 0 : dataList.size(), config);
+        response.setHeader("Content-Disposition", "attachment;fileName=" + URLEncoder.encode(filename + actualType.getSuffix(), "UTF-8"));
+        createWorkBookByObject(actualType, headMap, dataList, sheetname, response.getOutputStream(), CellFormatters.DEFAULT, config);
+    }
+
+    /**
+     * 从拉取式数据源中逐行读取数据导出Excel文件，数据库游标、分页查询等数据可以直接写入响应，不需要先加载到内存中
+     *
+     * @param excelType 导出的文件类型
+     * @param headMap   表头名称
+     * @param source    数据源，见RowSources，导出结束后关闭
+     * @param filename  文件名称
+     * @param sheetname 工作簿名称
+     * @param response  响应对象
+     * @throws IOException
+     */
+    public static void exportExcel(ExcelType excelType, LinkedHashMap<String, String> headMap, RowSource<?> source, String filename, String sheetname, HttpServletResponse response) throws IOException {
+        exportExcel(excelType, headMap, source, filename, sheetname, ExcelExportConfig.DEFAULT, response);
+    }
+
+    /**
+     * 从拉取式数据源中逐行读取数据，按照导出配置导出Excel文件
+     *
+     * @param excelType 导出的文件类型
+     * @param headMap   表头名称
+     * @param source    数据源，见RowSources，导出结束后关闭
+     * @param filename  文件名称
+     * @param sheetname 工作簿名称
+     * @param config    导出配置
+     * @param response  响应对象
+     * @throws IOException
+     */
+    public static void exportExcel(ExcelType excelType, LinkedHashMap<String, String> headMap, RowSource<?> source, String filename, String sheetname, ExcelExportConfig config, HttpServletResponse response) throws IOException {
+        response.setHeader("Content-Disposition", "attachment;fileName=" + URLEncoder.encode(filename + excelType.getSuffix(), "UTF-8"));
+        createWorkBook(excelType, headMap, source, sheetname, response.getOutputStream(), CellFormatters.DEFAULT, config);
+    }
+
+    /**
+     * 将JDBC结果集直接导出为Excel文件，表头取自ResultSetMetaData，数据行边读取边写出，不需要先转换为Map集合。
+     * 结果集由调用方关闭
+     *
+     * @param excelType 导出的文件类型
+     * @param resultSet 结果集
+     * @param labels    表头名称，key为列的别名，未指定的列使用别名作为表头，可以为null
+     * @param filename  文件名称
+     * @param sheetname 工作簿名称
+     * @param response  响应对象
+     * @throws IOException
+     * @throws SQLException
+     */
+    public static void exportResultSet(ExcelType excelType, ResultSet resultSet, Map<String, String> labels, String filename, String sheetname, HttpServletResponse response) throws IOException, SQLException {
+        exportResultSet(excelType, resultSet, labels, filename, sheetname, ExcelExportConfig.DEFAULT, response);
+    }
+
+    /**
+     * 按照导出配置将JDBC结果集直接导出为Excel文件，结果集由调用方关闭
+     *
+     * @param excelType 导出的文件类型
+     * @param resultSet 结果集
+     * @param labels    表头名称，key为列的别名，未指定的列使用别名作为表头，可以为null
+     * @param filename  文件名称
+     * @param sheetname 工作簿名称
+     * @param config    导出配置
+     * @param response  响应对象
+     * @throws IOException
+     * @throws SQLException
+     */
+    public static void exportResultSet(ExcelType excelType, ResultSet resultSet, Map<String, String> labels, String filename, String sheetname, ExcelExportConfig config, HttpServletResponse response) throws IOException, SQLException {
+        response.setHeader("Content-Disposition", "attachment;fileName=" + URLEncoder.encode(filename + excelType.getSuffix(), "UTF-8"));
+        createWorkBook(excelType, resultSet, labels, sheetname, response.getOutputStream(), config);
+    }
+
+    /**
+     * 将按列存储的数据集导出为Excel文件
+     *
+     * @param excelType 导出的文件类型
+     * @param table     数据集
+     * @param filename  文件名称
+     * @param sheetname 工作簿名称
+     * @param response  响应对象
+     * @throws IOException
+     */
+    public static void exportExcel(ExcelType excelType, ColumnTable table, String filename, String sheetname, HttpServletResponse response) throws IOException {
+        exportExcel(excelType, table, filename, sheetname, ExcelExportConfig.DEFAULT, response);
+    }
+
+    /**
+     * 按照导出配置将按列存储的数据集导出为Excel文件，XLS格式超出内存预算而改为XLSX格式时，文件后缀会同步修改
+     *
+     * @param excelType 导出的文件类型
+     * @param table     数据集
+     * @param filename  文件名称
+     * @param sheetname 工作簿名称
+     * @param config    导出配置
+     * @param response  响应对象
+     * @throws IOException
+     */
+    public static void exportExcel(ExcelType excelType, ColumnTable table, String filename, String sheetname, ExcelExportConfig config, HttpServletResponse response) throws IOException {
+        ExcelType actualType = resolveExcelType(excelType, table.getColumnCount(), table.getRowCount(), config);
+        response.setHeader("Content-Disposition", "attachment;fileName=" + URLEncoder.encode(filename + actualType.getSuffix(), "UTF-8"));
+        createWorkBook(actualType, table, sheetname, response.getOutputStream(), config);
+    }
+
     /**
      * 将文件生成在本地后，然后将下载路径返回给前端（不推荐使用）。
-     * 推荐采用输出流返回的形式导出文件，节省服务器资源
+     * 推荐采用输出流返回的形式导出文件，节省服务器资源；需要在后台生成文件时请使用ExportJobManager
      *
      * @param dataArray 数据集合
      * @param fileName  sheet名称
@@ -140,16 +291,15 @@ public class ExcelUtils {
         String path = request.getSession().getServletContext().getRealPath("");
         File file = new File(path + "/download");
         if (!file.exists()) file.mkdirs();// 创建该文件夹目录
-        OutputStream os = null;
+        long start = System.currentTimeMillis();
+        OutputStream os;
         try {
-            long start = System.currentTimeMillis();
             os = new FileOutputStream(file.getAbsolutePath() + File.separator + start + excelType.getSuffix());
-            createWorkBookByMap(excelType, headMap, dataArray, fileName, os);
-            result = execlPath + File.separator + start + excelType.getSuffix();
-            os.close();
-        } catch (Exception e) {
-            e.printStackTrace();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        createWorkBookByMap(excelType, headMap, dataArray, fileName, os);// 导出结束后关闭输出流
+        result = execlPath + File.separator + start + excelType.getSuffix();
         return result.replace('\\', '/');
     }
 
@@ -164,36 +314,466 @@ public class ExcelUtils {
      * @param outputStream 输出流
      */
     public static void createWorkBookByMap(ExcelType excelType, LinkedHashMap<String, String> headerMap, List<Map<String, Object>> dataList, String sheetName, OutputStream outputStream) {
-        String datePattern = DEFAULT_DATE_PATTERN;
-        int minBytes = DEFAULT_COLUMN_WIDTH;
-        //声明一个工作簿
-        Workbook workbook = generateWorkBook(excelType);
-        //生成表头样式
-        CellStyle headerStyle = generateHeaderStyle(workbook);
-        //生成数据样式
-        CellStyle cellStyle = generateCellStyle(workbook);
-        //生成一个(带名称)表格
-        Sheet sheet = workbook.createSheet(sheetName);
-        int[] colWidthArr = new int[headerMap.size()];// 列宽数组
-        String[] headKeyArr = new String[headerMap.size()];// headKey数组
-        String[] headValArr = new String[headerMap.size()];// headVal数组
-        int i = 0;
-        for (Map.Entry<String, String> entry : headerMap.entrySet()) {
-            headKeyArr[i] = entry.getKey();
-            headValArr[i] = entry.getValue();
-            int bytes = headKeyArr[i].getBytes().length;
-            colWidthArr[i] = bytes < minBytes ? minBytes : bytes;
-            sheet.setColumnWidth(i, colWidthArr[i] * 256);// 设置列宽
-            i++;
+        createWorkBookByMap(excelType, headerMap, dataList, sheetName, outputStream, CellFormatters.DEFAULT);
+    }
+
+    /**
+     * 根据excelType指定的文件格式，使用指定的单元格格式化规则生成对应的WorkBoot，并通过输出流导出文件
+     *
+     * @param excelType    Excel文件的格式（XLS、XLSX）
+     * @param headerMap    用于指定表头信息，其中key对应dataList中的key，value对表表头显示的文字
+     * @param dataList     数据集
+     * @param sheetName    工作簿名称
+     * @param outputStream 输出流
+     * @param formatters   单元格格式化器注册表，按列注册的格式化器与headerMap的key相对应
+     */
+    public static void createWorkBookByMap(ExcelType excelType, LinkedHashMap<String, String> headerMap, List<Map<String, Object>> dataList,
+                                           String sheetName, OutputStream outputStream, CellFormatters formatters) {
+        createWorkBookByMap(excelType, headerMap, dataList, sheetName, outputStream, formatters, ExcelExportConfig.DEFAULT);
+    }
+
+    /**
+     * 根据excelType指定的文件格式，使用指定的单元格格式化规则与导出配置生成对应的WorkBoot，并通过输出流导出文件。<br/>
+     * 数据行超出单个Sheet的行数上限时自动创建新的Sheet；XLS格式超出内存预算时按照配置拒绝导出或者改为XLSX格式，
+     * 调用方可以通过resolveExcelType提前得到实际导出的格式
+     *
+     * @param excelType    Excel文件的格式（XLS、XLSX）
+     * @param headerMap    用于指定表头信息，其中key对应dataList中的key，value对表表头显示的文字
+     * @param dataList     数据集
+     * @param sheetName    工作簿名称
+     * @param outputStream 输出流
+     * @param formatters   单元格格式化器注册表
+     * @param config       导出配置
+     * @throws UncheckedIOException 写出失败时抛出，输出流同样会被关闭
+     */
+    public static void createWorkBookByMap(ExcelType excelType, LinkedHashMap<String, String> headerMap, List<Map<String, Object>> dataList,
+                                           String sheetName, OutputStream outputStream, CellFormatters formatters, ExcelExportConfig config) {
+        ExcelType actualType = resolveExcelType(excelType, headerMap.size(), dataList == null ? 0 : dataList.size(), config);
+        writeWorkBook(actualType, headerMap, RowSources.of(dataList), sheetName, outputStream, formatters, config);
+    }
+
+
+    /**
+     * 根据excelType指定的文件格式，生成对应的WorkBoot，并通过输出流导出文件，其中表格数据由Java Bean对象作为载体
+     *
+     * @param excelType    Excel文件的格式（XLS、XLSX）
+     * @param headerMap    用于指定表头信息，其中key对应dataList中Java Bean的属性，value对表表头显示的文字
+     * @param dataList     Java Bean集合作为数据载体
+     * @param sheetName    工作簿名称
+     * @param outputStream 输出流
+     */
+    public static void createWorkBookByObject(ExcelType excelType, LinkedHashMap<String, String> headerMap, List dataList, String sheetName, OutputStream outputStream) {
+        createWorkBookByObject(excelType, headerMap, dataList, sheetName, outputStream, CellFormatters.DEFAULT);
+    }
+
+    /**
+     * 根据excelType指定的文件格式，使用指定的单元格格式化规则生成对应的WorkBoot，并通过输出流导出文件，其中表格数据由Java Bean对象作为载体
+     *
+     * @param excelType    Excel文件的格式（XLS、XLSX）
+     * @param headerMap    用于指定表头信息，其中key对应dataList中Java Bean的属性，value对表表头显示的文字
+     * @param dataList     Java Bean集合作为数据载体
+     * @param sheetName    工作簿名称
+     * @param outputStream 输出流
+     * @param formatters   单元格格式化器注册表，按列注册的格式化器与headerMap的key相对应
+     */
+    public static void createWorkBookByObject(ExcelType excelType, LinkedHashMap<String, String> headerMap, List dataList,
+                                              String sheetName, OutputStream outputStream, CellFormatters formatters) {
+        createWorkBookByObject(excelType, headerMap, dataList, sheetName, outputStream, formatters, ExcelExportConfig.DEFAULT);
+    }
+
+    /**
+     * 根据excelType指定的文件格式，使用指定的单元格格式化规则与导出配置生成对应的WorkBoot，并通过输出流导出文件，其中表格数据由Java Bean对象作为载体
+     *
+     * @param excelType    Excel文件的格式（XLS、XLSX）
+     * @param headerMap    用于指定表头信息，其中key对应dataList中Java Bean的属性，value对表表头显示的文字
+     * @param dataList     Java Bean集合作为数据载体
+     * @param sheetName    工作簿名称
+     * @param outputStream 输出流
+     * @param formatters   单元格格式化器注册表
+     * @param config       导出配置
+     * @throws UncheckedIOException 写出失败时抛出，输出流同样会被关闭
+     */
+    public static void createWorkBookByObject(ExcelType excelType, LinkedHashMap<String, String> headerMap, List dataList,
+                                              String sheetName, OutputStream outputStream, CellFormatters formatters, ExcelExportConfig config) {
+        ExcelType actualType = resolveExcelType(excelType, headerMap.size(), dataList == null ? 0 : dataList.size(), config);
+        writeWorkBook(actualType, headerMap, RowSources.of((List<?>) dataList), sheetName, outputStream, formatters, config);
+    }
+
+    /**
+     * 根据excelType指定的文件格式，从拉取式数据源中逐行读取数据生成WorkBoot，并通过输出流导出文件，数据行可以是Map也可以是JavaBean。<br/>
+     * 每写完一行才会从数据源拉取下一行（分页数据源在当前页写完后才会拉取下一页），数据库游标等数据源不需要一次性加载到内存中；
+     * 导出结束后关闭数据源
+     *
+     * @param excelType    Excel文件的格式
+     * @param headerMap    用于指定表头信息，其中key对应数据行中的key或属性，value对表表头显示的文字
+     * @param source       数据源，见RowSources
+     * @param sheetName    工作簿名称
+     * @param outputStream 输出流
+     */
+    public static void createWorkBook(ExcelType excelType, LinkedHashMap<String, String> headerMap, RowSource<?> source,
+                                      String sheetName, OutputStream outputStream) {
+        createWorkBook(excelType, headerMap, source, sheetName, outputStream, CellFormatters.DEFAULT, ExcelExportConfig.DEFAULT);
+    }
+
+    /**
+     * 根据excelType指定的文件格式，使用指定的单元格格式化规则与导出配置，从拉取式数据源中逐行读取数据生成WorkBoot。
+     * 数据源的总行数无法预先确定，XLS格式超出内存预算时直接拒绝导出
+     *
+     * @param excelType    Excel文件的格式
+     * @param headerMap    用于指定表头信息，其中key对应数据行中的key或属性，value对表表头显示的文字
+     * @param source       数据源，见RowSources
+     * @param sheetName    工作簿名称
+     * @param outputStream 输出流
+     * @param formatters   单元格格式化器注册表
+     * @param config       导出配置
+     * @throws UncheckedIOException 写出失败时抛出，输出流同样会被关闭
+     */
+    public static void createWorkBook(ExcelType excelType, LinkedHashMap<String, String> headerMap, RowSource<?> source,
+                                      String sheetName, OutputStream outputStream, CellFormatters formatters, ExcelExportConfig config) {
+        writeWorkBook(excelType, headerMap, source, sheetName, outputStream, formatters, config);
+    }
+
+    /**
+     * 根据excelType指定的文件格式，将JDBC结果集逐行写入WorkBoot，并通过输出流导出文件。<br/>
+     * 表头取自ResultSetMetaData的列别名，各列按列序号通过getLong、getDouble等方法读取：整数、浮点数、DECIMAL、
+     * 布尔值以及日期时间写为原生单元格，其余类型按文本写入。结果集未设置fetchSize时设置为1000，结果集由调用方关闭
+     *
+     * @param excelType    Excel文件的格式
+     * @param resultSet    结果集
+     * @param labels       表头名称，key为列的别名，未指定的列使用别名作为表头，可以为null
+     * @param sheetName    工作簿名称
+     * @param outputStream 输出流
+     * @throws SQLException
+     */
+    public static void createWorkBook(ExcelType excelType, ResultSet resultSet, Map<String, String> labels,
+                                      String sheetName, OutputStream outputStream) throws SQLException {
+        createWorkBook(excelType, resultSet, labels, sheetName, outputStream, ExcelExportConfig.DEFAULT);
+    }
+
+    /**
+     * 根据excelType指定的文件格式与导出配置，将JDBC结果集逐行写入WorkBoot，并通过输出流导出文件。
+     * 结果集的总行数无法预先确定，XLS格式超出内存预算时直接拒绝导出
+     *
+     * @param excelType    Excel文件的格式
+     * @param resultSet    结果集
+     * @param labels       表头名称，key为列的别名，未指定的列使用别名作为表头，可以为null
+     * @param sheetName    工作簿名称
+     * @param outputStream 输出流
+     * @param config       导出配置
+     * @throws SQLException
+     * @throws UncheckedIOException 写出失败时抛出，输出流同样会被关闭
+     */
+    public static void createWorkBook(ExcelType excelType, ResultSet resultSet, Map<String, String> labels,
+                                      String sheetName, OutputStream outputStream, ExcelExportConfig config) throws SQLException {
+        ResultSetColumns columns = ResultSetColumns.of(resultSet, labels);
+        try {
+            writeWorkBook(excelType, columns.getKeys(), columns.getTitles(), new ResultSetCursor(resultSet, columns),
+                    sheetName, outputStream, config);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
+
+    /**
+     * 根据excelType指定的文件格式，将按列存储的数据集写入WorkBoot，并通过输出流导出文件。
+     * 数字与日期直接从基本类型数组中写为原生单元格，不需要为每行创建Map
+     *
+     * @param excelType    Excel文件的格式
+     * @param table        数据集
+     * @param sheetName    工作簿名称
+     * @param outputStream 输出流
+     */
+    public static void createWorkBook(ExcelType excelType, ColumnTable table, String sheetName, OutputStream outputStream) {
+        createWorkBook(excelType, table, sheetName, outputStream, ExcelExportConfig.DEFAULT);
+    }
+
+    /**
+     * 根据excelType指定的文件格式与导出配置，将按列存储的数据集写入WorkBoot，并通过输出流导出文件。
+     * ExcelExportConfig中按列指定的数字格式以表头名称作为列名
+     *
+     * @param excelType    Excel文件的格式
+     * @param table        数据集
+     * @param sheetName    工作簿名称
+     * @param outputStream 输出流
+     * @param config       导出配置
+     * @throws UncheckedIOException 写出失败时抛出，输出流同样会被关闭
+     */
+    public static void createWorkBook(ExcelType excelType, ColumnTable table, String sheetName, OutputStream outputStream,
+                                      ExcelExportConfig config) {
+        ExcelType actualType = resolveExcelType(excelType, table.getColumnCount(), table.getRowCount(), config);
+        String[] names = table.getNames();
+        try {
+            writeWorkBook(actualType, names, names, new TableCursor(table), sheetName, outputStream, config);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);// 数据集不会抛出SQLException
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 根据导出配置确定实际导出的文件格式：XLS格式预计的内存占用超出预算时，按照配置改为XLSX格式或者抛出IllegalStateException
+     *
+     * @param excelType 期望的文件格式
+     * @param columns   列数
+     * @param rows      数据行数
+     * @param config    导出配置
+     * @return 实际导出的文件格式
+     */
+    public static ExcelType resolveExcelType(ExcelType excelType, int columns, long rows, ExcelExportConfig config) {
+        if (excelType != ExcelType.XLS || !config.exceedsXlsBudget((rows + 1) * columns)) {
+            return excelType;
+        }
+        if (config.getXlsOverflow() == ExcelExportConfig.XlsOverflow.UPGRADE) {
+            return ExcelType.XLSX;
+        }
+        throw new IllegalStateException("导出数据量超出XLS格式的内存预算，请使用XLSX格式导出");
+    }
+
+    /**
+     * 将数据行写入工作簿并通过输出流导出，数据行可以是Map也可以是JavaBean，导出结束后关闭数据源
+     */
+    private static void writeWorkBook(ExcelType excelType, LinkedHashMap<String, String> headerMap, RowSource<?> source,
+                                      String sheetName, OutputStream outputStream, CellFormatters formatters, ExcelExportConfig config) {
+        OrderedBatchPipeline<ExcelCellBatch> pipeline = null;
+        try {
+            final String[] headKeyArr = headerMap.keySet().toArray(new String[headerMap.size()]);// headKey数组
+            String[] headValArr = headerMap.values().toArray(new String[headerMap.size()]);// headVal数组
+            CellCursor cursor;
+            if (config.getParallel() == null) {
+                cursor = new SourceCursor(source, headKeyArr, formatters);
+            } else {
+                final CellFormatters batchFormatters = formatters;
+                final boolean typed = config.isTypedCells();
+                pipeline = new OrderedBatchPipeline<>(config.getParallel(), source,
+                        new OrderedBatchPipeline.BatchFormatter<ExcelCellBatch>() {
+                            @Override
+                            public ExcelCellBatch format(List<Object> rows) {
+                                return ExcelCellBatch.format(rows, headKeyArr, batchFormatters, typed);
+                            }
+                        });
+                cursor = new BatchCursor(pipeline, headKeyArr.length);
+            }
+            writeWorkBook(excelType, headKeyArr, headValArr, cursor, sheetName, outputStream, config);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);// 数据源不会抛出SQLException
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (pipeline != null) {
+                pipeline.cancel();
+            }
+            source.close();
+        }
+    }
+
+    /**
+     * 将游标中的数据行写入工作簿并通过输出流导出。
+     * 单个Sheet写满后自动创建名为"sheetName_序号"的新Sheet，并重新生成表头；headValArr为null时不生成表头。
+     * sheetName经过WorkbookUtil.createSafeSheetName处理：超出31个字符的部分被截断，[]:*?/\\被替换为空格。
+     * 无论导出是否成功都会关闭输出流，写出失败时抛出IOException，输出流中的内容不完整
+     */
+    static void writeWorkBook(ExcelType excelType, String[] headKeyArr, String[] headValArr, CellCursor cursor,
+                              String sheetName, OutputStream outputStream, ExcelExportConfig config) throws SQLException, IOException {
+        sheetName = WorkbookUtil.createSafeSheetName(sheetName);
+        if (excelType == ExcelType.XLSX_STREAM) {
+            writeStreamWorkBook(headKeyArr, headValArr, cursor, sheetName, outputStream, config);
+        } else {
+            writePoiWorkBook(excelType, headKeyArr, headValArr, cursor, sheetName, outputStream, config);
+        }
+    }
+
+    /**
+     * 逐行读取单元格的游标，屏蔽数据行（Map或JavaBean）与JDBC结果集的差异
+     */
+    interface CellCursor {
+
         /**
-         * 遍历数据集合，产生Excel行数据
+         * 移动到下一行
+         *
+         * @return 没有更多数据行时返回false
          */
-        if (dataList != null) {
+        boolean next() throws SQLException, IOException;
+
+        /**
+         * @return 当前行的列数，多于表头的列按文本写入，数据行的列数固定时与表头的列数一致
+         */
+        int size();
+
+        /**
+         * 读取当前行第k列的值，每列只读取一次
+         *
+         * @param cellValue 不为null时，可以写为原生单元格的值解析到cellValue中
+         * @return 值已解析到cellValue时返回null，否则返回单元格的文本
+         */
+        String read(int k, ExcelCellValue cellValue) throws SQLException, IOException;
+    }
+
+    private static final class SourceCursor implements CellCursor {
+
+        private final RowSource<?> source;
+        private final RowExtractor extractor;
+        private final CellFormatters.Bound bound;
+        private final Object[] values;
+
+        SourceCursor(RowSource<?> source, String[] headKeyArr, CellFormatters formatters) {
+            this.source = source;
+            this.extractor = new RowExtractor(headKeyArr);
+            this.bound = formatters.bind(headKeyArr);
+            this.values = new Object[headKeyArr.length];
+        }
+
+        @Override
+        public boolean next() {
+            if (!source.hasNext()) {
+                return false;
+            }
+            extractor.extract(source.next(), values);
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public String read(int k, ExcelCellValue cellValue) {
+            Object value = values[k];
+            // 只有使用默认格式化规则的值才写为原生单元格，自定义的格式化结果按文本写入
+            if (cellValue != null && value != null && bound.isDefault(k, value) && cellValue.resolve(value)) {
+                return null;
+            }
+            return bound.format(k, value);
+        }
+    }
+
+    /**
+     * 按顺序读取并行格式化的结果
+     */
+    private static final class BatchCursor implements CellCursor {
+
+        private final OrderedBatchPipeline<ExcelCellBatch> pipeline;
+        private final int columns;
+        private ExcelCellBatch batch;
+        private int row;
+
+        BatchCursor(OrderedBatchPipeline<ExcelCellBatch> pipeline, int columns) {
+            this.pipeline = pipeline;
+            this.columns = columns;
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            row++;
+            while (batch == null || row >= batch.size()) {
+                batch = pipeline.next();
+                row = 0;
+                if (batch == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return columns;
+        }
+
+        @Override
+        public String read(int k, ExcelCellValue cellValue) {
+            return batch.read(row, k, cellValue);
+        }
+    }
+
+    private static final class ResultSetCursor implements CellCursor {
+
+        private final ResultSet resultSet;
+        private final ResultSetColumns columns;
+
+        ResultSetCursor(ResultSet resultSet, ResultSetColumns columns) {
+            this.resultSet = resultSet;
+            this.columns = columns;
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            return resultSet.next();
+        }
+
+        @Override
+        public int size() {
+            return columns.size();
+        }
+
+        @Override
+        public String read(int k, ExcelCellValue cellValue) throws SQLException {
+            return columns.read(resultSet, k, cellValue);
+        }
+    }
+
+    private static final class TableCursor implements CellCursor {
+
+        private final ColumnTable table;
+        private final int rowCount;
+        private int row = -1;
+
+        TableCursor(ColumnTable table) {
+            this.table = table;
+            this.rowCount = table.getRowCount();
+        }
+
+        @Override
+        public boolean next() {
+            return ++row < rowCount;
+        }
+
+        @Override
+        public int size() {
+            return table.getColumnCount();
+        }
+
+        @Override
+        public String read(int k, ExcelCellValue cellValue) {
+            return table.read(k, row, cellValue);
+        }
+    }
+
+    /**
+     * 通过POI（HSSF或SXSSF）生成工作簿并导出
+     */
+    private static void writePoiWorkBook(ExcelType excelType, String[] headKeyArr, String[] headValArr, CellCursor cursor,
+                                         String sheetName, OutputStream outputStream, ExcelExportConfig config) throws SQLException, IOException {
+        //声明一个工作簿
+        Workbook workbook = generateWorkBook(excelType, config);
+        Throwable failure = null;
+        try {
+            //生成表头样式
+            CellStyle headerStyle = generateHeaderStyle(workbook);
+            //生成数据样式
+            CellStyle cellStyle = generateCellStyle(workbook);
+            //生成一个(带名称)表格
+            Sheet sheet = createSheet(workbook, sheetName, headKeyArr);
+            SheetNamer sheetNamer = new SheetNamer(sheetName);
+            int rowLimit = config.sheetRowLimit(excelType);
+            long totalCells = 0;
+            ExcelCellValue cellValue = config.isTypedCells() ? new ExcelCellValue() : null;
+            String[] columnFormats = config.columnFormats(headKeyArr);
+            Map<String, CellStyle> numberStyles = new HashMap<>();// 按数字格式缓存的数据样式
+            DataFormat dataFormat = workbook.createDataFormat();
             int rowIndex = 0;
-            for (Map<String, Object> obj : dataList) {
+            /**
+             * 遍历数据集合，产生Excel行数据
+             */
+            while (cursor.next()) {
+                // 当前Sheet已写满，创建新的Sheet
+                if (rowIndex >= rowLimit) {
+                    sheet = createSheet(workbook, sheetNamer.next(), headKeyArr);
+                    rowIndex = 0;
+                }
                 // 生成title+head信息
-                if (rowIndex == 0) {
+                if (rowIndex == 0 && headValArr != null) {
                     Row headerRow = sheet.createRow(0);// head行
                     for (int j = 0; j < headValArr.length; j++) {
                         headerRow.createCell(j).setCellValue(headValArr[j]);
@@ -201,122 +781,272 @@ public class ExcelUtils {
                     }
                     rowIndex = 1;
                 }
+                int width = Math.max(headKeyArr.length, cursor.size());
+                if (excelType == ExcelType.XLS) {
+                    totalCells += width;
+                    if (config.exceedsXlsBudget(totalCells)) {
+                        throw new IllegalStateException("导出数据量超出XLS格式的内存预算，请使用XLSX格式导出");
+                    }
+                }
                 // 生成数据
                 Row dataRow = sheet.createRow(rowIndex);// 创建行
-                for (int k = 0; k < headKeyArr.length; k++) {
+                for (int k = 0; k < width; k++) {
                     Cell cell = dataRow.createCell(k);// 创建单元格
-                    Object o = obj.get(headKeyArr[k]);
-                    String cellValue = "";
-                    if (o == null) {
-                        cellValue = "";
-                    } else if (o instanceof Date) {
-                        cellValue = new SimpleDateFormat(datePattern).format(o);
-                    } else if (o instanceof Float || o instanceof Double) {
-                        cellValue = new BigDecimal(o.toString()).setScale(2,
-                                BigDecimal.ROUND_HALF_UP).toString();
+                    String text = cursor.read(k, cellValue);
+                    if (text != null) {
+                        cell.setCellValue(text);
+                        cell.setCellStyle(cellStyle);
+                    } else if (cellValue.isBoolean()) {
+                        cell.setCellValue(cellValue.booleanValue());
+                        cell.setCellStyle(cellStyle);
                     } else {
-                        cellValue = o.toString();
+                        cell.setCellValue(cellValue.doubleValue());
+                        String format = k < columnFormats.length && columnFormats[k] != null ? columnFormats[k] : cellValue.format();
+                        CellStyle numberStyle = numberStyles.get(format);
+                        if (numberStyle == null) {
+                            numberStyle = workbook.createCellStyle();
+                            numberStyle.cloneStyleFrom(cellStyle);
+                            numberStyle.setDataFormat(dataFormat.getFormat(format));
+                            numberStyles.put(format, numberStyle);
+                        }
+                        cell.setCellStyle(numberStyle);
                     }
-
-                    cell.setCellValue(cellValue);
-                    cell.setCellStyle(cellStyle);
                 }
                 rowIndex++;
             }
-        }
-        try {
-            workbook.write(outputStream);
+            FailureRecordingOutputStream recorder = new FailureRecordingOutputStream(outputStream);
+            try {
+                workbook.write(recorder);
+            } catch (RuntimeException e) {
+                // SXSSF在finally中关闭内部的zip流，写出失败时会抛出"Deflater has been closed"，覆盖真正的IOException
+                if (recorder.failure != null) {
+                    recorder.failure.addSuppressed(e);
+                    throw recorder.failure;
+                }
+                throw e;
+            }
             outputStream.flush();// 刷新此输出流并强制将所有缓冲的输出字节写出
-            outputStream.close();// 关闭流
-            workbook.close();// 释放workbook所占用的所有windows资源
-        } catch (IOException e) {
-            e.printStackTrace();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            closeAll(workbook, outputStream, failure);
         }
     }
 
+    /**
+     * 记录写出时第一次抛出的IOException
+     */
+    private static final class FailureRecordingOutputStream extends FilterOutputStream {
+        IOException failure;
+
+        FailureRecordingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            try {
+                out.write(b);
+            } catch (IOException e) {
+                throw record(e);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            try {
+                out.write(b, off, len);
+            } catch (IOException e) {
+                throw record(e);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw record(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            // 输出流由writePoiWorkBook关闭
+        }
+
+        private IOException record(IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+            return e;
+        }
+    }
 
     /**
-     * 根据excelType指定的文件格式，生成对应的WorkBoot，并通过输出流导出文件，其中表格数据由Java Bean对象作为载体
+     * 依次关闭工作簿与输出流。导出过程中已经抛出异常时，关闭失败的异常附加为该异常的被抑制异常，不覆盖导出失败的原因
      *
-     * @param excelType    Excel文件的格式（XLS、XLSX）
-     * @param headerMap    用于指定表头信息，其中key对应dataList中Java Bean的属性，value对表表头显示的文字
-     * @param dataList     Java Bean集合作为数据载体
-     * @param sheetName    工作簿名称
-     * @param outputStream 输出流
+     * @param failure 导出过程中抛出的异常，没有时为null
      */
-    private static void createWorkBookByObject(ExcelType excelType, LinkedHashMap<String, String> headerMap, List dataList, String sheetName, OutputStream outputStream) {
-        String datePattern = DEFAULT_DATE_PATTERN;
-        int minBytes = DEFAULT_COLUMN_WIDTH;
-        //声明一个工作簿
-        Workbook workbook = generateWorkBook(excelType);
-        //生成表头样式
-        CellStyle headerStyle = generateHeaderStyle(workbook);
-        //生成数据样式
-        CellStyle cellStyle = generateCellStyle(workbook);
-        //生成一个(带名称)表格
-        Sheet sheet = workbook.createSheet(sheetName);
-        int[] colWidthArr = new int[headerMap.size()];// 列宽数组
-        String[] headKeyArr = new String[headerMap.size()];// headKey数组
-        String[] headValArr = new String[headerMap.size()];// headVal数组
-        int i = 0;
-        for (Map.Entry<String, String> entry : headerMap.entrySet()) {
-            headKeyArr[i] = entry.getKey();
-            headValArr[i] = entry.getValue();
-            int bytes = headKeyArr[i].getBytes().length;
-            colWidthArr[i] = bytes < minBytes ? minBytes : bytes;
-            sheet.setColumnWidth(i, colWidthArr[i] * 256);// 设置列宽
-            i++;
+    private static void closeAll(Workbook workbook, OutputStream outputStream, Throwable failure) throws IOException {
+        Throwable first = failure;
+        try {
+            closeWorkBook(workbook);
+        } catch (IOException | RuntimeException e) {
+            first = suppress(first, e);
         }
-        /**
-         * 遍历数据集合，产生Excel行数据
-         */
-        int rowIndex = 0;
-        boolean isMapTag = false;
-        for (Object obj : dataList) {
-            // 生成title+head信息
-            if (rowIndex == 0) {
-                Row headerRow = sheet.createRow(0);// head行
-                for (int j = 0; j < headValArr.length; j++) {
-                    headerRow.createCell(j).setCellValue(headValArr[j]);
-                    headerRow.getCell(j).setCellStyle(headerStyle);
-                }
-                rowIndex = 1;
+        try {
+            outputStream.close();// 关闭流
+        } catch (IOException | RuntimeException e) {
+            first = suppress(first, e);
+        }
+        if (failure == null && first != null) {
+            if (first instanceof IOException) {
+                throw (IOException) first;
             }
-            // 生成数据
-            Row dataRow = sheet.createRow(rowIndex);// 创建行
-            Class<?> clazz = obj.getClass();
-            for (int k = 0; k < headKeyArr.length; k++) {
-                Cell cell = dataRow.createCell(k);// 创建单元格
-                String filedName = headKeyArr[k];
-                String cellValue = "";
-                try {
-                    Method method = clazz.getMethod("get" + filedName.substring(0, 1).toUpperCase() + filedName.substring(1));
-                    Object result = method.invoke(obj);
-                    if (result == null) {
-                        cellValue = "";
-                    } else if (result instanceof Date) {
-                        cellValue = new SimpleDateFormat(datePattern).format(result);
-                    } else if (result instanceof Float || result instanceof Double) {
-                        cellValue = new BigDecimal(result.toString()).setScale(2,
-                                BigDecimal.ROUND_HALF_UP).toString();
+            throw (RuntimeException) first;
+        }
+    }
+
+    private static Throwable suppress(Throwable primary, Throwable e) {
+        if (primary == null) {
+            return e;
+        }
+        primary.addSuppressed(e);
+        return primary;
+    }
+
+    /**
+     * 通过XlsxStreamWriter直接输出XLSX文件，Sheet的拆分规则与writePoiWorkBook一致
+     */
+    private static void writeStreamWorkBook(String[] headKeyArr, String[] headValArr, CellCursor cursor, String sheetName,
+                                            OutputStream outputStream, ExcelExportConfig config) throws SQLException, IOException {
+        int[] columnWidths = columnWidths(headKeyArr);
+        XlsxStreamWriter writer = new XlsxStreamWriter(outputStream);
+        boolean closed = false;
+        Throwable failure = null;
+        try {
+            writer.startSheet(sheetName, columnWidths);
+            ExcelCellValue cellValue = config.isTypedCells() ? new ExcelCellValue() : null;
+            String[] columnFormats = config.columnFormats(headKeyArr);
+            int rowLimit = config.sheetRowLimit(ExcelType.XLSX_STREAM);
+            SheetNamer sheetNamer = new SheetNamer(sheetName);
+            int rowIndex = 0;
+            while (cursor.next()) {
+                // 当前Sheet已写满，创建新的Sheet
+                if (rowIndex >= rowLimit) {
+                    writer.startSheet(sheetNamer.next(), columnWidths);
+                    rowIndex = 0;
+                }
+                // 生成head信息
+                if (rowIndex == 0 && headValArr != null) {
+                    writer.startRow();
+                    for (String headVal : headValArr) {
+                        writer.writeString(headVal, XlsxStreamWriter.STYLE_HEADER);
+                    }
+                    writer.endRow();
+                    rowIndex = 1;
+                }
+                // 生成数据
+                writer.startRow();
+                int width = Math.max(headKeyArr.length, cursor.size());
+                for (int k = 0; k < width; k++) {
+                    String text = cursor.read(k, cellValue);
+                    if (text != null) {
+                        writer.writeString(text, XlsxStreamWriter.STYLE_CELL);
+                    } else if (cellValue.isBoolean()) {
+                        writer.writeBoolean(cellValue.booleanValue(), XlsxStreamWriter.STYLE_CELL);
                     } else {
-                        cellValue = result.toString();
+                        int style = writer.numberStyle(k < columnFormats.length && columnFormats[k] != null ? columnFormats[k] : cellValue.format());
+                        if (cellValue.isIntegral()) {
+                            writer.writeNumber(cellValue.longValue(), style);
+                        } else {
+                            writer.writeNumber(cellValue.doubleValue(), style);
+                        }
                     }
-                } catch (Exception e) {
-                    e.printStackTrace();
                 }
-                cell.setCellValue(cellValue);
-                cell.setCellStyle(cellStyle);
+                writer.endRow();
+                rowIndex++;
             }
-            rowIndex++;
+            closed = true;
+            writer.close();// 同时关闭输出流
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (!closed) {
+                // 导出失败时不写出workbook.xml等描述文件，直接关闭输出流
+                try {
+                    outputStream.close();
+                } catch (IOException | RuntimeException e) {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 为写满后新建的Sheet生成名称"sheetName_序号"：名称超出31个字符时截断sheetName，
+     * 与已经生成的Sheet重名（Excel不区分大小写）时跳过该序号
+     */
+    static final class SheetNamer {
+
+        private final String base;
+        private final Set<String> used = new HashSet<>();
+        private int index = 1;
+
+        SheetNamer(String firstSheetName) {
+            this.base = firstSheetName;
+            used.add(firstSheetName.toLowerCase(Locale.ROOT));
+        }
+
+        String next() {
+            while (true) {
+                String suffix = "_" + (++index);
+                String name = base.length() + suffix.length() > MAX_SHEET_NAME_LENGTH
+                        ? base.substring(0, MAX_SHEET_NAME_LENGTH - suffix.length()) + suffix : base + suffix;
+                if (used.add(name.toLowerCase(Locale.ROOT))) {
+                    return name;
+                }
+            }
+        }
+    }
+
+    /**
+     * 根据headKey的字节长度计算列宽（字符数），不小于默认列宽
+     */
+    private static int[] columnWidths(String[] headKeyArr) {
+        int[] widths = new int[headKeyArr.length];
+        for (int i = 0; i < headKeyArr.length; i++) {
+            int bytes = headKeyArr[i].getBytes().length;
+            widths[i] = bytes < DEFAULT_COLUMN_WIDTH ? DEFAULT_COLUMN_WIDTH : bytes;
+        }
+        return widths;
+    }
+
+    /**
+     * 创建Sheet并设置列宽
+     */
+    private static Sheet createSheet(Workbook workbook, String sheetName, String[] headKeyArr) {
+        Sheet sheet = workbook.createSheet(sheetName);
+        int[] widths = columnWidths(headKeyArr);
+        for (int i = 0; i < widths.length; i++) {
+            sheet.setColumnWidth(i, widths[i] * 256);// 设置列宽
         }
+        return sheet;
+    }
+
+    /**
+     * 关闭工作簿，SXSSF需要额外删除临时文件
+     */
+    private static void closeWorkBook(Workbook workbook) throws IOException {
         try {
-            workbook.write(outputStream);
-            outputStream.flush();// 刷新此输出流并强制将所有缓冲的输出字节写出
-            outputStream.close();// 关闭流
+            if (workbook instanceof SXSSFWorkbook) {
+                ((SXSSFWorkbook) workbook).dispose();
+            }
+        } finally {
             workbook.close();// 释放workbook所占用的所有windows资源
-        } catch (IOException e) {
-            e.printStackTrace();
         }
     }
 
@@ -324,17 +1054,16 @@ public class ExcelUtils {
      * 根据 ExcelType 动态生成WorkBook（XLS和XLSX两种）
      *
      * @param excelType
+     * @param config
      * @return
      */
-    private static Workbook generateWorkBook(ExcelType excelType) {
+    private static Workbook generateWorkBook(ExcelType excelType, ExcelExportConfig config) {
         Workbook workbook;
         if (excelType == ExcelType.XLS) {
             workbook = new HSSFWorkbook();
         } else {
-            SXSSFWorkbook sxssfWorkbook = new SXSSFWorkbook();
-            // 大于1000行时会把之前的行写入硬盘
-            sxssfWorkbook.setCompressTempFiles(true);
-            workbook = sxssfWorkbook;
+            // 超出窗口大小的行会被写入硬盘上的临时文件
+            workbook = new SXSSFWorkbook(null, config.getWindowSize(), config.isCompressTempFiles());
         }
         return workbook;
     }
@@ -384,4 +1113,182 @@ public class ExcelUtils {
         return cellStyle;
     }
 
+    /**
+     * --------------------------导入-----------------------------------------------
+     */
+
+    /**
+     * 读取Excel文件第一个Sheet的全部数据行，第一个非空行作为表头，返回的每个Map的key为表头名称
+     *
+     * @param inputStream 输入流（XLS或XLSX格式，根据文件头自动识别）
+     * @return
+     * @throws IOException
+     */
+    public static List<Map<String, String>> readAll(InputStream inputStream) throws IOException {
+        final List<Map<String, String>> result = new ArrayList<>();
+        read(inputStream, new RowHandler<RowView>() {
+            @Override
+            public void handle(RowView row) {
+                result.add(row.toMap());
+            }
+        });
+        return result.isEmpty() ? Collections.<Map<String, String>>emptyList() : result;
+    }
+
+    /**
+     * 读取Excel文件第一个Sheet的全部数据行，单元格经过去重器去重，返回的每个Map为共享表头索引的紧凑只读Map
+     *
+     * @param inputStream  输入流（XLS或XLSX格式，根据文件头自动识别）
+     * @param deduplicator 字符串去重器，每次导入使用一个新的实例
+     * @return
+     * @throws IOException
+     */
+    public static List<Map<String, String>> readAll(InputStream inputStream, final StringDeduplicator deduplicator)
+            throws IOException {
+        final List<Map<String, String>> result = new ArrayList<>();
+        read(inputStream, new RowHandler<RowView>() {
+            @Override
+            public void handle(RowView row) {
+                result.add(deduplicator.toMap(row));
+            }
+        });
+        return result.isEmpty() ? Collections.<Map<String, String>>emptyList() : result;
+    }
+
+    /**
+     * 以事件模型（SAX）逐行读取Excel文件的第一个Sheet，不构建工作簿对象，内存占用与文件大小基本无关。<br/>
+     * 第一个非空行作为表头，空行会被跳过；数值单元格返回原始数值，日期单元格按yyyy-MM-dd HH:mm:ss格式化，公式单元格返回缓存的计算结果。
+     * 回调中得到的RowView会被复用，仅在回调期间有效。读取完毕后关闭输入流
+     *
+     * @param inputStream 输入流（XLS或XLSX格式，根据文件头自动识别）
+     * @param handler     数据行回调
+     * @throws IOException
+     */
+    public static void read(InputStream inputStream, RowHandler<? super RowView> handler) throws IOException {
+        read(inputStream, 0, handler);
+    }
+
+    /**
+     * 以事件模型（SAX）逐行读取Excel文件的指定Sheet
+     *
+     * @param inputStream 输入流（XLS或XLSX格式，根据文件头自动识别）
+     * @param sheetIndex  Sheet下标，从0开始
+     * @param handler     数据行回调
+     * @throws IOException
+     */
+    public static void read(InputStream inputStream, int sheetIndex, RowHandler<? super RowView> handler) throws IOException {
+        ExcelSaxReader.read(inputStream, sheetIndex, handler);
+    }
+
+    /**
+     * 以事件模型（SAX）逐行读取Excel文件的指定Sheet。与输入流相比，XLSX文件不需要先写入临时文件
+     *
+     * @param file       Excel文件（XLS或XLSX格式，根据文件头自动识别）
+     * @param sheetIndex Sheet下标，从0开始
+     * @param handler    数据行回调
+     * @throws IOException
+     */
+    public static void read(File file, int sheetIndex, RowHandler<? super RowView> handler) throws IOException {
+        ExcelSaxReader.read(file, sheetIndex, handler);
+    }
+
+    /**
+     * 以迭代器的方式逐行读取Excel文件的第一个Sheet，解析在后台线程中进行。使用完毕后需要关闭迭代器，建议配合try-with-resources使用
+     *
+     * @param inputStream 输入流（XLS或XLSX格式，根据文件头自动识别）
+     * @return
+     */
+    public static ExcelRowIterator iterator(InputStream inputStream) {
+        return iterator(inputStream, 0);
+    }
+
+    /**
+     * 以迭代器的方式逐行读取Excel文件的指定Sheet，解析在后台线程中进行。使用完毕后需要关闭迭代器，建议配合try-with-resources使用
+     *
+     * @param inputStream 输入流（XLS或XLSX格式，根据文件头自动识别）
+     * @param sheetIndex  Sheet下标，从0开始
+     * @return
+     */
+    public static ExcelRowIterator iterator(InputStream inputStream, int sheetIndex) {
+        return new ExcelRowIterator(inputStream, sheetIndex);
+    }
+
+    /**
+     * 以迭代器的方式逐行读取Excel文件的指定Sheet，解析在后台线程中进行。使用完毕后需要关闭迭代器，建议配合try-with-resources使用
+     *
+     * @param file       Excel文件（XLS或XLSX格式，根据文件头自动识别）
+     * @param sheetIndex Sheet下标，从0开始
+     * @return
+     */
+    public static ExcelRowIterator iterator(File file, int sheetIndex) {
+        return new ExcelRowIterator(file, sheetIndex);
+    }
+
+    /**
+     * 以Stream的方式逐行读取Excel文件的第一个Sheet。Stream关闭时会停止解析并关闭底层的输入流，建议配合try-with-resources使用
+     *
+     * @param inputStream 输入流（XLS或XLSX格式，根据文件头自动识别）
+     * @return
+     */
+    public static Stream<RowView> stream(InputStream inputStream) {
+        final ExcelRowIterator iterator = iterator(inputStream);
+        Spliterator<RowView> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    iterator.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 读取Excel文件第一个Sheet的全部数据行，并将每一行绑定为指定类型的JavaBean。<br/>
+     * headMap的key为JavaBean的属性名，value为Excel的表头名称（与导出时的headMap一致），为null时表头名称即为属性名
+     *
+     * @param inputStream 输入流（XLS或XLSX格式，根据文件头自动识别）
+     * @param clazz       JavaBean的类型，需要有无参构造方法
+     * @param headMap     属性名与表头名称的映射
+     * @return
+     * @throws IOException
+     */
+    public static <T> List<T> readAll(InputStream inputStream, Class<T> clazz, Map<String, String> headMap) throws IOException {
+        final List<T> result = new ArrayList<>();
+        read(inputStream, clazz, headMap, new RowHandler<T>() {
+            @Override
+            public void handle(T row) {
+                result.add(row);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 以事件模型（SAX）逐行读取Excel文件的第一个Sheet，并将每一行绑定为指定类型的JavaBean后回调handler
+     *
+     * @param inputStream 输入流（XLS或XLSX格式，根据文件头自动识别）
+     * @param clazz       JavaBean的类型，需要有无参构造方法
+     * @param headMap     属性名与表头名称的映射，为null时表头名称即为属性名
+     * @param handler     数据行回调
+     * @throws IOException
+     */
+    public static <T> void read(InputStream inputStream, final Class<T> clazz, final Map<String, String> headMap,
+                                final RowHandler<? super T> handler) throws IOException {
+        read(inputStream, new RowHandler<RowView>() {
+            private BeanBinder<T> binder;
+
+            @Override
+            public void handle(RowView row) {
+                if (binder == null) {
+                    // 表头在读取到第一行数据时才能确定
+                    binder = new BeanBinder<>(clazz, row.getHeaderIndex(), headMap);
+                }
+                handler.handle(binder.bind(row));
+            }
+        });
+    }
 }
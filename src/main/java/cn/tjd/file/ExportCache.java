@@ -0,0 +1,574 @@
+package cn.tjd.file;
+
+import cn.tjd.security.MD5Utils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 导出结果缓存。以导出定义（查询条件、表头、文件格式等）与数据版本的摘要作为key，将生成的文件保存在本地磁盘上，
+ * 相同参数的重复导出直接返回已生成的文件，不再消耗生成文件的CPU。<br/>
+ * 1. 同一个key同时只会生成一次，并发的请求等待同一次生成的结果<br/>
+ * 2. 按最近最少使用（LRU）的顺序淘汰，缓存文件的总大小与数量不超过上限<br/>
+ * 3. 下载时支持ETag（If-None-Match返回304）与Range断点续传（返回206），文件内容通过FileChannel.transferTo写出；
+ * 运行在支持sendfile的Tomcat中时交由容器直接发送文件<br/>
+ * 4. 重启后复用缓存目录中已有的文件<br/>
+ * 5. 正在下载的文件不会被删除：被淘汰或者失效的文件在最后一个下载结束后才删除，交给sendfile发送的文件再延迟一段时间删除<br/>
+ * 同一个key的不同格式（文件后缀）分别缓存。
+ * 使用示例：
+ * <pre>
+ * private static final ExportCache CACHE = new ExportCache(new File("/data/export-cache"), 2L &lt;&lt; 30, 1000);
+ * String key = ExportCache.key("orders?month=" + month + "&amp;type=xlsx", orderService.lastModified(month));
+ * CACHE.serve(key, "订单" + month + ".xlsx", new ExportJobManager.JobWriter() {...}, request, response);
+ * </pre>
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class ExportCache {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9A-Za-z_-]{1,128}");
+    private static final Pattern SUFFIX_PATTERN = Pattern.compile("(\\.[0-9A-Za-z_-]{1,16}){0,4}");
+    private static final long SENDFILE_GRACE_MILLIS = 60 * 1000;// 交给sendfile发送的文件被淘汰后延迟删除的时间
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    private final File dir;
+    private final long maxBytes;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);// key为文件名，按访问顺序排列
+    private final List<Entry> doomed = new ArrayList<>();// 已被淘汰、等待sendfile宽限期结束后删除的文件
+    private final ConcurrentMap<String, FutureTask<Entry>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long totalBytes;
+    private long lastInstalled;// 上一次放入缓存的文件的修改时间，保证ETag中的修改时间严格递增
+
+    /**
+     * 缓存的文件，pins、evicted与sendfileUntil由缓存的锁保护
+     */
+    private static final class Entry {
+        final String name;
+        final String key;
+        final File file;
+        final long length;
+        final String etag;
+        int pins;// 正在下载该文件的请求数
+        boolean evicted;// 已从缓存中移除，没有请求在下载时删除文件
+        long sendfileUntil;// 交给sendfile发送后，在此时间之前不删除文件
+
+        Entry(String key, File file) {
+            this.name = file.getName();
+            this.key = key;
+            this.file = file;
+            this.length = file.length();
+            // 同名文件重新生成后内容可能不同（如zip条目的时间戳），ETag包含修改时间与长度，避免If-Range拼接两个文件的内容
+            this.etag = "\"" + name + "-" + Long.toHexString(file.lastModified()) + "-" + Long.toHexString(length) + "\"";
+        }
+    }
+
+    /**
+     * @param dir        缓存目录，不存在时自动创建，目录中已有的缓存文件会被继续使用
+     * @param maxBytes   缓存文件的总大小上限（字节）
+     * @param maxEntries 缓存文件的数量上限
+     */
+    public ExportCache(File dir, long maxBytes, int maxEntries) {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IllegalArgumentException("无法创建缓存目录：" + dir);
+        }
+        if (maxBytes <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("maxBytes与maxEntries必须大于0");
+        }
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+        loadExisting();
+    }
+
+    /**
+     * 根据导出定义与数据版本计算缓存的key（MD5）。数据版本可以是数据的最后修改时间、版本号等，数据变化后key随之变化
+     *
+     * @param definition  导出定义，如查询条件、表头、文件格式拼接成的字符串
+     * @param dataVersion 数据版本
+     * @return 32位十六进制字符串
+     */
+    public static String key(String definition, Object dataVersion) {
+        try {
+            return MD5Utils.digest(definition + '\n' + dataVersion, "UTF-8");
+        } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 取得缓存的文件，不存在时调用writer生成
+     *
+     * @param key    缓存的key，只能包含字母、数字、下划线与中划线，见key()
+     * @param suffix 文件后缀，如.xlsx
+     * @param writer 生成文件的逻辑，只在缓存未命中时调用
+     * @return 缓存的文件，可能在之后被淘汰删除，需要长期使用时请自行复制
+     * @throws IOException
+     */
+    public File get(String key, String suffix, ExportJobManager.JobWriter writer) throws IOException {
+        checkName(key, suffix);
+        return getEntry(key, suffix, writer).file;
+    }
+
+    /**
+     * 从缓存中下载文件，缓存未命中时先调用writer生成。文件名的后缀同时作为缓存文件的后缀
+     *
+     * @param key      缓存的key，见key()
+     * @param filename 下载时的文件名称（含后缀）
+     * @param writer   生成文件的逻辑，只在缓存未命中时调用
+     * @param request  请求对象，用于读取If-None-Match、Range与If-Range
+     * @param response 响应对象
+     * @throws IOException
+     */
+    public void serve(String key, String filename, ExportJobManager.JobWriter writer,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String suffix = filename.lastIndexOf('.') >= 0 ? filename.substring(filename.lastIndexOf('.')) : "";
+        checkName(key, suffix);
+        Entry entry;
+        do {
+            entry = getEntry(key, suffix, writer);
+        } while (!pin(entry));// 文件在取得之后、发送之前被淘汰时重新取得
+        try {
+            sendFile(entry, filename, contentType(suffix), request, response);
+        } finally {
+            release(entry);
+        }
+    }
+
+    /**
+     * 删除指定key的缓存（所有文件后缀），正在下载的文件在下载结束后删除
+     *
+     * @param key 缓存的key
+     * @return 缓存是否存在
+     */
+    public synchronized boolean invalidate(String key) {
+        boolean found = false;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.key.equals(key)) {
+                iterator.remove();
+                totalBytes -= entry.length;
+                discard(entry);
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 删除全部缓存，正在下载的文件在下载结束后删除
+     */
+    public synchronized void clear() {
+        List<Entry> removed = new ArrayList<>(entries.values());
+        entries.clear();
+        totalBytes = 0;
+        for (Entry entry : removed) {
+            discard(entry);
+        }
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * @return 缓存文件的总大小（字节）
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private static void checkName(String key, String suffix) {
+        if (!KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("缓存的key只能包含字母、数字、下划线与中划线：" + key);
+        }
+        if (!SUFFIX_PATTERN.matcher(suffix).matches()) {
+            throw new IllegalArgumentException("文件后缀只能包含'.'、字母、数字、下划线与中划线：" + suffix);
+        }
+    }
+
+    private Entry getEntry(final String key, final String suffix, final ExportJobManager.JobWriter writer) throws IOException {
+        final String name = key + suffix;
+        Entry entry = lookup(name);
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry;
+        }
+        FutureTask<Entry> task = new FutureTask<>(new Callable<Entry>() {
+            @Override
+            public Entry call() throws Exception {
+                return generate(key, suffix, writer);
+            }
+        });
+        FutureTask<Entry> running = pending.putIfAbsent(name, task);
+        if (running == null) {
+            // 再次检查，避免在上一次生成完成、移出pending之后重复生成
+            entry = lookup(name);
+            if (entry != null) {
+                pending.remove(name, task);
+                hits.incrementAndGet();
+                return entry;
+            }
+            misses.incrementAndGet();
+            running = task;
+            try {
+                task.run();
+            } finally {
+                pending.remove(name, task);
+            }
+        } else {
+            hits.incrementAndGet();
+        }
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待导出文件生成时线程被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("导出文件生成失败", cause);
+        }
+    }
+
+    private synchronized Entry lookup(String name) {
+        Entry entry = entries.get(name);
+        if (entry != null && !entry.file.exists()) {
+            // 文件被外部删除
+            entries.remove(name);
+            totalBytes -= entry.length;
+            entry.evicted = true;
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 标记文件正在下载，文件已被淘汰时返回false
+     */
+    private synchronized boolean pin(Entry entry) {
+        if (entry.evicted) {
+            return false;
+        }
+        entry.pins++;
+        return true;
+    }
+
+    private synchronized void release(Entry entry) {
+        entry.pins--;
+        if (entry.evicted && entry.pins == 0) {
+            deleteEvicted(entry);
+        }
+        purgeDoomed();
+    }
+
+    private synchronized void markSendfile(Entry entry) {
+        entry.sendfileUntil = System.currentTimeMillis() + SENDFILE_GRACE_MILLIS;
+    }
+
+    /**
+     * 从缓存中移除后调用，没有请求在下载时删除文件
+     */
+    private void discard(Entry entry) {
+        entry.evicted = true;
+        if (entry.pins == 0) {
+            deleteEvicted(entry);
+        }
+    }
+
+    private void deleteEvicted(Entry entry) {
+        if (entries.containsKey(entry.name)) {
+            return;// 同名的文件已被重新生成
+        }
+        if (entry.sendfileUntil > System.currentTimeMillis()) {
+            // sendfile在Servlet返回之后才由容器打开文件，无法得知何时发送完毕，延迟删除
+            doomed.add(entry);
+        } else {
+            delete(entry.file);
+        }
+    }
+
+    private void purgeDoomed() {
+        if (doomed.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Iterator<Entry> iterator = doomed.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entries.containsKey(entry.name)) {
+                iterator.remove();
+            } else if (entry.sendfileUntil <= now) {
+                iterator.remove();
+                delete(entry.file);
+            }
+        }
+    }
+
+    private Entry generate(String key, String suffix, ExportJobManager.JobWriter writer) throws Exception {
+        File temp = File.createTempFile(key, TEMP_SUFFIX, dir);
+        OutputStream outputStream = null;
+        try {
+            outputStream = new BufferedOutputStream(new FileOutputStream(temp), BUFFER_SIZE);
+            writer.write(outputStream);
+            outputStream.close();// ExcelUtils等会关闭输出流，重复关闭没有影响
+            return install(key, temp, new File(dir, key + suffix));
+        } catch (Exception e) {
+            if (outputStream != null) {
+                try {
+                    outputStream.close();
+                } catch (IOException ignored) {
+                    // 忽略
+                }
+            }
+            delete(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * 将生成完成的临时文件移动到缓存文件的位置并放入缓存，在锁内完成，避免被淘汰的同名文件在此期间被删除
+     */
+    private synchronized Entry install(String key, File temp, File target) throws IOException {
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // 同一毫秒内重新生成的同名文件修改时间相同，顺延1毫秒，ETag随之不同
+        lastInstalled = Math.max(target.lastModified(), lastInstalled + 1);
+        target.setLastModified(lastInstalled);
+        Entry entry = new Entry(key, target);
+        put(entry);
+        return entry;
+    }
+
+    private synchronized void put(Entry entry) {
+        Entry previous = entries.put(entry.name, entry);
+        if (previous != null) {
+            totalBytes -= previous.length;
+            discard(previous);// 与新文件同名，不会被删除
+        }
+        totalBytes += entry.length;
+        // 按LRU顺序淘汰，刚放入的文件即使单独超出上限也保留到下一次淘汰
+        Iterator<Entry> iterator = entries.values().iterator();
+        while ((totalBytes > maxBytes || entries.size() > maxEntries) && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            if (eldest == entry) {
+                break;
+            }
+            iterator.remove();
+            totalBytes -= eldest.length;
+            discard(eldest);
+        }
+        purgeDoomed();
+    }
+
+    /**
+     * 读取缓存目录中已有的文件，删除未生成完成的临时文件
+     */
+    private void loadExisting() {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<File> cached = new ArrayList<>();
+        for (File file : files) {
+            if (!file.isFile()) {
+                continue;
+            }
+            String name = file.getName();
+            if (name.endsWith(TEMP_SUFFIX)) {
+                delete(file);
+            } else if (KEY_PATTERN.matcher(keyOf(name)).matches()
+                    && SUFFIX_PATTERN.matcher(name.substring(keyOf(name).length())).matches()) {
+                cached.add(file);
+            }
+        }
+        File[] sorted = cached.toArray(new File[cached.size()]);
+        Arrays.sort(sorted, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                return Long.compare(a.lastModified(), b.lastModified());
+            }
+        });
+        for (File file : sorted) {
+            put(new Entry(keyOf(file.getName()), file));
+        }
+    }
+
+    /**
+     * 从缓存文件名中取出key：key中不含'.'，第一个'.'之后均为文件后缀（如.tar.gz）
+     */
+    private static String keyOf(String filename) {
+        int dot = filename.indexOf('.');
+        return dot < 0 ? filename : filename.substring(0, dot);
+    }
+
+    /**
+     * 发送文件，支持If-None-Match、Range（单个区间）与If-Range
+     */
+    private void sendFile(Entry entry, String filename, String contentType, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        String etag = entry.etag;
+        long length = entry.length;
+        response.setHeader("ETag", etag);
+        response.setHeader("Accept-Ranges", "bytes");
+        if (matches(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader("Range");
+        String ifRange = request.getHeader("If-Range");
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            Matcher matcher = RANGE_PATTERN.matcher(range.trim());
+            // last小于first的区间在语法上无效，与无法解析的Range一样忽略（RFC 7233 2.1）
+            if (matcher.matches() && !(matcher.group(1).isEmpty() && matcher.group(2).isEmpty())
+                    && (matcher.group(1).isEmpty() || matcher.group(2).isEmpty()
+                    || parseLong(matcher.group(2)) >= parseLong(matcher.group(1)))) {
+                if (matcher.group(1).isEmpty()) {
+                    // bytes=-n，最后n个字节
+                    start = Math.max(0, length - parseLong(matcher.group(2)));
+                } else {
+                    start = parseLong(matcher.group(1));
+                    if (!matcher.group(2).isEmpty()) {
+                        end = Math.min(end, parseLong(matcher.group(2)));
+                    }
+                }
+                if (start >= length) {
+                    response.setHeader("Content-Range", "bytes */" + length);
+                    response.sendError(416, "Range Not Satisfiable");
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+            }
+            // 多个区间、last小于first等无法解析的Range按完整文件返回
+        }
+        long count = end - start + 1;
+        response.setContentType(contentType);
+        response.setHeader("Content-Disposition", "attachment;fileName=" + URLEncoder.encode(filename, "UTF-8"));
+        response.setHeader("Content-Length", String.valueOf(count));
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count <= 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            // 由Tomcat通过sendfile直接发送，文件内容不经过JVM堆
+            markSendfile(entry);
+            request.setAttribute("org.apache.tomcat.sendfile.filename", entry.file.getAbsolutePath());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+            return;
+        }
+        FileChannel channel = FileChannel.open(entry.file.toPath(), StandardOpenOption.READ);
+        try {
+            OutputStream outputStream = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long n = channel.transferTo(position, remaining, target);
+                if (n <= 0) {
+                    break;// 文件被截断
+                }
+                position += n;
+                remaining -= n;
+            }
+            outputStream.flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long parseLong(String value) {
+        // 超出long范围的数字按最大值处理
+        return value.length() > 18 ? Long.MAX_VALUE : Long.parseLong(value);
+    }
+
+    private static String contentType(String suffix) {
+        switch (suffix.toLowerCase()) {
+            case ".csv":
+                return "text/csv";
+            case ".xls":
+                return "application/vnd.ms-excel";
+            case ".xlsx":
+                return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+            case ".zip":
+                return "application/zip";
+            case ".gz":
+                return "application/gzip";
+            default:
+                return "application/octet-stream";
+        }
+    }
+
+    private static void delete(File file) {
+        if (file.exists() && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package cn.tjd.file;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 导出文件的压缩方式，用于在响应前端时对文本类文件（如CSV）进行实时压缩，减少传输的数据量。<br/>
+ * GZIP_ENCODING：客户端支持gzip时设置Content-Encoding: gzip，由浏览器自动解压，文件名不变；不支持时不压缩<br/>
+ * GZIP_FILE：导出为.gz压缩文件<br/>
+ * ZIP：导出为包含该文件的.zip压缩包<br/>
+ * 该类是不可变的，可以在多个导出之间共享
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public final class ExportCompression {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;// 默认压缩缓冲区大小
+
+    public enum Mode {
+        NONE, GZIP_ENCODING, GZIP_FILE, ZIP
+    }
+
+    public static final ExportCompression NONE = new ExportCompression(Mode.NONE, Deflater.DEFAULT_COMPRESSION, DEFAULT_BUFFER_SIZE);
+
+    private final Mode mode;
+    private final int level;
+    private final int bufferSize;
+
+    private ExportCompression(Mode mode, int level, int bufferSize) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("压缩级别的取值范围为0~9");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize必须大于0");
+        }
+        this.mode = mode;
+        this.level = level;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * 客户端支持时使用Content-Encoding: gzip传输
+     */
+    public static ExportCompression gzipEncoding() {
+        return new ExportCompression(Mode.GZIP_ENCODING, Deflater.DEFAULT_COMPRESSION, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 导出为.gz压缩文件
+     */
+    public static ExportCompression gzipFile() {
+        return new ExportCompression(Mode.GZIP_FILE, Deflater.DEFAULT_COMPRESSION, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 导出为.zip压缩包
+     */
+    public static ExportCompression zip() {
+        return new ExportCompression(Mode.ZIP, Deflater.DEFAULT_COMPRESSION, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param level 压缩级别，0~9，级别越高压缩率越高、CPU消耗越大
+     * @return 新的压缩配置
+     */
+    public ExportCompression withLevel(int level) {
+        return new ExportCompression(mode, level, bufferSize);
+    }
+
+    /**
+     * @param bufferSize 压缩缓冲区大小（字节）
+     * @return 新的压缩配置
+     */
+    public ExportCompression withBufferSize(int bufferSize) {
+        return new ExportCompression(mode, level, bufferSize);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * 根据压缩方式设置响应头，并返回包装后的输出流。关闭返回的输出流时会写出压缩数据的结尾并关闭响应输出流
+     *
+     * @param request     请求对象，用于判断客户端是否支持gzip
+     * @param response    响应对象
+     * @param filename    文件名称（不含后缀）
+     * @param suffix      文件后缀，如.csv
+     * @param contentType 未压缩文件的Content-Type
+     * @return
+     * @throws IOException
+     */
+    public OutputStream open(HttpServletRequest request, HttpServletResponse response, String filename,
+                             String suffix, String contentType) throws IOException {
+        if (mode == Mode.GZIP_ENCODING) {
+            // 是否压缩取决于Accept-Encoding，未压缩的响应同样需要Vary，避免共享缓存将其返回给支持gzip的客户端（反之亦然）
+            response.addHeader("Vary", "Accept-Encoding");
+        }
+        Mode actual = mode == Mode.GZIP_ENCODING && !acceptsGzip(request) ? Mode.NONE : mode;
+        switch (actual) {
+            case GZIP_ENCODING:
+                response.setContentType(contentType);
+                response.setHeader("Content-Encoding", "gzip");
+                setDisposition(response, filename + suffix);
+                return gzip(response.getOutputStream());
+            case GZIP_FILE:
+                response.setContentType("application/gzip");
+                setDisposition(response, filename + suffix + ".gz");
+                return gzip(response.getOutputStream());
+            case ZIP:
+                response.setContentType("application/zip");
+                setDisposition(response, filename + ".zip");
+                return zip(response.getOutputStream(), filename + suffix);
+            default:
+                response.setContentType(contentType);
+                setDisposition(response, filename + suffix);
+                return response.getOutputStream();
+        }
+    }
+
+    /**
+     * 包装任意输出流（如本地文件），GZIP_ENCODING与GZIP_FILE均输出gzip格式
+     *
+     * @param outputStream 输出流
+     * @param entryName    ZIP模式下压缩包中的文件名
+     * @return
+     * @throws IOException
+     */
+    public OutputStream wrap(OutputStream outputStream, String entryName) throws IOException {
+        switch (mode) {
+            case GZIP_ENCODING:
+            case GZIP_FILE:
+                return gzip(outputStream);
+            case ZIP:
+                return zip(outputStream, entryName);
+            default:
+                return outputStream;
+        }
+    }
+
+    private OutputStream gzip(OutputStream outputStream) throws IOException {
+        // syncFlush为true时，导出过程中的flush会立即把已压缩的数据推送给客户端
+        return new GZIPOutputStream(outputStream, bufferSize, true) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+
+    private OutputStream zip(OutputStream outputStream, String entryName) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(outputStream, bufferSize));
+        zip.setLevel(level);
+        zip.putNextEntry(new ZipEntry(entryName));
+        return zip;
+    }
+
+    private static void setDisposition(HttpServletResponse response, String filename) throws IOException {
+        response.setHeader("Content-Disposition", "attachment;fileName=" + URLEncoder.encode(filename, "UTF-8"));
+    }
+
+    /**
+     * 判断客户端是否接受gzip编码（RFC 7231）：Accept-Encoding中明确列出的gzip（或x-gzip）优先于通配符*，
+     * q值为0表示不接受，如"gzip;q=0, *"不接受gzip，"*;q=0.5"接受gzip
+     */
+    static boolean acceptsGzip(HttpServletRequest request) {
+        if (request == null) {
+            return false;
+        }
+        String accept = request.getHeader("Accept-Encoding");
+        if (accept == null) {
+            return false;
+        }
+        double gzip = -1;
+        double wildcard = -1;
+        for (String token : accept.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim();
+            if ("gzip".equalsIgnoreCase(coding) || "x-gzip".equalsIgnoreCase(coding)) {
+                gzip = Math.max(gzip, quality(parts));
+            } else if ("*".equals(coding)) {
+                wildcard = Math.max(wildcard, quality(parts));
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : wildcard > 0;
+    }
+
+    /**
+     * 解析q值，未指定时为1，格式错误时视为0
+     */
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String[] param = parts[i].split("=", 2);
+            if (param.length == 2 && "q".equalsIgnoreCase(param[0].trim())) {
+                try {
+                    double q = Double.parseDouble(param[1].trim());
+                    return q > 0 && q <= 1 ? q : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,123 @@
+package cn.tjd.file;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 后台导出任务，记录任务的状态与进度（已写出的行数、字节数以及预计剩余时间）
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class ExportJob {
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+
+    private final String id;
+    private final String filename;
+    private final long expectedRows;
+    private final File file;
+    private final long createTime = System.currentTimeMillis();
+    final AtomicLong rowsWritten = new AtomicLong();
+    final AtomicLong bytesWritten = new AtomicLong();
+    private volatile Status status = Status.PENDING;
+    private volatile long startTime;
+    private volatile long finishTime;
+    private volatile String error;
+
+    ExportJob(String id, String filename, long expectedRows, File file) {
+        this.id = id;
+        this.filename = filename;
+        this.expectedRows = expectedRows;
+        this.file = file;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return 下载时使用的文件名（含后缀）
+     */
+    public String getFilename() {
+        return filename;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return 预计的总行数，未知时为-1
+     */
+    public long getExpectedRows() {
+        return expectedRows;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    public long getCreateTime() {
+        return createTime;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getFinishTime() {
+        return finishTime;
+    }
+
+    /**
+     * @return 失败原因，任务未失败时为null
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * 根据已写出的行数与耗时估算剩余时间
+     *
+     * @return 预计剩余的毫秒数，任务已结束时为0，无法估算时为-1
+     */
+    public long getEta() {
+        if (status == Status.DONE || status == Status.FAILED) {
+            return 0;
+        }
+        long rows = rowsWritten.get();
+        if (status != Status.RUNNING || expectedRows <= 0 || rows <= 0) {
+            return -1;
+        }
+        long elapsed = System.currentTimeMillis() - startTime;
+        return Math.max(0, (long) ((double) elapsed / rows * (expectedRows - rows)));
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    void started() {
+        startTime = System.currentTimeMillis();
+        status = Status.RUNNING;
+    }
+
+    void finished() {
+        finishTime = System.currentTimeMillis();
+        status = Status.DONE;
+    }
+
+    void failed(Throwable e) {
+        finishTime = System.currentTimeMillis();
+        error = e.toString();
+        status = Status.FAILED;
+    }
+}
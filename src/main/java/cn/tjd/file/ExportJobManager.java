@@ -0,0 +1,347 @@
+package cn.tjd.file;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 后台导出任务管理器。提交导出请求后立即返回任务id，文件在后台线程池中生成到指定的临时目录，
+ * 客户端通过任务id轮询进度（行数、字节数、预计剩余时间），完成后再下载，大文件导出不再需要长时间占用HTTP连接。<br/>
+ * 已结束的任务在超过保留时间（TTL）后由后台清理线程删除，同时删除生成的文件。
+ * 每个任务的文件名使用UUID生成，不会出现同名文件互相覆盖的问题。
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class ExportJobManager {
+
+    public static final long DEFAULT_TTL = TimeUnit.HOURS.toMillis(1);// 默认保留1小时
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 导出任务的写出逻辑
+     */
+    public interface JobWriter {
+        void write(OutputStream outputStream) throws Exception;
+    }
+
+    private final File tempDir;
+    private final long ttl;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService cleaner;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * @param tempDir       文件生成的临时目录，不存在时自动创建
+     * @param concurrency   同时执行的导出任务数
+     * @param queueCapacity 等待队列长度，超出时提交任务会抛出RejectedExecutionException
+     * @param ttl           已结束任务的保留时间（毫秒）
+     */
+    public ExportJobManager(File tempDir, int concurrency, int queueCapacity, long ttl) {
+        if (!tempDir.exists() && !tempDir.mkdirs()) {
+            throw new IllegalArgumentException("无法创建临时目录：" + tempDir);
+        }
+        this.tempDir = tempDir;
+        this.ttl = ttl;
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), daemonFactory("export-job-"));
+        this.executor.allowCoreThreadTimeOut(true);
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(daemonFactory("export-job-cleaner-"));
+        long period = Math.max(1000, Math.min(ttl, TimeUnit.MINUTES.toMillis(1)));
+        this.cleaner.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                cleanExpired();
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 提交CSV导出任务，数据行可以是Map也可以是JavaBean
+     *
+     * @param headMap      表头名称
+     * @param dataIter     数据迭代器，会在后台线程中被访问
+     * @param expectedRows 预计的总行数，用于估算剩余时间，未知时传-1
+     * @param filename     下载时的文件名称（不含后缀）
+     * @param encoding     文件的编码格式
+     * @return 导出任务
+     */
+    public ExportJob submitCSV(final LinkedHashMap<String, String> headMap, final Iterator<?> dataIter, long expectedRows,
+                               String filename, final String encoding) {
+        final ExportJob job = createJob(filename + ".csv", expectedRows);
+        submit(job, new JobWriter() {
+            @Override
+            public void write(OutputStream outputStream) throws Exception {
+                CSVUtils.generateCsvFromIterator(headMap, new CountingIterator<>(dataIter, job.rowsWritten), encoding, outputStream);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * 提交Excel导出任务，数据行可以是Map也可以是JavaBean
+     *
+     * @param excelType 导出的文件类型
+     * @param headMap   表头名称
+     * @param dataList  数据集合
+     * @param filename  下载时的文件名称（不含后缀）
+     * @param sheetName 工作簿名称
+     * @return 导出任务
+     */
+    public ExportJob submitExcel(final ExcelUtils.ExcelType excelType, final LinkedHashMap<String, String> headMap,
+                                 final List<?> dataList, String filename, final String sheetName) {
+        final ExportJob job = createJob(filename + excelType.getSuffix(), dataList.size());
+        submit(job, new JobWriter() {
+            @Override
+            public void write(OutputStream outputStream) throws Exception {
+                ExcelUtils.createWorkBookByObject(excelType, headMap, new CountingList<>(dataList, job.rowsWritten),
+                        sheetName, outputStream, CellFormatters.DEFAULT);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * 提交自定义的导出任务，写出的字节数会被自动统计，行数需要写出逻辑自行统计
+     *
+     * @param filename     下载时的文件名称（含后缀）
+     * @param expectedRows 预计的总行数，未知时传-1
+     * @param writer       写出逻辑
+     * @return 导出任务
+     */
+    public ExportJob submit(String filename, long expectedRows, JobWriter writer) {
+        ExportJob job = createJob(filename, expectedRows);
+        submit(job, writer);
+        return job;
+    }
+
+    /**
+     * @param id 任务id
+     * @return 任务不存在（或已被清理）时返回null
+     */
+    public ExportJob getJob(String id) {
+        return id == null ? null : jobs.get(id);
+    }
+
+    /**
+     * 下载已完成任务生成的文件。任务不存在时响应404，任务未完成时响应409
+     *
+     * @param id       任务id
+     * @param response 响应对象
+     * @throws IOException
+     */
+    public void download(String id, HttpServletResponse response) throws IOException {
+        ExportJob job = getJob(id);
+        if (job == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "导出任务不存在或已过期");
+            return;
+        }
+        if (job.getStatus() != ExportJob.Status.DONE) {
+            response.sendError(HttpServletResponse.SC_CONFLICT, "导出任务尚未完成：" + job.getStatus());
+            return;
+        }
+        File file = job.getFile();
+        response.setHeader("Content-Disposition", "attachment;fileName=" + URLEncoder.encode(job.getFilename(), "UTF-8"));
+        response.setHeader("Content-Length", String.valueOf(file.length()));
+        OutputStream outputStream = response.getOutputStream();
+        Files.copy(file.toPath(), outputStream);
+        outputStream.flush();
+    }
+
+    /**
+     * 删除任务及其生成的文件，正在执行的任务无法删除
+     *
+     * @param id 任务id
+     * @return 是否删除成功
+     */
+    public boolean remove(String id) {
+        ExportJob job = getJob(id);
+        if (job == null || job.getStatus() == ExportJob.Status.RUNNING || job.getStatus() == ExportJob.Status.PENDING) {
+            return false;
+        }
+        jobs.remove(id);
+        deleteFile(job);
+        return true;
+    }
+
+    /**
+     * 关闭管理器，已提交的任务会继续执行，清理线程立即停止
+     */
+    public void shutdown() {
+        executor.shutdown();
+        cleaner.shutdownNow();
+    }
+
+    void cleanExpired() {
+        long now = System.currentTimeMillis();
+        for (ExportJob job : jobs.values()) {
+            ExportJob.Status status = job.getStatus();
+            if ((status == ExportJob.Status.DONE || status == ExportJob.Status.FAILED) && now - job.getFinishTime() > ttl) {
+                jobs.remove(job.getId());
+                deleteFile(job);
+            }
+        }
+    }
+
+    private ExportJob createJob(String filename, long expectedRows) {
+        String id = UUID.randomUUID().toString().replace("-", "");
+        String suffix = filename.lastIndexOf('.') >= 0 ? filename.substring(filename.lastIndexOf('.')) : "";
+        return new ExportJob(id, filename, expectedRows, new File(tempDir, id + suffix));
+    }
+
+    private void submit(final ExportJob job, final JobWriter writer) {
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    job.started();
+                    OutputStream outputStream = null;
+                    try {
+                        outputStream = new CountingOutputStream(new BufferedOutputStream(
+                                new FileOutputStream(job.getFile()), BUFFER_SIZE), job.bytesWritten);
+                        writer.write(outputStream);
+                        outputStream.close();
+                        job.finished();
+                    } catch (Throwable e) {
+                        closeQuietly(outputStream);
+                        deleteFile(job);
+                        job.failed(e);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+    }
+
+    private static void deleteFile(ExportJob job) {
+        File file = job.getFile();
+        if (file.exists() && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    private static void closeQuietly(OutputStream outputStream) {
+        if (outputStream != null) {
+            try {
+                outputStream.close();
+            } catch (IOException ignored) {
+                // 忽略
+            }
+        }
+    }
+
+    private static ThreadFactory daemonFactory(final String prefix) {
+        return new ThreadFactory() {
+            private final AtomicInteger sequence = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, prefix + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * 统计写出字节数的输出流
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private final AtomicLong counter;
+
+        CountingOutputStream(OutputStream out, AtomicLong counter) {
+            super(out);
+            this.counter = counter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            counter.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            counter.addAndGet(len);
+        }
+    }
+
+    /**
+     * 统计已消费行数的迭代器
+     */
+    private static class CountingIterator<T> implements Iterator<T> {
+        private final Iterator<T> delegate;
+        private final AtomicLong counter;
+
+        CountingIterator(Iterator<T> delegate, AtomicLong counter) {
+            this.delegate = delegate;
+            this.counter = counter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public T next() {
+            T next = delegate.next();
+            counter.incrementAndGet();
+            return next;
+        }
+    }
+
+    /**
+     * 统计已遍历行数的List视图
+     */
+    private static class CountingList<T> extends AbstractList<T> {
+        private final List<T> delegate;
+        private final AtomicLong counter;
+
+        CountingList(List<T> delegate, AtomicLong counter) {
+            this.delegate = delegate;
+            this.counter = counter;
+        }
+
+        @Override
+        public T get(int index) {
+            return delegate.get(index);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new CountingIterator<>(delegate.iterator(), counter);
+        }
+    }
+}
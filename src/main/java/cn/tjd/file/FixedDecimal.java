@@ -0,0 +1,102 @@
+package cn.tjd.file;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 定点小数格式化工具，结果与new BigDecimal(value.toString()).setScale(scale, RoundingMode.HALF_UP)一致，
+ * 但绝大多数情况下只需要一次浮点乘法与取整，不需要创建BigDecimal与中间字符串。<br/>
+ * 只有当数值过大，或者恰好落在舍入边界附近（浮点误差可能影响舍入结果）时，才退回到BigDecimal计算
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+final class FixedDecimal {
+
+    // 无法通过快速路径计算时的返回值
+    static final long NOT_EXACT = Long.MIN_VALUE;
+
+    private static final long[] POWERS = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+            100000000L, 1000000000L};
+    private static final double MAX_SCALED = 1e15;
+
+    private FixedDecimal() {
+    }
+
+    /**
+     * 计算double值按scale位小数四舍五入后的整数表示（即unscaledValue）
+     *
+     * @return 无法通过快速路径计算时返回NOT_EXACT
+     */
+    static long unscaled(double value, int scale) {
+        return unscaled(value, Math.ulp(value), scale);
+    }
+
+    /**
+     * 计算float值按scale位小数四舍五入后的整数表示，按照Float.toString()的精度舍入
+     *
+     * @return 无法通过快速路径计算时返回NOT_EXACT
+     */
+    static long unscaled(float value, int scale) {
+        return unscaled((double) value, (double) Math.ulp(value), scale);
+    }
+
+    private static long unscaled(double value, double ulp, int scale) {
+        if (scale < 0 || scale >= POWERS.length || Double.isNaN(value) || Double.isInfinite(value)) {
+            return NOT_EXACT;
+        }
+        double factor = POWERS[scale];
+        double scaled = Math.abs(value) * factor;
+        if (scaled >= MAX_SCALED) {
+            return NOT_EXACT;
+        }
+        double floor = Math.floor(scaled);
+        double tolerance = 2 * (ulp * factor + Math.ulp(scaled));
+        if (Math.abs(scaled - floor - 0.5) <= tolerance) {
+            return NOT_EXACT;
+        }
+        long result = (long) Math.floor(scaled + 0.5);
+        return value < 0 ? -result : result;
+    }
+
+    /**
+     * 将unscaled值按scale位小数追加到StringBuilder中
+     */
+    static StringBuilder append(StringBuilder sb, long unscaled, int scale) {
+        if (unscaled < 0) {
+            sb.append('-');
+            unscaled = -unscaled;
+        }
+        long power = POWERS[scale];
+        sb.append(unscaled / power);
+        if (scale > 0) {
+            sb.append('.');
+            long fraction = unscaled % power;
+            for (long p = power / 10; p > 0; p /= 10) {
+                sb.append((char) ('0' + fraction / p % 10));
+            }
+        }
+        return sb;
+    }
+
+    /**
+     * 格式化Float或Double
+     */
+    static String format(Number number, int scale) {
+        long unscaled = number instanceof Float ? unscaled(number.floatValue(), scale)
+                : unscaled(number.doubleValue(), scale);
+        if (unscaled != NOT_EXACT) {
+            return append(new StringBuilder(24), unscaled, scale).toString();
+        }
+        return slowFormat(number, scale);
+    }
+
+    static String slowFormat(Number number, int scale) {
+        double value = number.doubleValue();
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return number.toString();
+        }
+        return new BigDecimal(number.toString()).setScale(scale, RoundingMode.HALF_UP).toString();
+    }
+}
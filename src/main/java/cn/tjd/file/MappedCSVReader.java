@@ -0,0 +1,411 @@
+package cn.tjd.file;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.CharArrayReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于内存映射文件的并行CSV读取工具，适用于大文件导入。<br/>
+ * 文件通过FileChannel映射到内存后，按照记录边界（按CSV的词法规则识别引号，引号内的换行不是边界）切分为多个分块，各分块在ForkJoinPool中并行解析，
+ * 数据行既可以按照文件中的顺序交给调用方，也可以不保证顺序、由各解析线程直接回调（此时回调需要是线程安全的）。<br/>
+ * 注意：只支持UTF-8、GBK等兼容ASCII的编码格式，第一行作为表头，格式与CSVUtils.readAll一致
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public final class MappedCSVReader {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;// 默认分块大小
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+    private static final byte QUOTE = '"';
+    private static final byte COMMA = ',';
+
+    // 查找记录边界时使用的词法状态，与commons-csv的解析规则一致：只有字段开头的引号才开始一个引号字段，
+    // 未被引号包围的字段中的引号按普通字符处理
+    private static final int FIELD_START = 0;// 字段开头
+    private static final int UNQUOTED = 1;// 未被引号包围的字段中
+    private static final int QUOTED = 2;// 引号包围的字段中
+    private static final int QUOTE_END = 3;// 引号包围的字段中遇到引号，可能是字段的结束，也可能是转义的引号
+    private static final int STATES = 4;
+    private static final CSVFormat FORMAT = CSVFormat.EXCEL;
+
+    private MappedCSVReader() {
+    }
+
+    /**
+     * 并行读取CSV文件的全部数据行，结果按照文件中的顺序排列
+     *
+     * @param file     CSV文件
+     * @param encoding 文件的编码格式
+     * @return
+     * @throws IOException
+     */
+    public static List<Map<String, String>> readAll(File file, String encoding) throws IOException {
+        return readAll(file, encoding, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 使用指定的ForkJoinPool并行读取CSV文件的全部数据行，结果按照文件中的顺序排列
+     *
+     * @param file     CSV文件
+     * @param encoding 文件的编码格式
+     * @param pool     解析使用的线程池
+     * @return
+     * @throws IOException
+     */
+    public static List<Map<String, String>> readAll(File file, String encoding, ForkJoinPool pool) throws IOException {
+        final List<Map<String, String>> result = new ArrayList<>();
+        read(file, encoding, true, pool, DEFAULT_CHUNK_SIZE, new RowHandler<RowView>() {
+            @Override
+            public void handle(RowView row) {
+                result.add(row.toMap());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 并行读取CSV文件的全部数据行，结果按照文件中的顺序排列，单元格经过去重器去重（在调用线程中进行），
+     * 返回的每个Map为共享表头索引的紧凑只读Map
+     *
+     * @param file         CSV文件
+     * @param encoding     文件的编码格式
+     * @param deduplicator 字符串去重器，每次导入使用一个新的实例
+     * @return
+     * @throws IOException
+     */
+    public static List<Map<String, String>> readAll(File file, String encoding, final StringDeduplicator deduplicator)
+            throws IOException {
+        final List<Map<String, String>> result = new ArrayList<>();
+        read(file, encoding, true, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, new RowHandler<RowView>() {
+            @Override
+            public void handle(RowView row) {
+                result.add(deduplicator.toMap(row));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 并行读取CSV文件，每解析出一行回调一次handler
+     *
+     * @param file      CSV文件
+     * @param encoding  文件的编码格式
+     * @param ordered   true：在调用线程中按文件顺序回调，RowView会被复用；
+     *                  false：由各解析线程直接回调，不保证顺序，handler需要是线程安全的，行号为回调的序号
+     * @param pool      解析使用的线程池
+     * @param chunkSize 分块大小（字节），实际分块会延伸到下一个记录边界
+     * @param handler   数据行回调
+     * @throws IOException
+     */
+    public static void read(File file, String encoding, boolean ordered, ForkJoinPool pool, int chunkSize,
+                            RowHandler<? super RowView> handler) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize必须大于0");
+        }
+        Charset charset = Charset.forName(encoding);
+        checkCharset(charset);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long headerStart = skipBom(channel, charset);
+            long headerEnd = findHeaderEnd(channel, headerStart, size);
+            if (headerEnd <= headerStart) {
+                return;
+            }
+            Map<String, Integer> headerIndex = parseHeader(channel, headerStart, headerEnd, charset);
+            long[] bounds = splitChunks(channel, headerEnd, size, chunkSize, pool);
+            if (ordered) {
+                readOrdered(channel, bounds, charset, headerIndex, pool, handler);
+            } else {
+                readUnordered(channel, bounds, charset, headerIndex, pool, handler);
+            }
+        }
+    }
+
+    private static void readOrdered(final FileChannel channel, final long[] bounds, final Charset charset,
+                                    Map<String, Integer> headerIndex, ForkJoinPool pool,
+                                    RowHandler<? super RowView> handler) throws IOException {
+        // 限制同时解析的分块数量，避免解析速度快于消费速度时所有分块都堆积在内存中
+        int window = Math.max(2, pool.getParallelism() * 2);
+        Deque<ForkJoinTask<List<CSVRecord>>> pending = new ArrayDeque<>(window);
+        CSVRowView view = new CSVRowView(headerIndex);
+        long rowNumber = 0;
+        int next = 0;
+        int chunks = bounds.length - 1;
+        try {
+            while (next < chunks || !pending.isEmpty()) {
+                while (next < chunks && pending.size() < window) {
+                    final int chunk = next++;
+                    pending.addLast(pool.submit(new Callable<List<CSVRecord>>() {
+                        @Override
+                        public List<CSVRecord> call() throws IOException {
+                            return parseChunk(channel, bounds[chunk], bounds[chunk + 1], charset).getRecords();
+                        }
+                    }));
+                }
+                List<CSVRecord> records = join(pending.pollFirst());
+                for (CSVRecord record : records) {
+                    handler.handle(view.reset(record, ++rowNumber));
+                }
+            }
+        } finally {
+            for (ForkJoinTask<?> task : pending) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    private static void readUnordered(final FileChannel channel, final long[] bounds, final Charset charset,
+                                      final Map<String, Integer> headerIndex, ForkJoinPool pool,
+                                      final RowHandler<? super RowView> handler) throws IOException {
+        final AtomicLong rowNumber = new AtomicLong();
+        List<ForkJoinTask<Void>> tasks = new ArrayList<>(bounds.length - 1);
+        for (int i = 0; i < bounds.length - 1; i++) {
+            final int chunk = i;
+            tasks.add(pool.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    CSVRowView view = new CSVRowView(headerIndex);
+                    try (CSVParser parser = parseChunk(channel, bounds[chunk], bounds[chunk + 1], charset)) {
+                        for (CSVRecord record : parser) {
+                            handler.handle(view.reset(record, rowNumber.incrementAndGet()));
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+        try {
+            for (ForkJoinTask<Void> task : tasks) {
+                join(task);
+            }
+        } finally {
+            for (ForkJoinTask<Void> task : tasks) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    private static <T> T join(ForkJoinTask<T> task) throws IOException {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 将文件切分为若干分块，返回各分块的起始位置（最后一个元素为文件末尾）。<br/>
+     * 先按固定大小划分区间，并行扫描每个区间：分别假设区间起点处于每一种词法状态，得到区间终点的状态以及区间内第一个记录边界，
+     * 再从文件开头顺序串联各区间的状态，得到每个区间起点处真正的状态，从而确定真正的记录边界。
+     * 未被引号包围的字段中出现的引号不会影响后续分块的切分
+     */
+    private static long[] splitChunks(final FileChannel channel, long start, long end, int chunkSize,
+                                      ForkJoinPool pool) throws IOException {
+        if (end - start <= chunkSize) {
+            return start < end ? new long[]{start, end} : new long[]{start};
+        }
+        int count = (int) ((end - start + chunkSize - 1) / chunkSize);
+        List<ForkJoinTask<long[]>> scans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final long from = start + (long) i * chunkSize;
+            final long to = Math.min(end, from + chunkSize);
+            scans.add(pool.submit(new Callable<long[]>() {
+                @Override
+                public long[] call() throws IOException {
+                    return scanRange(channel, from, to);
+                }
+            }));
+        }
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(start);
+        int state = FIELD_START;
+        for (int i = 0; i < count; i++) {
+            long[] scan = join(scans.get(i));
+            if (i > 0) {
+                long boundary = scan[STATES + state];
+                if (boundary >= 0 && boundary + 1 > bounds.get(bounds.size() - 1)) {
+                    bounds.add(boundary + 1);
+                }
+            }
+            state = (int) scan[state];
+        }
+        if (bounds.get(bounds.size() - 1) < end) {
+            bounds.add(end);
+        }
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * 扫描区间，对每一种起始状态s，返回值的第s个元素为区间终点的状态，第STATES + s个元素为区间内第一个记录边界（换行符）的位置，
+     * 不存在时为-1。各起始状态同时推进，全部收敛为同一个状态后只需要推进一个状态
+     */
+    private static long[] scanRange(FileChannel channel, long from, long to) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        int[] states = {FIELD_START, UNQUOTED, QUOTED, QUOTE_END};
+        long[] result = new long[STATES * 2];
+        Arrays.fill(result, STATES, STATES * 2, -1);
+        int limit = buffer.limit();
+        int i = 0;
+        for (; i < limit && !converged(states); i++) {
+            byte b = buffer.get(i);
+            for (int s = 0; s < STATES; s++) {
+                if (b == LF && states[s] != QUOTED && result[STATES + s] < 0) {
+                    result[STATES + s] = from + i;
+                }
+                states[s] = next(states[s], b);
+            }
+        }
+        int state = states[0];
+        boolean pending = true;
+        for (; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (pending && b == LF && state != QUOTED) {
+                for (int s = 0; s < STATES; s++) {
+                    if (result[STATES + s] < 0) {
+                        result[STATES + s] = from + i;
+                    }
+                }
+                pending = false;
+            }
+            state = next(state, b);
+        }
+        for (int s = 0; s < STATES; s++) {
+            result[s] = converged(states) ? state : states[s];
+        }
+        return result;
+    }
+
+    private static boolean converged(int[] states) {
+        return states[0] == states[1] && states[0] == states[2] && states[0] == states[3];
+    }
+
+    /**
+     * 词法状态的转换，换行符在引号外时结束当前记录
+     */
+    private static int next(int state, byte b) {
+        switch (state) {
+            case QUOTED:
+                return b == QUOTE ? QUOTE_END : QUOTED;
+            case QUOTE_END:
+                if (b == QUOTE) {
+                    return QUOTED;
+                }
+                break;
+            case FIELD_START:
+                if (b == QUOTE) {
+                    return QUOTED;
+                }
+                break;
+            default:
+                break;
+        }
+        return b == COMMA || b == LF || b == CR ? FIELD_START : UNQUOTED;
+    }
+
+    private static long findHeaderEnd(FileChannel channel, long start, long size) throws IOException {
+        long position = start;
+        int state = FIELD_START;
+        while (position < size) {
+            long length = Math.min(DEFAULT_CHUNK_SIZE, size - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < length; i++) {
+                byte b = buffer.get(i);
+                if (b == LF && state != QUOTED) {
+                    return position + i + 1;
+                }
+                state = next(state, b);
+            }
+            position += length;
+        }
+        return size;
+    }
+
+    private static Map<String, Integer> parseHeader(FileChannel channel, long start, long end, Charset charset)
+            throws IOException {
+        try (CSVParser parser = parseChunk(channel, start, end, charset)) {
+            List<CSVRecord> records = parser.getRecords();
+            if (records.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            CSVRecord header = records.get(0);
+            Map<String, Integer> headerIndex = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i);
+                // 与CSVFormat.EXCEL.withHeader()一致：空白的列名允许重复，保留最后一列的下标
+                if (headerIndex.containsKey(name) && !name.trim().isEmpty()) {
+                    throw new IllegalArgumentException("表头存在重复的列：" + name);
+                }
+                headerIndex.put(name, i);
+            }
+            return headerIndex;
+        }
+    }
+
+    private static CSVParser parseChunk(FileChannel channel, long start, long end, Charset charset) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        CharBuffer chars = decode(buffer, charset);
+        return new CSVParser(new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining()),
+                FORMAT);
+    }
+
+    private static CharBuffer decode(ByteBuffer buffer, Charset charset) throws CharacterCodingException {
+        return charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(buffer);
+    }
+
+    private static long skipBom(FileChannel channel, Charset charset) throws IOException {
+        if (!"UTF-8".equals(charset.name()) || channel.size() < 3) {
+            return 0;
+        }
+        ByteBuffer bom = ByteBuffer.allocate(3);
+        channel.read(bom, 0);
+        byte[] bytes = bom.array();
+        return bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF ? 3 : 0;
+    }
+
+    private static void checkCharset(Charset charset) {
+        if (!Arrays.equals("\n\"".getBytes(charset), new byte[]{LF, QUOTE})) {
+            throw new IllegalArgumentException("不支持的编码格式：" + charset.name() + "，只支持兼容ASCII的编码格式");
+        }
+    }
+}
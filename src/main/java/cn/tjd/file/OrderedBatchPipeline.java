@@ -0,0 +1,95 @@
+package cn.tjd.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 有序的并行批处理管道：在调用线程中按批次读取数据源并提交到ForkJoinPool格式化，
+ * next()按提交顺序返回格式化结果。处于格式化中的批次数达到上限后才会等待最早的批次，
+ * 已取出的结果由调用线程（唯一的写出者）写出。该类不是线程安全的
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+final class OrderedBatchPipeline<R> {
+
+    /**
+     * 批次格式化器，会在线程池中并发调用
+     */
+    interface BatchFormatter<R> {
+        R format(List<Object> rows) throws Exception;
+    }
+
+    private final ParallelFormatting config;
+    private final Iterator<?> source;
+    private final BatchFormatter<R> formatter;
+    private final int maxPending;
+    private final ArrayDeque<ForkJoinTask<R>> pending;
+
+    OrderedBatchPipeline(ParallelFormatting config, Iterator<?> source, BatchFormatter<R> formatter) {
+        this.config = config;
+        this.source = source;
+        this.formatter = formatter;
+        this.maxPending = config.getMaxPendingBatches();
+        this.pending = new ArrayDeque<>(maxPending);
+    }
+
+    /**
+     * @return 下一个批次的格式化结果，数据源读取完毕后返回null
+     * @throws IOException 格式化该批次时抛出的IOException
+     */
+    R next() throws IOException {
+        while (pending.size() < maxPending && source != null && source.hasNext()) {
+            submit();
+        }
+        ForkJoinTask<R> task = pending.poll();
+        return task == null ? null : join(task);
+    }
+
+    /**
+     * 等待批次完成，ForkJoinTask.join()将格式化器抛出的受检异常包装为RuntimeException，IOException在这里还原
+     */
+    private static <T> T join(ForkJoinTask<T> task) throws IOException {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void submit() {
+        int batchSize = config.getBatchSize();
+        final List<Object> rows = new ArrayList<>(batchSize);
+        while (rows.size() < batchSize && source.hasNext()) {
+            rows.add(source.next());
+        }
+        pending.add(config.getPool().submit(new Callable<R>() {
+            @Override
+            public R call() throws Exception {
+                return formatter.format(rows);
+            }
+        }));
+    }
+
+    /**
+     * 取消尚未完成的批次，导出失败时调用
+     */
+    void cancel() {
+        for (ForkJoinTask<R> task : pending) {
+            task.cancel(false);
+        }
+        pending.clear();
+    }
+}
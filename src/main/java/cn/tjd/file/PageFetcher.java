@@ -0,0 +1,24 @@
+package cn.tjd.file;
+
+import java.util.List;
+
+/**
+ * 分页取数回调，用于导出时按页从数据源（如数据库）拉取数据，避免一次性将全部数据加载到内存中<br/>
+ * 导出工具每写完一页数据后才会拉取下一页，返回null、空集合或者不足pageSize条数据时视为最后一页
+ *
+ * @param <T> 数据行的类型，可以是Map也可以是JavaBean
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public interface PageFetcher<T> {
+
+    /**
+     * 拉取指定页的数据
+     *
+     * @param pageNo   页码，从1开始
+     * @param pageSize 每页条数
+     * @return 当前页数据
+     */
+    List<T> fetch(int pageNo, int pageSize);
+}
@@ -0,0 +1,62 @@
+package cn.tjd.file;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 将PageFetcher适配为Iterator，只有当前页被完全消费后才会拉取下一页，内存中最多只保留一页数据
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+class PagedIterator<T> implements Iterator<T> {
+
+    private final PageFetcher<T> fetcher;
+    private final int pageSize;
+    private int pageNo = 0;
+    private List<T> page;
+    private int index;
+    private boolean lastPage = false;
+
+    PagedIterator(PageFetcher<T> fetcher, int pageSize) {
+        if (fetcher == null) {
+            throw new IllegalArgumentException("fetcher不能为null");
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize必须大于0");
+        }
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (page != null && index < page.size()) {
+            return true;
+        }
+        // 释放上一页的引用，使其可以被回收
+        page = null;
+        if (lastPage) {
+            return false;
+        }
+        List<T> next = fetcher.fetch(++pageNo, pageSize);
+        if (next == null || next.isEmpty()) {
+            lastPage = true;
+            return false;
+        }
+        lastPage = next.size() < pageSize;
+        page = next;
+        index = 0;
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.get(index++);
+    }
+}
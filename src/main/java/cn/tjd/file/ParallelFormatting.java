@@ -0,0 +1,78 @@
+package cn.tjd.file;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 并行格式化配置。开启后，数据行按批次交给ForkJoinPool并行完成取值（反射）与格式化（日期、小数、转义、编码），
+ * 格式化结果按批次的提交顺序交给调用线程写出，输出结果与单线程导出完全一致。<br/>
+ * 数据源仍然只在调用线程中访问，同时处于格式化中的批次数有上限，超出后调用线程先写出最早的批次再继续读取，内存占用保持恒定。<br/>
+ * 注意：同一批次的数据行在其他线程中被读取，数据源不能复用同一个行对象；自定义的CellFormatter需要是线程安全的
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class ParallelFormatting {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;// 默认每批次的行数
+
+    private final ForkJoinPool pool;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int maxPendingBatches = 0;
+
+    /**
+     * 使用ForkJoinPool.commonPool()进行格式化
+     */
+    public ParallelFormatting() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool 用于格式化的线程池
+     */
+    public ParallelFormatting(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool不能为null");
+        }
+        this.pool = pool;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @param batchSize 每批次的行数
+     * @return 当前配置
+     */
+    public ParallelFormatting setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize必须大于0");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * @return 同时处于格式化中的最大批次数，未设置时为线程池并行度的2倍
+     */
+    public int getMaxPendingBatches() {
+        return maxPendingBatches > 0 ? maxPendingBatches : pool.getParallelism() * 2;
+    }
+
+    /**
+     * @param maxPendingBatches 同时处于格式化中的最大批次数，0表示线程池并行度的2倍
+     * @return 当前配置
+     */
+    public ParallelFormatting setMaxPendingBatches(int maxPendingBatches) {
+        if (maxPendingBatches < 0) {
+            throw new IllegalArgumentException("maxPendingBatches不能小于0");
+        }
+        this.maxPendingBatches = maxPendingBatches;
+        return this;
+    }
+}
@@ -0,0 +1,229 @@
+package cn.tjd.file;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+/**
+ * 根据ResultSetMetaData确定结果集各列的表头与读取方式，导出时按列序号直接读取当前行，
+ * 整数与浮点数通过getLong/getDouble读取，不产生包装对象。<br/>
+ * 文本格式与CellFormatters的默认规则一致：浮点数保留两位小数，TIMESTAMP按yyyy-MM-dd HH:mm:ss格式化，
+ * DATE按yyyy-MM-dd格式化，TIME按HH:mm:ss格式化，DECIMAL不使用科学计数法
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+final class ResultSetColumns {
+
+    static final int DEFAULT_FETCH_SIZE = 1000;// 结果集未设置fetchSize时使用的值
+
+    private static final int LONG = 0;
+    private static final int DOUBLE = 1;
+    private static final int DECIMAL = 2;
+    private static final int BOOLEAN = 3;
+    private static final int TIMESTAMP = 4;
+    private static final int DATE = 5;
+    private static final int TIME = 6;
+    private static final int TEXT = 7;
+
+    private final String[] keys;
+    private final String[] titles;
+    private final int[] kinds;
+
+    private ResultSetColumns(String[] keys, String[] titles, int[] kinds) {
+        this.keys = keys;
+        this.titles = titles;
+        this.kinds = kinds;
+    }
+
+    /**
+     * 读取结果集的元数据
+     *
+     * @param resultSet 结果集
+     * @param labels    表头名称，key为列的别名（getColumnLabel），未指定的列使用别名作为表头，可以为null
+     */
+    static ResultSetColumns of(ResultSet resultSet, Map<String, String> labels) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int count = metaData.getColumnCount();
+        String[] keys = new String[count];
+        String[] titles = new String[count];
+        int[] kinds = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = metaData.getColumnLabel(i + 1);
+            String title = labels == null ? null : labels.get(keys[i]);
+            titles[i] = title == null ? keys[i] : title;
+            kinds[i] = kind(metaData, i + 1);
+        }
+        if (resultSet.getFetchSize() <= 0) {
+            try {
+                resultSet.setFetchSize(DEFAULT_FETCH_SIZE);
+            } catch (SQLException ignored) {
+                // 驱动不支持时按驱动的默认值读取
+            }
+        }
+        return new ResultSetColumns(keys, titles, kinds);
+    }
+
+    private static int kind(ResultSetMetaData metaData, int column) throws SQLException {
+        switch (metaData.getColumnType(column)) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return LONG;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return DOUBLE;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                int precision = metaData.getPrecision(column);
+                return metaData.getScale(column) == 0 && precision > 0 && precision <= 18 ? LONG : DECIMAL;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return BOOLEAN;
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return TIMESTAMP;
+            case Types.DATE:
+                return DATE;
+            case Types.TIME:
+            case Types.TIME_WITH_TIMEZONE:
+                return TIME;
+            default:
+                return TEXT;
+        }
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * @return 列的别名
+     */
+    String[] getKeys() {
+        return keys;
+    }
+
+    /**
+     * @return 表头，重名的列各自保留
+     */
+    String[] getTitles() {
+        return titles;
+    }
+
+    /**
+     * 读取当前行第k列（从0开始）的值，每列只读取一次
+     *
+     * @param cellValue 不为null时，可以写为Excel原生单元格的值解析到cellValue中
+     * @return 值已解析到cellValue时返回null，否则返回单元格的文本，SQL NULL返回空字符串
+     */
+    String read(ResultSet resultSet, int k, ExcelCellValue cellValue) throws SQLException {
+        int column = k + 1;
+        switch (kinds[k]) {
+            case LONG: {
+                long value = resultSet.getLong(column);
+                if (resultSet.wasNull()) {
+                    return "";
+                }
+                return cellValue != null && cellValue.resolveLong(value) ? null : Long.toString(value);
+            }
+            case DOUBLE: {
+                double value = resultSet.getDouble(column);
+                if (resultSet.wasNull()) {
+                    return "";
+                }
+                return cellValue != null && cellValue.resolveDouble(value) ? null : CellFormatters.DEFAULT_DECIMAL.format(value);
+            }
+            case DECIMAL: {
+                BigDecimal value = resultSet.getBigDecimal(column);
+                if (value == null) {
+                    return "";
+                }
+                return cellValue != null && cellValue.resolve(value) ? null : value.toPlainString();
+            }
+            case BOOLEAN: {
+                boolean value = resultSet.getBoolean(column);
+                if (resultSet.wasNull()) {
+                    return "";
+                }
+                return cellValue != null && cellValue.resolve(Boolean.valueOf(value)) ? null : String.valueOf(value);
+            }
+            case TIMESTAMP: {
+                Timestamp value = resultSet.getTimestamp(column);
+                if (value == null) {
+                    return "";
+                }
+                return cellValue != null && cellValue.resolve(value) ? null : CellFormatters.DEFAULT_DATE.format(value);
+            }
+            case DATE: {
+                java.sql.Date value = resultSet.getDate(column);
+                if (value == null) {
+                    return "";
+                }
+                LocalDate date = value.toLocalDate();
+                return cellValue != null && cellValue.resolve(date) ? null : CellFormatters.DEFAULT_LOCAL_DATE.format(date);
+            }
+            case TIME: {
+                Time value = resultSet.getTime(column);
+                if (value == null) {
+                    return "";
+                }
+                LocalTime time = value.toLocalTime();
+                return cellValue != null && cellValue.resolve(time) ? null : CellFormatters.DEFAULT_LOCAL_TIME.format(time);
+            }
+            default: {
+                String value = resultSet.getString(column);
+                return value == null ? "" : value;
+            }
+        }
+    }
+
+    /**
+     * 将当前行第k列（从0开始）的值写入CSV，整数、浮点数与TIMESTAMP由写入引擎直接编码
+     */
+    void write(ResultSet resultSet, int k, CSVByteWriter writer) throws SQLException, IOException {
+        int column = k + 1;
+        switch (kinds[k]) {
+            case LONG: {
+                long value = resultSet.getLong(column);
+                if (resultSet.wasNull()) {
+                    writer.writeField("");
+                } else {
+                    writer.writeLong(value);
+                }
+                break;
+            }
+            case DOUBLE: {
+                double value = resultSet.getDouble(column);
+                if (resultSet.wasNull()) {
+                    writer.writeField("");
+                } else {
+                    writer.writeDouble(value);
+                }
+                break;
+            }
+            case TIMESTAMP: {
+                Timestamp value = resultSet.getTimestamp(column);
+                if (value == null) {
+                    writer.writeField("");
+                } else {
+                    writer.writeDate(value);
+                }
+                break;
+            }
+            default:
+                writer.writeField(read(resultSet, k, null));
+        }
+    }
+}
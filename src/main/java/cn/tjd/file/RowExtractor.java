@@ -0,0 +1,59 @@
+package cn.tjd.file;
+
+import java.util.Map;
+
+/**
+ * 按照表头key的顺序，从数据行（Map或者JavaBean）中提取各列的原始值。<br/>
+ * JavaBean的属性读取器按Class缓存，连续相同类型的数据行只需直接调用读取器。该类不是线程安全的，每次导出使用一个实例
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+final class RowExtractor {
+
+    private final String[] keys;
+    private Class<?> lastClass;
+    private BeanAccessor.Getter[] getters;
+
+    RowExtractor(String[] keys) {
+        this.keys = keys;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    String[] getKeys() {
+        return keys;
+    }
+
+    /**
+     * 提取数据行各列的值，写入out数组中
+     *
+     * @param row 数据行，可以是Map也可以是JavaBean
+     * @param out 长度不小于列数的数组
+     */
+    void extract(Object row, Object[] out) {
+        if (row == null) {
+            for (int i = 0; i < keys.length; i++) {
+                out[i] = null;
+            }
+        } else if (row instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) row;
+            for (int i = 0; i < keys.length; i++) {
+                out[i] = map.get(keys[i]);
+            }
+        } else {
+            Class<?> clazz = row.getClass();
+            if (clazz != lastClass) {
+                getters = BeanAccessor.of(clazz).getters(keys);
+                lastClass = clazz;
+            }
+            BeanAccessor.Getter[] g = getters;
+            for (int i = 0; i < g.length; i++) {
+                out[i] = g[i].get(row);
+            }
+        }
+    }
+}
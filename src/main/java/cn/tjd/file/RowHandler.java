@@ -0,0 +1,19 @@
+package cn.tjd.file;
+
+/**
+ * 流式导入时的数据行回调，每读取一行数据回调一次
+ *
+ * @param <R> 数据行的类型
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public interface RowHandler<R> {
+
+    /**
+     * 处理一行数据
+     *
+     * @param row 数据行
+     */
+    void handle(R row);
+}
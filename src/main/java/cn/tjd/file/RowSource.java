@@ -0,0 +1,23 @@
+package cn.tjd.file;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * 拉取式的数据源，导出工具每写完一行才会拉取下一行，数据提供方可以据此控制取数节奏（如数据库游标、分页查询），
+ * 不需要将全部数据加载到内存中。导出结束（包括异常结束）后导出工具会调用close()释放数据源。<br/>
+ * 常用的适配器见RowSources
+ *
+ * @param <T> 数据行的类型，可以是Map也可以是JavaBean
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public interface RowSource<T> extends Iterator<T>, Closeable {
+
+    /**
+     * 释放数据源，如关闭游标、Stream等
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,98 @@
+package cn.tjd.file;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * RowSource的常用适配器：List（Map或JavaBean）、Iterator、Stream以及分页取数回调
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public final class RowSources {
+
+    private RowSources() {
+    }
+
+    /**
+     * 将集合适配为数据源，集合元素可以是Map也可以是JavaBean
+     *
+     * @param dataList 数据集合，为null时视为空集合
+     * @return
+     */
+    public static <T> RowSource<T> of(List<T> dataList) {
+        return of(dataList == null ? Collections.<T>emptyIterator() : dataList.iterator());
+    }
+
+    /**
+     * 将迭代器适配为数据源
+     *
+     * @param dataIter 数据迭代器，为null时视为没有数据
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowSource<T> of(Iterator<T> dataIter) {
+        if (dataIter instanceof RowSource) {
+            return (RowSource<T>) dataIter;
+        }
+        return new IteratorSource<>(dataIter == null ? Collections.<T>emptyIterator() : dataIter, null);
+    }
+
+    /**
+     * 将Stream适配为数据源，Stream按需逐行消费，数据源关闭时同时关闭Stream
+     *
+     * @param dataStream 数据流
+     * @return
+     */
+    public static <T> RowSource<T> of(final Stream<T> dataStream) {
+        return new IteratorSource<>(dataStream.iterator(), dataStream);
+    }
+
+    /**
+     * 将分页取数回调适配为数据源，只有当前页的数据全部写出后才会拉取下一页，内存中最多只保留一页数据
+     *
+     * @param fetcher  分页取数回调
+     * @param pageSize 每页条数
+     * @return
+     */
+    public static <T> RowSource<T> paged(PageFetcher<T> fetcher, int pageSize) {
+        return new IteratorSource<>(new PagedIterator<>(fetcher, pageSize), null);
+    }
+
+    private static final class IteratorSource<T> implements RowSource<T> {
+
+        private final Iterator<T> iterator;
+        private final AutoCloseable resource;
+
+        IteratorSource(Iterator<T> iterator, AutoCloseable resource) {
+            this.iterator = iterator;
+            this.resource = resource;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            if (resource != null) {
+                try {
+                    resource.close();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+}
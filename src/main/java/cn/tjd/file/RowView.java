@@ -0,0 +1,93 @@
+package cn.tjd.file;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 基于表头索引的轻量级数据行视图，按列名或列下标读取单元格，不需要为每一行创建Map对象。<br/>
+ * 注意：通过RowHandler回调得到的RowView会被复用，仅在回调期间有效，如需保留请调用toMap()复制一份
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public abstract class RowView {
+
+    private final Map<String, Integer> headerIndex;
+
+    protected RowView(Map<String, Integer> headerIndex) {
+        this.headerIndex = headerIndex == null ? Collections.<String, Integer>emptyMap() : headerIndex;
+    }
+
+    /**
+     * @return 当前行的单元格数量
+     */
+    public abstract int size();
+
+    /**
+     * 按下标读取单元格，下标超出当前行的范围时返回空字符串
+     *
+     * @param index 列下标，从0开始
+     * @return
+     */
+    public abstract String get(int index);
+
+    /**
+     * @return 当前行在文件中的行号（数据行从1开始，不包含表头）
+     */
+    public abstract long getRowNumber();
+
+    /**
+     * 按列名读取单元格
+     *
+     * @param name 表头名称
+     * @return 表头中不存在该列时返回null，当前行缺少该列时返回空字符串
+     */
+    public String get(String name) {
+        Integer index = headerIndex.get(name);
+        return index == null ? null : get(index);
+    }
+
+    /**
+     * @return 表头名称与列下标的映射（只读）
+     */
+    public Map<String, Integer> getHeaderIndex() {
+        return Collections.unmodifiableMap(headerIndex);
+    }
+
+    /**
+     * @return 表头名称与列下标的映射，多行之间共享同一个实例
+     */
+    Map<String, Integer> headerIndex() {
+        return headerIndex;
+    }
+
+    /**
+     * 将当前行复制为一个新的Map，key为表头名称
+     *
+     * @return
+     */
+    public Map<String, String> toMap() {
+        if (headerIndex.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> result = new LinkedHashMap<>(headerIndex.size() * 4 / 3 + 1);//指定大小，避免扩容造性能损耗
+        for (Map.Entry<String, Integer> entry : headerIndex.entrySet()) {
+            result.put(entry.getKey(), get(entry.getValue()));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(get(i));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,311 @@
+package cn.tjd.file;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 导入时的字符串去重器，用于降低大批量数据读入内存后的堆占用。<br/>
+ * 解析器为每个单元格创建新的String，状态、地区、币种这类取值只有几百种的列在百万行的文件中会产生百万个内容相同的对象。
+ * 去重器为每一列维护一个有上限的字典，相同内容的单元格返回同一个String实例，重复的对象随即可以被回收：<br/>
+ * 1. 每列先采样sampleRows行，不同取值的数量不超过采样行数的一半时判定为低基数列，切换为字典编码，继续对后续数据去重<br/>
+ * 2. 字典中的取值超过maxDistinct时，判定为高基数列（如订单号、备注），释放字典，之后的单元格原样返回<br/>
+ * 3. toMap()将数据行复制为共享表头索引的紧凑只读Map，每行只保存一个String数组，而不是LinkedHashMap的一组Entry<br/>
+ * 读取完成后可以通过getSavedBytes()与getColumnReports()查看各列的去重情况与估算节省的内存。<br/>
+ * 注意：该类不是线程安全的，每次导入使用一个新的实例
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public final class StringDeduplicator {
+
+    public static final int DEFAULT_MAX_DISTINCT = 4096;// 默认每列字典的最大取值数量
+    public static final int DEFAULT_SAMPLE_ROWS = 10000;// 默认每列的采样行数
+
+    private static final int SAMPLING = 0;
+    private static final int DICTIONARY = 1;
+    private static final int PASSTHROUGH = 2;
+
+    private final int maxDistinct;
+    private final int sampleRows;
+    private final List<ColumnPool> columns = new ArrayList<>();
+    private Map<String, Integer> headerIndex;
+    private String[] names;
+
+    /**
+     * 每列的字典与统计信息
+     */
+    private static final class ColumnPool {
+        int state = SAMPLING;
+        Map<String, String> pool = new HashMap<>();
+        int distinct;
+        long cells;
+        long deduplicated;
+        long savedBytes;
+    }
+
+    public StringDeduplicator() {
+        this(DEFAULT_MAX_DISTINCT, DEFAULT_SAMPLE_ROWS);
+    }
+
+    /**
+     * @param maxDistinct 每列字典的最大取值数量，超出后该列不再去重
+     * @param sampleRows  判断是否为低基数列的采样行数
+     */
+    public StringDeduplicator(int maxDistinct, int sampleRows) {
+        if (maxDistinct <= 0 || sampleRows <= 0) {
+            throw new IllegalArgumentException("maxDistinct与sampleRows必须大于0");
+        }
+        this.maxDistinct = maxDistinct;
+        this.sampleRows = sampleRows;
+    }
+
+    /**
+     * 对单元格去重
+     *
+     * @param column 列下标
+     * @param value  单元格文本
+     * @return 内容相同的单元格第一次出现时的实例，该列不去重时原样返回
+     */
+    public String dedup(int column, String value) {
+        while (columns.size() <= column) {
+            columns.add(new ColumnPool());
+        }
+        ColumnPool c = columns.get(column);
+        c.cells++;
+        if (value == null || c.state == PASSTHROUGH) {
+            return value;
+        }
+        String canonical = c.pool.get(value);
+        if (canonical != null) {
+            if (canonical != value) {
+                c.deduplicated++;
+                c.savedBytes += sizeOf(canonical);
+            }
+        } else if (c.pool.size() >= maxDistinct) {
+            // 高基数列，释放字典
+            c.state = PASSTHROUGH;
+            c.distinct = c.pool.size();
+            c.pool = null;
+            return value;
+        } else {
+            c.pool.put(value, value);
+            canonical = value;
+        }
+        if (c.state == SAMPLING && c.cells >= sampleRows) {
+            if (c.pool.size() * 2 <= c.cells) {
+                c.state = DICTIONARY;
+            } else {
+                c.state = PASSTHROUGH;
+                c.distinct = c.pool.size();
+                c.pool = null;
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * 将数据行复制为紧凑的只读Map，key为表头名称，单元格经过去重
+     *
+     * @param row 数据行
+     * @return
+     */
+    public Map<String, String> toMap(RowView row) {
+        Map<String, Integer> index = row.headerIndex();
+        if (index.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        if (index != headerIndex) {
+            headerIndex = index;
+            // 表头名称为空或重复时索引不连续（如a,,,b中b的下标为3），数组长度取最大下标+1
+            int width = 0;
+            for (Integer k : index.values()) {
+                width = Math.max(width, k + 1);
+            }
+            names = new String[width];
+            for (Map.Entry<String, Integer> entry : index.entrySet()) {
+                names[entry.getValue()] = entry.getKey();
+            }
+        }
+        String[] values = new String[names.length];
+        for (Integer k : index.values()) {
+            values[k] = dedup(k, row.get(k));
+        }
+        return new CompactRowMap(index, values);
+    }
+
+    /**
+     * @return 估算去重节省的内存（字节）
+     */
+    public long getSavedBytes() {
+        long saved = 0;
+        for (ColumnPool c : columns) {
+            saved += c.savedBytes;
+        }
+        return saved;
+    }
+
+    /**
+     * @return 各列的去重情况
+     */
+    public List<ColumnReport> getColumnReports() {
+        List<ColumnReport> reports = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnPool c = columns.get(i);
+            String name = names != null && i < names.length && names[i] != null ? names[i] : "#" + i;
+            reports.add(new ColumnReport(name, c.state != PASSTHROUGH, c.pool != null ? c.pool.size() : c.distinct,
+                    c.cells, c.deduplicated, c.savedBytes));
+        }
+        return reports;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("StringDeduplicator{savedBytes=").append(getSavedBytes());
+        for (ColumnReport report : getColumnReports()) {
+            sb.append(", ").append(report);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * 估算String占用的堆内存：对象头与字段24字节，加上byte数组（16字节的数组头，Latin1字符1字节、其他字符2字节，按8字节对齐）
+     */
+    private static long sizeOf(String value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytes = length * 2;
+                break;
+            }
+        }
+        return 24 + ((16 + bytes + 7) & ~7);
+    }
+
+    /**
+     * 列的去重情况
+     */
+    public static final class ColumnReport {
+        private final String name;
+        private final boolean dictionary;
+        private final int distinct;
+        private final long cells;
+        private final long deduplicated;
+        private final long savedBytes;
+
+        ColumnReport(String name, boolean dictionary, int distinct, long cells, long deduplicated, long savedBytes) {
+            this.name = name;
+            this.dictionary = dictionary;
+            this.distinct = distinct;
+            this.cells = cells;
+            this.deduplicated = deduplicated;
+            this.savedBytes = savedBytes;
+        }
+
+        /**
+         * @return 表头名称，不经过toMap()读取时为"#列下标"
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return 是否为字典编码（低基数）的列，采样尚未完成的列也返回true
+         */
+        public boolean isDictionary() {
+            return dictionary;
+        }
+
+        /**
+         * @return 字典中的取值数量，不去重的列为释放字典时的取值数量
+         */
+        public int getDistinct() {
+            return distinct;
+        }
+
+        public long getCells() {
+            return cells;
+        }
+
+        /**
+         * @return 被替换为已有实例的单元格数量
+         */
+        public long getDeduplicated() {
+            return deduplicated;
+        }
+
+        public long getSavedBytes() {
+            return savedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return name + (dictionary ? "[dictionary" : "[plain") + ", distinct=" + distinct + ", cells=" + cells
+                    + ", deduplicated=" + deduplicated + ", savedBytes=" + savedBytes + "]";
+        }
+    }
+
+    /**
+     * 共享表头索引、只保存单元格数组的只读Map，迭代顺序与表头一致
+     */
+    private static final class CompactRowMap extends AbstractMap<String, String> {
+        private final Map<String, Integer> headerIndex;
+        private final String[] values;
+
+        CompactRowMap(Map<String, Integer> headerIndex, String[] values) {
+            this.headerIndex = headerIndex;
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return headerIndex.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return headerIndex.containsKey(key);
+        }
+
+        @Override
+        public String get(Object key) {
+            Integer index = headerIndex.get(key);
+            return index == null ? null : values[index];
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<Entry<String, String>>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    final Iterator<Entry<String, Integer>> iterator = headerIndex.entrySet().iterator();
+                    return new Iterator<Entry<String, String>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            Entry<String, Integer> entry = iterator.next();
+                            return new SimpleImmutableEntry<>(entry.getKey(), values[entry.getValue()]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return headerIndex.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package cn.tjd.file;
+
+/**
+ * 字符串到指定类型的转换器，导入数据时用于将单元格文本转换为JavaBean属性的类型。实现类需要是线程安全的
+ *
+ * @param <T> 目标类型
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public interface ValueConverter<T> {
+
+    /**
+     * 将单元格文本转换为目标类型
+     *
+     * @param text 单元格文本，不为null也不为空字符串
+     * @return
+     */
+    T convert(String text);
+}
@@ -0,0 +1,222 @@
+package cn.tjd.file;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 类型转换器注册表，内置了基本类型及其包装类型、BigDecimal、BigInteger、Date以及java.time常用类型的转换器，
+ * 也可以通过register方法注册自定义类型的转换器，注册后对之后开始的导入生效（包括已经读取过的JavaBean类型）。<br/>
+ * 日期时间默认按照yyyy-MM-dd HH:mm:ss格式解析，日期类型也兼容yyyy-MM-dd格式
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public final class ValueConverters {
+
+    static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(CSVUtils.DEFAULT_DATE_PATTERN);
+    static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private static final Map<Class<?>, ValueConverter<?>> CONVERTERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ValueConverter<?>> DEFAULTS = new HashMap<>();
+    // 每次注册转换器时递增，BeanAccessor据此丢弃已缓存的写入器
+    private static volatile int version;
+
+    static {
+        register(String.class, new ValueConverter<String>() {
+            @Override
+            public String convert(String text) {
+                return text;
+            }
+        });
+        register(Integer.class, new ValueConverter<Integer>() {
+            @Override
+            public Integer convert(String text) {
+                return Integer.valueOf(text.trim());
+            }
+        });
+        register(Long.class, new ValueConverter<Long>() {
+            @Override
+            public Long convert(String text) {
+                return Long.valueOf(text.trim());
+            }
+        });
+        register(Double.class, new ValueConverter<Double>() {
+            @Override
+            public Double convert(String text) {
+                return Double.valueOf(text.trim());
+            }
+        });
+        register(Float.class, new ValueConverter<Float>() {
+            @Override
+            public Float convert(String text) {
+                return Float.valueOf(text.trim());
+            }
+        });
+        register(Short.class, new ValueConverter<Short>() {
+            @Override
+            public Short convert(String text) {
+                return Short.valueOf(text.trim());
+            }
+        });
+        register(Byte.class, new ValueConverter<Byte>() {
+            @Override
+            public Byte convert(String text) {
+                return Byte.valueOf(text.trim());
+            }
+        });
+        register(Character.class, new ValueConverter<Character>() {
+            @Override
+            public Character convert(String text) {
+                return parseChar(text);
+            }
+        });
+        register(Boolean.class, new ValueConverter<Boolean>() {
+            @Override
+            public Boolean convert(String text) {
+                return parseBoolean(text);
+            }
+        });
+        register(BigDecimal.class, new ValueConverter<BigDecimal>() {
+            @Override
+            public BigDecimal convert(String text) {
+                return new BigDecimal(text.trim());
+            }
+        });
+        register(BigInteger.class, new ValueConverter<BigInteger>() {
+            @Override
+            public BigInteger convert(String text) {
+                return new BigInteger(text.trim());
+            }
+        });
+        register(LocalDateTime.class, new ValueConverter<LocalDateTime>() {
+            @Override
+            public LocalDateTime convert(String text) {
+                return parseLocalDateTime(text);
+            }
+        });
+        register(LocalDate.class, new ValueConverter<LocalDate>() {
+            @Override
+            public LocalDate convert(String text) {
+                String value = text.trim();
+                return value.length() > 10 ? LocalDateTime.parse(value, DATE_TIME_FORMATTER).toLocalDate()
+                        : LocalDate.parse(value, DATE_FORMATTER);
+            }
+        });
+        register(LocalTime.class, new ValueConverter<LocalTime>() {
+            @Override
+            public LocalTime convert(String text) {
+                return LocalTime.parse(text.trim(), TIME_FORMATTER);
+            }
+        });
+        register(Instant.class, new ValueConverter<Instant>() {
+            @Override
+            public Instant convert(String text) {
+                return parseLocalDateTime(text).atZone(ZoneId.systemDefault()).toInstant();
+            }
+        });
+        register(Date.class, new ValueConverter<Date>() {
+            @Override
+            public Date convert(String text) {
+                return Date.from(parseLocalDateTime(text).atZone(ZoneId.systemDefault()).toInstant());
+            }
+        });
+        DEFAULTS.putAll(CONVERTERS);
+    }
+
+    private ValueConverters() {
+    }
+
+    /**
+     * 注册（或覆盖）指定类型的转换器
+     *
+     * @param type      目标类型
+     * @param converter 转换器
+     */
+    public static <T> void register(Class<T> type, ValueConverter<? extends T> converter) {
+        CONVERTERS.put(type, converter);
+        version++;
+    }
+
+    /**
+     * @return 转换器注册表的版本号，每次注册后变化
+     */
+    static int version() {
+        return version;
+    }
+
+    /**
+     * 判断指定类型使用的是否为内置的转换器，基本类型按其包装类型判断
+     *
+     * @param type 目标类型
+     * @return
+     */
+    static boolean isDefault(Class<?> type) {
+        Class<?> key = BeanAccessor.wrap(type);
+        return CONVERTERS.get(key) == DEFAULTS.get(key);
+    }
+
+    /**
+     * 获取指定类型的转换器，基本类型按其包装类型查找，枚举类型按名称转换
+     *
+     * @param type 目标类型
+     * @return 不支持的类型返回null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ValueConverter<T> get(Class<T> type) {
+        Class<?> key = BeanAccessor.wrap(type);
+        ValueConverter<?> converter = CONVERTERS.get(key);
+        if (converter == null && key.isEnum()) {
+            converter = enumConverter(key.asSubclass(Enum.class));
+        }
+        return (ValueConverter<T>) converter;
+    }
+
+    private static <E extends Enum<E>> ValueConverter<E> enumConverter(final Class<E> type) {
+        return new ValueConverter<E>() {
+            @Override
+            public E convert(String text) {
+                return Enum.valueOf(type, text.trim());
+            }
+        };
+    }
+
+    static LocalDateTime parseLocalDateTime(String text) {
+        String value = text.trim();
+        if (value.length() <= 10) {
+            return LocalDate.parse(value, DATE_FORMATTER).atStartOfDay();
+        }
+        return LocalDateTime.parse(value, DATE_TIME_FORMATTER);
+    }
+
+    static boolean parseBoolean(String text) {
+        String value = text.trim();
+        if ("true".equalsIgnoreCase(value) || "1".equals(value) || "y".equalsIgnoreCase(value)
+                || "yes".equalsIgnoreCase(value) || "是".equals(value)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(value) || "0".equals(value) || "n".equalsIgnoreCase(value)
+                || "no".equalsIgnoreCase(value) || "否".equals(value)) {
+            return false;
+        }
+        throw new IllegalArgumentException("无法转换为boolean：" + text);
+    }
+
+    static char parseChar(String text) {
+        if (text.length() != 1) {
+            throw new IllegalArgumentException("无法转换为char：" + text);
+        }
+        return text.charAt(0);
+    }
+}
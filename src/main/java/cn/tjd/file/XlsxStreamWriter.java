@@ -0,0 +1,528 @@
+package cn.tjd.file;
+
+import org.apache.poi.ss.util.WorkbookUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 直接输出OOXML的XLSX写入引擎，绕过POI的Workbook/Sheet/Row/Cell对象模型与XML序列化。<br/>
+ * Sheet的XML直接编码到可复用的字节缓冲区并写入zip流，字符串使用内联字符串（inlineStr），不维护共享字符串表；
+ * styles.xml包含与ExcelUtils一致的表头样式与数据样式，以及按数字格式缓存的数值样式。由于zip条目可以按任意顺序排列，
+ * workbook.xml等描述文件在所有Sheet写完后才生成，因此Sheet的数量不需要预先确定。该类不是线程安全的
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+final class XlsxStreamWriter implements Closeable {
+
+    static final int STYLE_DEFAULT = 0;// 默认样式
+    static final int STYLE_HEADER = 1;// 表头样式
+    static final int STYLE_CELL = 2;// 数据样式
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String NS_REL = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final byte[] ROW_START = ascii("<row r=\"");
+    private static final byte[] ROW_END = ascii("</row>");
+    private static final byte[] CELL_START = ascii("<c r=\"");
+    private static final byte[] STYLE_ATTR = ascii("\" s=\"");
+    private static final byte[] INLINE_STRING = ascii("\" t=\"inlineStr\"><is><t>");
+    private static final byte[] INLINE_STRING_PRESERVE = ascii("\" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+    private static final byte[] INLINE_STRING_END = ascii("</t></is></c>");
+    private static final byte[] EMPTY_CELL_END = ascii("\"/>");
+    private static final byte[] VALUE_START = ascii("\"><v>");
+    private static final byte[] BOOLEAN_START = ascii("\" t=\"b\"><v>");
+    private static final byte[] VALUE_END = ascii("</v></c>");
+    private static final byte[] AMP = ascii("&amp;");
+    private static final byte[] LT = ascii("&lt;");
+    private static final byte[] GT = ascii("&gt;");
+    private static final byte[] CR = ascii("&#13;");
+
+    private final OutputStream out;
+    private final ZipOutputStream zip;
+    private final List<String> sheetNames = new ArrayList<>();
+    private final Map<String, Integer> numberStyles = new LinkedHashMap<>();
+    private byte[][] columnRefs = new byte[0][];
+    private final byte[] rowRef = new byte[10];
+    private int rowRefLength;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private int pos;
+    private boolean inSheet;
+    private int rowNumber;
+    private int column;
+
+    XlsxStreamWriter(OutputStream out) {
+        this.out = out;
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        // Sheet的XML重复度高，最快的压缩级别与默认级别的文件大小相差不大，但速度快得多
+        this.zip.setLevel(Deflater.BEST_SPEED);
+    }
+
+    /**
+     * 开始一个新的Sheet，名称的校验规则与POI的Workbook.createSheet一致
+     *
+     * @param name         Sheet名称，不超过31个字符，不能包含[]:*?/\\，不能与已有的Sheet重名（不区分大小写）
+     * @param columnWidths 列宽（字符数），可以为null
+     * @throws IllegalArgumentException 名称不合法或者重名
+     */
+    void startSheet(String name, int[] columnWidths) throws IOException {
+        WorkbookUtil.validateSheetName(name);
+        for (String sheetName : sheetNames) {
+            if (sheetName.equalsIgnoreCase(name)) {
+                throw new IllegalArgumentException("The workbook already contains a sheet named '" + name + "'");
+            }
+        }
+        if (inSheet) {
+            endSheet();
+        }
+        sheetNames.add(name);
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetNames.size() + ".xml"));
+        inSheet = true;
+        rowNumber = 0;
+        writeAscii(XML_DECLARATION);
+        writeAscii("<worksheet xmlns=\"" + NS_MAIN + "\" xmlns:r=\"" + NS_REL + "\">");
+        if (columnWidths != null && columnWidths.length > 0) {
+            writeAscii("<cols>");
+            for (int i = 0; i < columnWidths.length; i++) {
+                writeAscii("<col min=\"" + (i + 1) + "\" max=\"" + (i + 1) + "\" width=\"" + columnWidths[i]
+                        + "\" customWidth=\"1\"/>");
+            }
+            writeAscii("</cols>");
+        }
+        writeAscii("<sheetData>");
+    }
+
+    /**
+     * 开始新的一行
+     */
+    void startRow() throws IOException {
+        rowNumber++;
+        column = 0;
+        int value = rowNumber;
+        int length = 0;
+        for (int v = value; v > 0; v /= 10) {
+            length++;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            rowRef[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        rowRefLength = length;
+        ensure(ROW_START.length + length + 2);
+        put(ROW_START);
+        System.arraycopy(rowRef, 0, buf, pos, length);
+        pos += length;
+        buf[pos++] = '"';
+        buf[pos++] = '>';
+    }
+
+    /**
+     * 结束当前行
+     */
+    void endRow() throws IOException {
+        ensure(ROW_END.length);
+        put(ROW_END);
+    }
+
+    /**
+     * 写入字符串单元格，null或空字符串写入只带样式的空单元格
+     *
+     * @param value 单元格的值
+     * @param style 样式下标
+     */
+    void writeString(CharSequence value, int style) throws IOException {
+        int len = value == null ? 0 : value.length();
+        startCell(style);
+        if (len == 0) {
+            ensure(EMPTY_CELL_END.length);
+            put(EMPTY_CELL_END);
+            return;
+        }
+        boolean preserve = isWhitespace(value.charAt(0)) || isWhitespace(value.charAt(len - 1));
+        byte[] open = preserve ? INLINE_STRING_PRESERVE : INLINE_STRING;
+        ensure(open.length);
+        put(open);
+        writeEscaped(value, len);
+        ensure(INLINE_STRING_END.length);
+        put(INLINE_STRING_END);
+    }
+
+    /**
+     * 写入整数单元格
+     *
+     * @param value 单元格的值
+     * @param style 样式下标，通常由numberStyle得到
+     */
+    void writeNumber(long value, int style) throws IOException {
+        startCell(style);
+        ensure(VALUE_START.length + 20 + VALUE_END.length);
+        put(VALUE_START);
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                put(ascii(Long.toString(value)));
+                put(VALUE_END);
+                return;
+            }
+            buf[pos++] = '-';
+            value = -value;
+        }
+        putLong(value);
+        put(VALUE_END);
+    }
+
+    /**
+     * 写入小数单元格
+     *
+     * @param value 单元格的值
+     * @param style 样式下标，通常由numberStyle得到
+     */
+    void writeNumber(double value, int style) throws IOException {
+        startCell(style);
+        byte[] text = ascii(Double.toString(value));
+        ensure(VALUE_START.length + text.length + VALUE_END.length);
+        put(VALUE_START);
+        put(text);
+        put(VALUE_END);
+    }
+
+    /**
+     * 写入布尔单元格
+     *
+     * @param value 单元格的值
+     * @param style 样式下标
+     */
+    void writeBoolean(boolean value, int style) throws IOException {
+        startCell(style);
+        ensure(BOOLEAN_START.length + 1 + VALUE_END.length);
+        put(BOOLEAN_START);
+        buf[pos++] = (byte) (value ? '1' : '0');
+        put(VALUE_END);
+    }
+
+    /**
+     * 获取指定数字格式的数据样式（细边框、居中），相同的格式只生成一个样式
+     *
+     * @param format Excel数字格式，如0.00、yyyy-mm-dd
+     * @return 样式下标
+     */
+    int numberStyle(String format) {
+        Integer style = numberStyles.get(format);
+        if (style == null) {
+            style = STYLE_CELL + 1 + numberStyles.size();
+            numberStyles.put(format, style);
+        }
+        return style;
+    }
+
+    /**
+     * 写入单元格的开始部分：<c r="A1" s="2"
+     */
+    private void startCell(int style) throws IOException {
+        byte[] ref = columnRef(column++);
+        ensure(CELL_START.length + ref.length + rowRefLength + STYLE_ATTR.length + 11);
+        put(CELL_START);
+        put(ref);
+        System.arraycopy(rowRef, 0, buf, pos, rowRefLength);
+        pos += rowRefLength;
+        if (style != STYLE_DEFAULT) {
+            put(STYLE_ATTR);
+            putInt(style);
+        }
+    }
+
+    /**
+     * 结束当前Sheet
+     */
+    void endSheet() throws IOException {
+        if (!inSheet) {
+            return;
+        }
+        writeAscii("</sheetData></worksheet>");
+        flushBuffer();
+        zip.closeEntry();
+        inSheet = false;
+    }
+
+    /**
+     * 写入workbook.xml等描述文件并结束zip流，同时关闭底层的输出流。
+     * 写出失败时直接关闭底层的输出流，避免ZipOutputStream.close()再次结束zip流时抛出的异常覆盖原来的IOException
+     */
+    @Override
+    public void close() throws IOException {
+        boolean finished = false;
+        try {
+            endSheet();
+            if (sheetNames.isEmpty()) {
+                startSheet("sheet1", null);
+                endSheet();
+            }
+            writeEntry("[Content_Types].xml", contentTypes());
+            writeEntry("_rels/.rels", XML_DECLARATION
+                    + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId1\" Type=\"" + NS_REL + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                    + "</Relationships>");
+            writeEntry("xl/workbook.xml", workbook());
+            writeEntry("xl/_rels/workbook.xml.rels", workbookRels());
+            writeEntry("xl/styles.xml", styles());
+            zip.finish();
+            finished = true;
+        } finally {
+            if (finished) {
+                zip.close();
+            } else {
+                out.close();
+            }
+        }
+    }
+
+    private String contentTypes() {
+        StringBuilder sb = new StringBuilder(XML_DECLARATION)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            sb.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return sb.append("</Types>").toString();
+    }
+
+    private String workbook() {
+        StringBuilder sb = new StringBuilder(XML_DECLARATION)
+                .append("<workbook xmlns=\"").append(NS_MAIN).append("\" xmlns:r=\"").append(NS_REL).append("\"><sheets>");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            sb.append("<sheet name=\"").append(escapeAttribute(sheetNames.get(i - 1))).append("\" sheetId=\"").append(i)
+                    .append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        return sb.append("</sheets></workbook>").toString();
+    }
+
+    private String workbookRels() {
+        StringBuilder sb = new StringBuilder(XML_DECLARATION)
+                .append("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+        int i = 1;
+        for (; i <= sheetNames.size(); i++) {
+            sb.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(NS_REL)
+                    .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        sb.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(NS_REL)
+                .append("/styles\" Target=\"styles.xml\"/>");
+        return sb.append("</Relationships>").toString();
+    }
+
+    /**
+     * 与ExcelUtils.generateHeaderStyle、generateCellStyle一致的样式：
+     * 表头为12号粗体、浅绿色填充、细边框、居中；数据为细边框、居中。数值样式在数据样式的基础上指定数字格式
+     */
+    private String styles() {
+        StringBuilder sb = new StringBuilder(STYLES_HEAD);
+        if (!numberStyles.isEmpty()) {
+            sb.append("<numFmts count=\"").append(numberStyles.size()).append("\">");
+            int id = CUSTOM_FORMAT_ID;
+            for (String format : numberStyles.keySet()) {
+                sb.append("<numFmt numFmtId=\"").append(id++).append("\" formatCode=\"").append(escapeAttribute(format)).append("\"/>");
+            }
+            sb.append("</numFmts>");
+        }
+        sb.append(STYLES_BODY).append("<cellXfs count=\"").append(STYLE_CELL + 1 + numberStyles.size()).append("\">")
+                .append(STYLES_XFS);
+        for (int i = 0; i < numberStyles.size(); i++) {
+            sb.append("<xf numFmtId=\"").append(CUSTOM_FORMAT_ID + i)
+                    .append("\" fontId=\"0\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyNumberFormat=\"1\" applyBorder=\"1\" applyAlignment=\"1\">")
+                    .append("<alignment horizontal=\"center\" vertical=\"center\"/></xf>");
+        }
+        return sb.append(STYLES_TAIL).toString();
+    }
+
+    private static final int CUSTOM_FORMAT_ID = 164;// 自定义数字格式的起始编号
+    private static final String STYLES_HEAD = XML_DECLARATION + "<styleSheet xmlns=\"" + NS_MAIN + "\">";
+    private static final String STYLES_BODY = "<fonts count=\"2\">"
+            + "<font><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>"
+            + "<font><b/><sz val=\"12\"/><name val=\"Calibri\"/><family val=\"2\"/></font>"
+            + "</fonts>"
+            + "<fills count=\"3\">"
+            + "<fill><patternFill patternType=\"none\"/></fill>"
+            + "<fill><patternFill patternType=\"gray125\"/></fill>"
+            + "<fill><patternFill patternType=\"solid\"><fgColor indexed=\"42\"/></patternFill></fill>"
+            + "</fills>"
+            + "<borders count=\"2\">"
+            + "<border><left/><right/><top/><bottom/><diagonal/></border>"
+            + "<border><left style=\"thin\"/><right style=\"thin\"/><top style=\"thin\"/><bottom style=\"thin\"/><diagonal/></border>"
+            + "</borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>";
+    private static final String STYLES_XFS = "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+            + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"2\" borderId=\"1\" xfId=\"0\" applyFont=\"1\" applyFill=\"1\" applyBorder=\"1\" applyAlignment=\"1\">"
+            + "<alignment horizontal=\"center\" vertical=\"center\"/></xf>"
+            + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyBorder=\"1\" applyAlignment=\"1\">"
+            + "<alignment horizontal=\"center\" vertical=\"center\"/></xf>";
+    private static final String STYLES_TAIL = "</cellXfs>"
+            + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+            + "</styleSheet>";
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    /**
+     * 按UTF-8编码写入文本并进行XML转义
+     */
+    private void writeEscaped(CharSequence value, int len) throws IOException {
+        int i = 0;
+        while (i < len) {
+            if (buf.length - pos < 8) {
+                flushBuffer();
+            }
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '<' && c != '>' && c != '&') {
+                    buf[pos++] = (byte) c;
+                } else if (c == '<') {
+                    put(LT);
+                } else if (c == '>') {
+                    put(GT);
+                } else if (c == '&') {
+                    put(AMP);
+                } else if (c == '\t' || c == '\n') {
+                    buf[pos++] = (byte) c;
+                } else if (c == '\r') {
+                    put(CR);
+                } else {
+                    buf[pos++] = '?';// 与SXSSF一致，XML 1.0不允许的控制字符替换为'?'
+                }
+                i++;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+                i++;
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(i + 1));
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+                i += 2;
+            } else {
+                if (!Character.isSurrogate(c) && c != 0xFFFE && c != 0xFFFF) {
+                    buf[pos++] = (byte) (0xE0 | (c >> 12));
+                    buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (c & 0x3F));
+                }
+                i++;
+            }
+        }
+    }
+
+    /**
+     * 列下标转换为列字母（0 -> A，26 -> AA），结果按列缓存
+     */
+    private byte[] columnRef(int index) {
+        if (index >= columnRefs.length) {
+            byte[][] refs = new byte[Math.max(index + 1, columnRefs.length * 2)][];
+            System.arraycopy(columnRefs, 0, refs, 0, columnRefs.length);
+            columnRefs = refs;
+        }
+        byte[] ref = columnRefs[index];
+        if (ref == null) {
+            StringBuilder sb = new StringBuilder(3);
+            for (int n = index + 1; n > 0; n = (n - 1) / 26) {
+                sb.append((char) ('A' + (n - 1) % 26));
+            }
+            ref = ascii(sb.reverse().toString());
+            columnRefs[index] = ref;
+        }
+        return ref;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private static String escapeAttribute(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    sb.append("&amp;");
+                    break;
+                case '<':
+                    sb.append("&lt;");
+                    break;
+                case '>':
+                    sb.append("&gt;");
+                    break;
+                case '"':
+                    sb.append("&quot;");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private void putLong(long value) {
+        if (value >= 10) {
+            putLong(value / 10);
+        }
+        buf[pos++] = (byte) ('0' + value % 10);
+    }
+
+    private void putInt(int value) {
+        if (value >= 10) {
+            putInt(value / 10);
+        }
+        buf[pos++] = (byte) ('0' + value % 10);
+    }
+
+    private void put(byte[] bytes) {
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    private void writeAscii(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > buf.length - pos) {
+            flushBuffer();
+            if (bytes.length > buf.length) {
+                zip.write(bytes);
+                return;
+            }
+        }
+        put(bytes);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buf.length - pos < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (pos > 0) {
+            zip.write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,99 @@
+package cn.tjd.net;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 异步执行的Http请求，同时作为请求结果的CompletableFuture。<br/>
+ * 提交到线程池之前已占用连接，执行时不再等待；在执行前被取消时归还连接。<br/>
+ * 调用cancel()时断开正在使用的连接并中断执行线程，等待可用连接或读取响应的请求会立即结束，被断开的连接不会被复用
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+final class AsyncCall<T> extends CompletableFuture<T> implements Runnable {
+
+    private final HttpClient client;
+    private final String method;
+    private final URL url;
+    private final Map<String, String> headers;
+    private final RequestBody body;
+    private final ResponseHandler<T> handler;
+    private Thread runner;
+    private HttpURLConnection connection;
+    private Runnable release;// 占用的连接，由open()取走后随响应关闭时归还
+
+    AsyncCall(HttpClient client, String method, URL url, Map<String, String> headers, RequestBody body,
+              ResponseHandler<T> handler) {
+        this.client = client;
+        this.method = method;
+        this.url = url;
+        this.headers = headers;
+        this.body = body;
+        this.handler = handler;
+    }
+
+    @Override
+    public void run() {
+        synchronized (this) {
+            if (isDone()) {
+                takeRelease().run();
+                return;
+            }
+            runner = Thread.currentThread();
+        }
+        try {
+            complete(client.execute(method, url, headers, body, handler, this));
+        } catch (Throwable e) {
+            completeExceptionally(e);
+        } finally {
+            synchronized (this) {
+                runner = null;
+                connection = null;
+            }
+            Thread.interrupted();// 清除cancel()设置的中断状态，避免影响线程池中的下一个任务
+        }
+    }
+
+    synchronized void setRelease(Runnable release) {
+        this.release = release;
+    }
+
+    synchronized Runnable takeRelease() {
+        Runnable taken = release;
+        release = null;
+        return taken;
+    }
+
+    /**
+     * 记录当前使用的连接
+     *
+     * @return 请求已被取消时返回false
+     */
+    synchronized boolean attach(HttpURLConnection connection) {
+        if (isCancelled()) {
+            return false;
+        }
+        this.connection = connection;
+        return true;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            synchronized (this) {
+                if (connection != null) {
+                    connection.disconnect();
+                }
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            }
+        }
+        return cancelled;
+    }
+}
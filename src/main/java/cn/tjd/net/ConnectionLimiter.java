@@ -0,0 +1,177 @@
+package cn.tjd.net;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接数上限，等待者按先后顺序排队：<br/>
+ * 1. 同步请求在调用线程中等待，超时后抛出SocketTimeoutException<br/>
+ * 2. 异步请求不占用线程等待，归还连接时直接交给队列中的下一个请求，回调在归还连接的线程中执行，不能阻塞。
+ * 排队的异步请求到达截止时间后由共享的定时线程移出队列并回调onTimeout()，即使一直没有连接归还也会按时结束
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+final class ConnectionLimiter {
+
+    /**
+     * 异步等待的回调
+     */
+    interface Listener {
+        /**
+         * 已占用一个连接，使用完毕后必须调用release()
+         */
+        void onAcquired();
+
+        void onTimeout();
+    }
+
+    /**
+     * 所有实例共享的守护线程，只负责让超时的异步等待者出队并回调，不执行其他任务
+     */
+    private static final ScheduledThreadPoolExecutor TIMER;
+
+    static {
+        TIMER = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "connection-limiter-timer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        TIMER.setRemoveOnCancelPolicy(true);// 取得连接后取消的定时任务立即移出队列，避免堆积到截止时间
+    }
+
+    private static final class Waiter {
+        final Listener listener;// 为null表示同步等待的线程
+        boolean granted;
+        ScheduledFuture<?> timeout;// 异步等待者的超时任务
+
+        Waiter(Listener listener) {
+            this.listener = listener;
+        }
+    }
+
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private int available;
+
+    ConnectionLimiter(int permits) {
+        this.available = permits;
+    }
+
+    synchronized int available() {
+        return available;
+    }
+
+    /**
+     * 在调用线程中等待可用连接
+     *
+     * @param deadline 等待的截止时间（System.nanoTime()）
+     * @param host     用于异常信息
+     */
+    void acquire(long deadline, String host) throws IOException {
+        boolean granted;
+        synchronized (this) {
+            if (available > 0 && waiters.isEmpty()) {
+                available--;
+                return;
+            }
+            Waiter waiter = new Waiter(null);
+            waiters.add(waiter);
+            try {
+                while (!waiter.granted) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        waiters.remove(waiter);
+                        throw new SocketTimeoutException("等待可用连接超时：" + host);
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+                return;
+            } catch (InterruptedException e) {
+                waiters.remove(waiter);
+                granted = waiter.granted;
+            }
+        }
+        if (granted) {
+            release();// 中断前已分配到连接
+        }
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("等待可用连接时线程被中断：" + host);
+    }
+
+    /**
+     * 不阻塞地等待可用连接，有可用连接时直接在当前线程中回调
+     *
+     * @param deadline 等待的截止时间（System.nanoTime()）
+     * @param listener 回调
+     */
+    void acquireAsync(long deadline, Listener listener) {
+        boolean acquired;
+        synchronized (this) {
+            acquired = available > 0 && waiters.isEmpty();
+            if (acquired) {
+                available--;
+            } else {
+                long remaining = deadline - System.nanoTime();
+                if (remaining > 0) {
+                    final Waiter waiter = new Waiter(listener);
+                    waiters.add(waiter);
+                    waiter.timeout = TIMER.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            expire(waiter);
+                        }
+                    }, remaining, TimeUnit.NANOSECONDS);
+                    return;
+                }
+            }
+        }
+        if (acquired) {
+            listener.onAcquired();
+        } else {
+            listener.onTimeout();
+        }
+    }
+
+    /**
+     * 异步等待者到达截止时间，仍在队列中（尚未分配到连接）时出队并回调onTimeout()
+     */
+    private void expire(Waiter waiter) {
+        synchronized (this) {
+            if (waiter.granted || !waiters.remove(waiter)) {
+                return;
+            }
+        }
+        waiter.listener.onTimeout();
+    }
+
+    /**
+     * 归还连接，交给队列中的下一个等待者
+     */
+    void release() {
+        Waiter next;
+        synchronized (this) {
+            next = waiters.poll();
+            if (next == null) {
+                available++;
+                return;
+            }
+            next.granted = true;
+            if (next.listener == null) {
+                notifyAll();
+                return;
+            }
+        }
+        next.timeout.cancel(false);
+        next.listener.onAcquired();
+    }
+}
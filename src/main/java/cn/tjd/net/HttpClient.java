@@ -0,0 +1,716 @@
+package cn.tjd.net;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 可配置的Http客户端，基于JDK的HttpURLConnection实现，线程安全，建议在应用中共享同一个实例：<br/>
+ * 1. 每个请求都设置连接超时与读取超时<br/>
+ * 2. 同时使用的连接数受全局与每个主机的上限约束，达到上限时等待其他请求归还连接，等待超时后抛出SocketTimeoutException<br/>
+ * 3. 响应内容（包括错误响应）总是被完整读取后关闭，连接由JDK的keep-alive缓存复用；读取失败的连接会被断开，不会被复用<br/>
+ * 4. 服务端返回4xx、5xx状态码时抛出HttpResponseException<br/>
+ * 5. xxxAsync()方法返回CompletableFuture，请求在配置的线程池中执行（默认在支持虚拟线程的JDK上使用虚拟线程），
+ * 同样受连接数上限约束：异步请求按主机排队，占用连接之后才提交到线程池，等待连接时不占用线程，
+ * 多个后端的调用可以并行发出，总耗时接近最慢的一次调用<br/>
+ * 6. 响应体以流的方式交给ResponseHandler处理，或者通过Class、TypeReference直接从流中反序列化JSON，
+ * 字符集取自响应的Content-Type，支持分块传输与长度未知的响应<br/>
+ * 7. 请求体（RequestBody）直接写入连接的输出流：长度已知时按固定长度发送，否则使用分块传输，上传大量数据时内存占用恒定<br/>
+ * 8. 不再使用时调用close()关闭HttpClient创建的线程池，配置中指定的线程池由调用方管理
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class HttpClient implements Closeable {
+
+    private static final int MAX_ERROR_BODY = 64 * 1024;// 错误响应最多保留的字节数
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final Map<String, String> JSON_HEADERS;
+
+    static {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Accept", "application/json"); // 设置接收数据的格式
+        headers.put("Content-Type", "application/json"); // 设置发送数据的格式
+        JSON_HEADERS = Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * 按响应的字符集将响应体读取为字符串
+     */
+    private static final ResponseHandler<String> STRING_HANDLER = new ResponseHandler<String>() {
+        @Override
+        public String handle(HttpResponse response) throws IOException {
+            return response.bodyAsString();
+        }
+    };
+
+    private final HttpClientConfig config;
+    private final ConnectionLimiter connections;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;// HttpClient创建的线程池，close()时关闭
+    private final Map<String, String> headers;// 创建时复制的默认请求头
+    private final ConcurrentMap<String, ConnectionLimiter> hostConnections = new ConcurrentHashMap<>();
+
+    /**
+     * 使用默认配置
+     */
+    public HttpClient() {
+        this(new HttpClientConfig());
+    }
+
+    public HttpClient(HttpClientConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("config不能为null");
+        }
+        this.config = config;
+        this.connections = new ConnectionLimiter(config.getMaxConnections());
+        this.ownedExecutor = config.getExecutor() != null ? null : defaultExecutor(config.getMaxConnections());
+        this.executor = config.getExecutor() != null ? config.getExecutor() : ownedExecutor;
+        // 配置中的请求头可能被其他线程修改，复制后发送请求时无需同步
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(config.getHeaders()));
+    }
+
+    public HttpClientConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return 全局剩余的可用连接数
+     */
+    public int getAvailableConnections() {
+        return connections.available();
+    }
+
+    /**
+     * 关闭HttpClient创建的线程池，之后提交的异步请求以RejectedExecutionException结束，已提交的请求继续执行。
+     * 配置中指定的线程池由调用方关闭
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    /**
+     * 向指定URL发送GET方法的请求
+     *
+     * @param url    发送请求的URL
+     * @param params 请求参数
+     * @return URL 所代表远程资源的响应结果，按响应的字符集解码
+     * @throws IOException
+     */
+    public String get(String url, Map<String, String> params) throws IOException {
+        return get(url, params, STRING_HANDLER);
+    }
+
+    /**
+     * 发送GET请求，并将响应的JSON直接反序列化为指定类型
+     *
+     * @param url    发送请求的URL
+     * @param params 请求参数
+     * @param type   目标类型
+     * @return
+     * @throws IOException
+     */
+    public <T> T get(String url, Map<String, String> params, Class<T> type) throws IOException {
+        return get(url, params, jsonHandler(type));
+    }
+
+    /**
+     * 发送GET请求，并将响应的JSON直接反序列化为指定的泛型类型
+     *
+     * @param url    发送请求的URL
+     * @param params 请求参数
+     * @param type   目标类型，如new TypeReference&lt;List&lt;User&gt;&gt;() {}
+     * @return
+     * @throws IOException
+     */
+    public <T> T get(String url, Map<String, String> params, TypeReference<T> type) throws IOException {
+        return get(url, params, jsonHandler(type));
+    }
+
+    /**
+     * 发送GET请求，以流的方式处理响应
+     *
+     * @param url     发送请求的URL
+     * @param params  请求参数
+     * @param handler 响应处理回调
+     * @return 回调的返回值
+     * @throws IOException
+     */
+    public <T> T get(String url, Map<String, String> params, ResponseHandler<T> handler) throws IOException {
+        return execute("GET", getUrl(url, params), Collections.<String, String>emptyMap(), null, handler);
+    }
+
+    /**
+     * 发送GET请求，返回尚未读取的响应。响应占用一个连接，使用完毕后必须关闭，建议配合try-with-resources使用
+     *
+     * @param url    发送请求的URL
+     * @param params 请求参数
+     * @return
+     * @throws IOException
+     */
+    public HttpResponse getResponse(String url, Map<String, String> params) throws IOException {
+        return open("GET", getUrl(url, params), Collections.<String, String>emptyMap(), null, null);
+    }
+
+    /**
+     * 异步发送GET方法的请求，不阻塞调用线程
+     *
+     * @param url    发送请求的URL
+     * @param params 请求参数
+     * @return 响应结果，调用cancel()可以中止请求
+     */
+    public CompletableFuture<String> getAsync(String url, Map<String, String> params) {
+        return getAsync(url, params, STRING_HANDLER);
+    }
+
+    /**
+     * 异步发送GET请求，并将响应的JSON直接反序列化为指定类型
+     *
+     * @param url    发送请求的URL
+     * @param params 请求参数
+     * @param type   目标类型
+     * @return 响应结果，调用cancel()可以中止请求
+     */
+    public <T> CompletableFuture<T> getAsync(String url, Map<String, String> params, Class<T> type) {
+        return getAsync(url, params, jsonHandler(type));
+    }
+
+    /**
+     * 异步发送GET请求，以流的方式处理响应，回调在执行请求的线程中调用
+     *
+     * @param url     发送请求的URL
+     * @param params  请求参数
+     * @param handler 响应处理回调
+     * @return 回调的返回值，调用cancel()可以中止请求
+     */
+    public <T> CompletableFuture<T> getAsync(String url, Map<String, String> params, ResponseHandler<T> handler) {
+        try {
+            return executeAsync("GET", getUrl(url, params), Collections.<String, String>emptyMap(), null, handler);
+        } catch (MalformedURLException e) {
+            return failed(e);
+        }
+    }
+
+    /**
+     * 向指定 URL 发送POST方法的请求，请求参数转换为JSON后通过Body传输
+     *
+     * @param url    发送请求的 URL
+     * @param params 请求参数
+     * @return 所代表远程资源的响应结果，按响应的字符集解码
+     * @throws IOException
+     */
+    public String post(String url, Map<String, String> params) throws IOException {
+        return post(url, params, STRING_HANDLER);
+    }
+
+    /**
+     * 发送POST请求，并将响应的JSON直接反序列化为指定类型
+     *
+     * @param url    发送请求的 URL
+     * @param params 请求参数
+     * @param type   目标类型
+     * @return
+     * @throws IOException
+     */
+    public <T> T post(String url, Map<String, String> params, Class<T> type) throws IOException {
+        return post(url, params, jsonHandler(type));
+    }
+
+    /**
+     * 发送POST请求，以流的方式处理响应
+     *
+     * @param url     发送请求的 URL
+     * @param params  请求参数
+     * @param handler 响应处理回调
+     * @return 回调的返回值
+     * @throws IOException
+     */
+    public <T> T post(String url, Map<String, String> params, ResponseHandler<T> handler) throws IOException {
+        return execute("POST", new URL(url), JSON_HEADERS, jsonBytes(params), handler);
+    }
+
+    /**
+     * 异步发送POST方法的请求，不阻塞调用线程
+     *
+     * @param url    发送请求的 URL
+     * @param params 请求参数
+     * @return 响应结果，调用cancel()可以中止请求
+     */
+    public CompletableFuture<String> postAsync(String url, Map<String, String> params) {
+        return postAsync(url, params, STRING_HANDLER);
+    }
+
+    /**
+     * 异步发送POST请求，并将响应的JSON直接反序列化为指定类型
+     *
+     * @param url    发送请求的 URL
+     * @param params 请求参数
+     * @param type   目标类型
+     * @return 响应结果，调用cancel()可以中止请求
+     */
+    public <T> CompletableFuture<T> postAsync(String url, Map<String, String> params, Class<T> type) {
+        return postAsync(url, params, jsonHandler(type));
+    }
+
+    /**
+     * 异步发送POST请求，以流的方式处理响应，回调在执行请求的线程中调用
+     *
+     * @param url     发送请求的 URL
+     * @param params  请求参数
+     * @param handler 响应处理回调
+     * @return 回调的返回值，调用cancel()可以中止请求
+     */
+    public <T> CompletableFuture<T> postAsync(String url, Map<String, String> params, ResponseHandler<T> handler) {
+        try {
+            return executeAsync("POST", new URL(url), JSON_HEADERS, jsonBytes(params), handler);
+        } catch (IOException e) {
+            return failed(e);
+        }
+    }
+
+    /**
+     * 请求参数较少，序列化为byte[]后按固定长度发送，兼容不支持分块传输请求的服务端
+     */
+    private RequestBody jsonBytes(Map<String, String> params) throws IOException {
+        //将Map类型的实例，转换为JSON格式（UTF-8编码）
+        return RequestBody.bytes(config.getObjectMapper().writeValueAsBytes(params), RequestBody.JSON);
+    }
+
+    /**
+     * 向指定URL发送POST请求，请求体直接写入连接的输出流
+     *
+     * @param url  发送请求的URL
+     * @param body 请求体，如RequestBody.json(list)、RequestBody.stream(inputStream, length, contentType)
+     * @return 响应结果，按响应的字符集解码
+     * @throws IOException
+     */
+    public String post(String url, RequestBody body) throws IOException {
+        return send("POST", url, body, STRING_HANDLER);
+    }
+
+    /**
+     * 向指定URL发送POST请求，并将响应的JSON直接反序列化为指定类型
+     *
+     * @param url  发送请求的URL
+     * @param body 请求体
+     * @param type 目标类型
+     * @return
+     * @throws IOException
+     */
+    public <T> T post(String url, RequestBody body, Class<T> type) throws IOException {
+        return send("POST", url, body, jsonHandler(type));
+    }
+
+    /**
+     * 向指定URL发送POST请求，以流的方式处理响应
+     *
+     * @param url     发送请求的URL
+     * @param body    请求体
+     * @param handler 响应处理回调
+     * @return 回调的返回值
+     * @throws IOException
+     */
+    public <T> T post(String url, RequestBody body, ResponseHandler<T> handler) throws IOException {
+        return send("POST", url, body, handler);
+    }
+
+    /**
+     * 向指定URL发送PUT请求，请求体直接写入连接的输出流
+     *
+     * @param url  发送请求的URL
+     * @param body 请求体
+     * @return 响应结果，按响应的字符集解码
+     * @throws IOException
+     */
+    public String put(String url, RequestBody body) throws IOException {
+        return send("PUT", url, body, STRING_HANDLER);
+    }
+
+    /**
+     * 向指定URL发送PUT请求，并将响应的JSON直接反序列化为指定类型
+     *
+     * @param url  发送请求的URL
+     * @param body 请求体
+     * @param type 目标类型
+     * @return
+     * @throws IOException
+     */
+    public <T> T put(String url, RequestBody body, Class<T> type) throws IOException {
+        return send("PUT", url, body, jsonHandler(type));
+    }
+
+    /**
+     * 向指定URL发送PUT请求，以流的方式处理响应
+     *
+     * @param url     发送请求的URL
+     * @param body    请求体
+     * @param handler 响应处理回调
+     * @return 回调的返回值
+     * @throws IOException
+     */
+    public <T> T put(String url, RequestBody body, ResponseHandler<T> handler) throws IOException {
+        return send("PUT", url, body, handler);
+    }
+
+    /**
+     * 发送任意方法的请求
+     *
+     * @param method  请求方法，如POST、PUT、DELETE
+     * @param url     发送请求的URL
+     * @param body    请求体，为null时不发送请求体
+     * @param handler 响应处理回调
+     * @return 回调的返回值
+     * @throws IOException
+     */
+    public <T> T send(String method, String url, RequestBody body, ResponseHandler<T> handler) throws IOException {
+        return execute(method, new URL(url), Collections.<String, String>emptyMap(), body, handler);
+    }
+
+    /**
+     * 异步发送任意方法的请求，回调在执行请求的线程中调用
+     *
+     * @param method  请求方法，如POST、PUT、DELETE
+     * @param url     发送请求的URL
+     * @param body    请求体，为null时不发送请求体，基于流的请求体在执行前不能被其他线程使用
+     * @param handler 响应处理回调
+     * @return 回调的返回值，调用cancel()可以中止请求
+     */
+    public <T> CompletableFuture<T> sendAsync(String method, String url, RequestBody body, ResponseHandler<T> handler) {
+        try {
+            return executeAsync(method, new URL(url), Collections.<String, String>emptyMap(), body, handler);
+        } catch (MalformedURLException e) {
+            return failed(e);
+        }
+    }
+
+    private static <T> ResponseHandler<T> jsonHandler(final Class<T> type) {
+        return new ResponseHandler<T>() {
+            @Override
+            public T handle(HttpResponse response) throws IOException {
+                return response.readJson(type);
+            }
+        };
+    }
+
+    private static <T> ResponseHandler<T> jsonHandler(final TypeReference<T> type) {
+        return new ResponseHandler<T>() {
+            @Override
+            public T handle(HttpResponse response) throws IOException {
+                return response.readJson(type);
+            }
+        };
+    }
+
+    /**
+     * 发送请求并处理响应，回调返回后关闭响应
+     *
+     * @param method  请求方法
+     * @param url     请求地址，只支持http与https
+     * @param headers 当前请求的请求头，覆盖配置中的同名请求头
+     * @param body    请求体，为null时不发送请求体，长度已知时按固定长度发送，否则使用分块传输
+     * @param handler 响应处理回调
+     */
+    <T> T execute(String method, URL url, Map<String, String> headers, RequestBody body,
+                  ResponseHandler<T> handler) throws IOException {
+        return execute(method, url, headers, body, handler, null);
+    }
+
+    <T> T execute(String method, URL url, Map<String, String> headers, RequestBody body,
+                  ResponseHandler<T> handler, AsyncCall<T> call) throws IOException {
+        HttpResponse response = open(method, url, headers, body, call);
+        boolean completed = false;
+        try {
+            T result = handler.handle(response);
+            completed = true;
+            return result;
+        } finally {
+            if (completed) {
+                response.close();
+            } else {
+                response.abort();// 处理失败时连接的状态未知，不再复用
+            }
+        }
+    }
+
+    /**
+     * 异步发送请求：先按主机排队占用连接，再提交到配置的线程池中执行，等待连接时不占用线程
+     */
+    <T> CompletableFuture<T> executeAsync(String method, URL url, Map<String, String> headers, RequestBody body,
+                                          ResponseHandler<T> handler) {
+        final AsyncCall<T> call = new AsyncCall<>(this, method, url, headers, body, handler);
+        final String host;
+        try {
+            host = hostOf(url);
+        } catch (IllegalArgumentException e) {
+            call.completeExceptionally(e);
+            return call;
+        }
+        final ConnectionLimiter hostPermits = hostPermits(host);
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getAcquireTimeout());
+        hostPermits.acquireAsync(deadline, new ConnectionLimiter.Listener() {
+            @Override
+            public void onAcquired() {
+                if (call.isDone()) {
+                    hostPermits.release();// 排队期间被取消
+                    return;
+                }
+                connections.acquireAsync(deadline, new ConnectionLimiter.Listener() {
+                    @Override
+                    public void onAcquired() {
+                        Runnable release = release(hostPermits);
+                        if (call.isDone()) {
+                            release.run();
+                            return;
+                        }
+                        call.setRelease(release);
+                        try {
+                            executor.execute(call);
+                        } catch (RejectedExecutionException e) {
+                            release.run();
+                            call.completeExceptionally(e);
+                        }
+                    }
+
+                    @Override
+                    public void onTimeout() {
+                        hostPermits.release();
+                        call.completeExceptionally(new SocketTimeoutException("等待可用连接超时：" + host));
+                    }
+                });
+            }
+
+            @Override
+            public void onTimeout() {
+                call.completeExceptionally(new SocketTimeoutException("等待可用连接超时：" + host));
+            }
+        });
+        return call;
+    }
+
+    private static String hostOf(URL url) {
+        String protocol = url.getProtocol();
+        if (!"http".equals(protocol) && !"https".equals(protocol)) {
+            throw new IllegalArgumentException("只支持http与https协议：" + url);
+        }
+        return protocol + "://" + url.getHost() + ":" + (url.getPort() < 0 ? url.getDefaultPort() : url.getPort());
+    }
+
+    private ConnectionLimiter hostPermits(String host) {
+        ConnectionLimiter permits = hostConnections.get(host);
+        if (permits == null) {
+            ConnectionLimiter created = new ConnectionLimiter(config.getMaxConnectionsPerHost());
+            permits = hostConnections.putIfAbsent(host, created);
+            if (permits == null) {
+                permits = created;
+            }
+        }
+        return permits;
+    }
+
+    private Runnable release(final ConnectionLimiter hostPermits) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                connections.release();
+                hostPermits.release();
+            }
+        };
+    }
+
+    /**
+     * 发送请求并返回响应，响应关闭后归还连接。异步请求在提交前已占用连接，同步请求在调用线程中等待主机与全局的连接数
+     */
+    HttpResponse open(String method, URL url, Map<String, String> headers, RequestBody body,
+                      AsyncCall<?> call) throws IOException {
+        Runnable release;
+        if (call != null) {
+            release = call.takeRelease();
+        } else {
+            String host = hostOf(url);
+            ConnectionLimiter hostPermits = hostPermits(host);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getAcquireTimeout());
+            hostPermits.acquire(deadline, host);
+            try {
+                connections.acquire(deadline, host);
+            } catch (IOException e) {
+                hostPermits.release();
+                throw e;
+            }
+            release = release(hostPermits);
+        }
+        boolean opened = false;
+        try {
+            HttpResponse response = connect(method, url, headers, body, call, release);
+            opened = true;
+            return response;
+        } finally {
+            if (!opened) {
+                release.run();
+            }
+        }
+    }
+
+    private HttpResponse connect(String method, URL url, Map<String, String> headers, RequestBody body,
+                                 AsyncCall<?> call, Runnable release) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        boolean reusable = false;
+        try {
+            if (call != null && !call.attach(connection)) {
+                throw new InterruptedIOException("请求已取消：" + url);
+            }
+            connection.setConnectTimeout(config.getConnectTimeout());
+            connection.setReadTimeout(config.getReadTimeout());
+            connection.setUseCaches(false);
+            connection.setInstanceFollowRedirects(config.isFollowRedirects());
+            connection.setRequestMethod(method);
+            for (Map.Entry<String, String> header : this.headers.entrySet()) {
+                if (!headers.containsKey(header.getKey())) {
+                    connection.setRequestProperty(header.getKey(), header.getValue());
+                }
+            }
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+            if (body != null) {
+                if (body.getContentType() != null && !headers.containsKey("Content-Type")) {
+                    connection.setRequestProperty("Content-Type", body.getContentType());
+                }
+                connection.setDoOutput(true);
+                long length = body.getContentLength();
+                if (length >= 0) {
+                    connection.setFixedLengthStreamingMode(length);
+                } else {
+                    connection.setChunkedStreamingMode(config.getChunkSize());
+                }
+                OutputStream outputStream = connection.getOutputStream();
+                try {
+                    body.writeTo(outputStream, config.getObjectMapper());
+                } finally {
+                    outputStream.close();
+                }
+            }
+            int status = connection.getResponseCode();
+            if (status >= 400) {
+                String error = readError(connection);
+                reusable = true;
+                throw new HttpResponseException(status, url.toString(), error);
+            }
+            HttpResponse response = new HttpResponse(connection, status, connection.getInputStream(),
+                    config.getObjectMapper(), release);
+            reusable = true;
+            return response;
+        } finally {
+            if (!reusable) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private static URL getUrl(String url, Map<String, String> params) throws MalformedURLException {
+        return new URL(url + "?" + generateParamStr(params));
+    }
+
+    /**
+     * 按响应的字符集读取错误响应，超出MAX_ERROR_BODY的部分被丢弃
+     */
+    private static String readError(HttpURLConnection connection) throws IOException {
+        InputStream errorStream = connection.getErrorStream();
+        if (errorStream == null) {
+            return "";
+        }
+        try {
+            byte[] data = new byte[MAX_ERROR_BODY];
+            int length = 0;
+            int n;
+            while (length < data.length && (n = errorStream.read(data, length, data.length - length)) > 0) {
+                length += n;
+            }
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (errorStream.read(buffer) > 0) {
+                // 丢弃剩余的内容，连接才能被复用
+            }
+            return new String(data, 0, length, HttpResponse.charsetOf(connection.getContentType()));
+        } finally {
+            errorStream.close();
+        }
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    /**
+     * 创建默认的异步执行线程池：JDK支持虚拟线程时每个请求使用一个虚拟线程，否则使用线程数有上限的守护线程池
+     *
+     * @param maxThreads 线程池的线程数上限，与全局连接数上限一致，提交到线程池的请求都已占用连接
+     */
+    private static ExecutorService defaultExecutor(int maxThreads) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (Exception e) {
+            // JDK 21以下不支持虚拟线程
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "http-client-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 根据Map类型的参数生成URL格式参数 aaa=1&bbb=2&ccc=3
+     *
+     * @param params 如果params为null或者size=0，则返回""（空字符串）
+     * @return
+     */
+    private static String generateParamStr(Map<String, String> params) {
+        StringBuilder paramStr = new StringBuilder();
+        if (params == null || params.size() == 0) {
+            return "";
+        }
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            paramStr.append(entry.getKey() + "=" + entry.getValue() + "&");
+        }
+        return paramStr.toString();
+    }
+}
@@ -0,0 +1,211 @@
+package cn.tjd.net;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Http客户端配置，多个HttpClient可以共享同一个配置：<br/>
+ * 1. 连接超时、读取超时以及等待可用连接的超时时间（毫秒），避免上游服务响应缓慢时线程被无限期挂起<br/>
+ * 2. 同时使用的连接数上限（全局与每个主机），超出后请求等待其他请求完成，等待超时后抛出SocketTimeoutException<br/>
+ * 3. 每个请求默认携带的请求头，以及JSON序列化使用的ObjectMapper<br/>
+ * 4. 异步请求使用的线程池<br/>
+ * 注意：连接的复用由JDK的keep-alive缓存完成，每个主机缓存的空闲连接数由系统属性http.maxConnections控制（默认为5），
+ * 高并发调用同一个主机时建议通过-Dhttp.maxConnections将其设置为maxConnectionsPerHost，否则超出的连接在使用后会被关闭
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class HttpClientConfig {
+
+    public static final int DEFAULT_CONNECT_TIMEOUT = 5000;// 默认连接超时时间（毫秒）
+    public static final int DEFAULT_READ_TIMEOUT = 30000;// 默认读取超时时间（毫秒）
+    public static final int DEFAULT_ACQUIRE_TIMEOUT = 5000;// 默认等待可用连接的超时时间（毫秒）
+    public static final int DEFAULT_MAX_CONNECTIONS = 200;// 默认全局连接数上限
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 20;// 默认每个主机的连接数上限
+    public static final int DEFAULT_CHUNK_SIZE = 8192;// 默认分块传输请求体时每个分块的大小（字节）
+
+    private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private int readTimeout = DEFAULT_READ_TIMEOUT;
+    private int acquireTimeout = DEFAULT_ACQUIRE_TIMEOUT;
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+    private boolean followRedirects = true;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private ObjectMapper objectMapper = DEFAULT_MAPPER;
+    private Executor executor;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    public HttpClientConfig() {
+        headers.put("Accept", "*/*");
+        headers.put("User-Agent", "Mozilla/4.0 (compatible; MSIE 6.0; Windows NT 5.1;SV1)");
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * @param connectTimeout 连接超时时间（毫秒），0表示不限制
+     * @return 当前配置
+     */
+    public HttpClientConfig setConnectTimeout(int connectTimeout) {
+        if (connectTimeout < 0) {
+            throw new IllegalArgumentException("connectTimeout不能小于0");
+        }
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * @param readTimeout 读取超时时间（毫秒），即两次读取到数据之间的最长间隔，0表示不限制
+     * @return 当前配置
+     */
+    public HttpClientConfig setReadTimeout(int readTimeout) {
+        if (readTimeout < 0) {
+            throw new IllegalArgumentException("readTimeout不能小于0");
+        }
+        this.readTimeout = readTimeout;
+        return this;
+    }
+
+    public int getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    /**
+     * @param acquireTimeout 连接数达到上限时等待可用连接的超时时间（毫秒），0表示不等待
+     * @return 当前配置
+     */
+    public HttpClientConfig setAcquireTimeout(int acquireTimeout) {
+        if (acquireTimeout < 0) {
+            throw new IllegalArgumentException("acquireTimeout不能小于0");
+        }
+        this.acquireTimeout = acquireTimeout;
+        return this;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * @param maxConnections 全局连接数上限，创建HttpClient之后修改不生效
+     * @return 当前配置
+     */
+    public HttpClientConfig setMaxConnections(int maxConnections) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("maxConnections必须大于0");
+        }
+        this.maxConnections = maxConnections;
+        return this;
+    }
+
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    /**
+     * @param maxConnectionsPerHost 每个主机（协议+主机名+端口）的连接数上限，创建HttpClient之后修改不生效
+     * @return 当前配置
+     */
+    public HttpClientConfig setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        if (maxConnectionsPerHost <= 0) {
+            throw new IllegalArgumentException("maxConnectionsPerHost必须大于0");
+        }
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        return this;
+    }
+
+    public boolean isFollowRedirects() {
+        return followRedirects;
+    }
+
+    /**
+     * @param followRedirects 是否自动跟随重定向（不会跨协议跟随）
+     * @return 当前配置
+     */
+    public HttpClientConfig setFollowRedirects(boolean followRedirects) {
+        this.followRedirects = followRedirects;
+        return this;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize 长度未知的请求体分块传输时每个分块的大小（字节）
+     * @return 当前配置
+     */
+    public HttpClientConfig setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize必须大于0");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * @param objectMapper JSON序列化与反序列化使用的ObjectMapper
+     * @return 当前配置
+     */
+    public HttpClientConfig setObjectMapper(ObjectMapper objectMapper) {
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("objectMapper不能为null");
+        }
+        this.objectMapper = objectMapper;
+        return this;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @param executor 异步请求使用的线程池，为null时由HttpClient创建：JDK支持虚拟线程时使用虚拟线程，
+     *                 否则使用线程数为maxConnections的守护线程池。创建HttpClient之后修改不生效
+     * @return 当前配置
+     */
+    public HttpClientConfig setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * @return 每个请求默认携带的请求头（只读）
+     */
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * 设置每个请求默认携带的请求头，单个请求指定的同名请求头优先。创建HttpClient之后修改不生效
+     *
+     * @param name  请求头名称
+     * @param value 请求头的值，为null时删除该请求头
+     * @return 当前配置
+     */
+    public HttpClientConfig setHeader(String name, String value) {
+        if (value == null) {
+            headers.remove(name);
+        } else {
+            headers.put(name, value);
+        }
+        return this;
+    }
+}
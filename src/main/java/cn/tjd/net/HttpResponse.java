@@ -0,0 +1,221 @@
+package cn.tjd.net;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Http响应，以流的方式读取响应体，不需要先把整个响应读入内存：<br/>
+ * 1. 字符集取自Content-Type的charset参数，没有指定时为UTF-8<br/>
+ * 2. 支持分块传输（chunked）以及长度未知的响应，读取到流的末尾为止<br/>
+ * 3. readJson()通过ObjectMapper直接从流中反序列化，不会生成中间的String<br/>
+ * 使用完毕后需要关闭：响应体剩余的内容较少时读取并丢弃，连接可以被复用；剩余较多时直接断开连接。关闭后归还占用的连接数
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class HttpResponse implements Closeable {
+
+    private static final int DRAIN_LIMIT = 64 * 1024;// 关闭时最多读取并丢弃的字节数，超出后断开连接
+    private static final int BUFFER_SIZE = 8192;
+
+    private final HttpURLConnection connection;
+    private final int statusCode;
+    private final InputStream inputStream;
+    private final InputStream body;
+    private final ObjectMapper mapper;
+    private final Runnable onClose;
+    private boolean closed;
+
+    HttpResponse(HttpURLConnection connection, int statusCode, InputStream inputStream, ObjectMapper mapper,
+                 Runnable onClose) {
+        this.connection = connection;
+        this.statusCode = statusCode;
+        this.inputStream = inputStream;
+        this.mapper = mapper;
+        this.onClose = onClose;
+        // 调用方（包括Jackson）关闭响应体时不关闭底层的流，由close()统一处理，保证连接可以被复用
+        this.body = new FilterInputStream(inputStream) {
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @param name 响应头名称，不区分大小写
+     * @return 响应头的值，有多个值时返回最后一个，不存在时返回null
+     */
+    public String getHeader(String name) {
+        return connection.getHeaderField(name);
+    }
+
+    /**
+     * @return 全部响应头
+     */
+    public Map<String, List<String>> getHeaders() {
+        return connection.getHeaderFields();
+    }
+
+    public String getContentType() {
+        return connection.getContentType();
+    }
+
+    /**
+     * @return 响应体的长度，分块传输或长度未知时为-1
+     */
+    public long getContentLength() {
+        return connection.getContentLengthLong();
+    }
+
+    /**
+     * @return Content-Type中指定的字符集，没有指定或者不支持时为UTF-8
+     */
+    public Charset getCharset() {
+        return charsetOf(getContentType());
+    }
+
+    /**
+     * @return 响应体的输入流，关闭该流不会关闭连接
+     */
+    public InputStream getBody() {
+        return body;
+    }
+
+    /**
+     * @return 按响应的字符集读取响应体的Reader
+     */
+    public Reader getReader() {
+        return new InputStreamReader(body, getCharset());
+    }
+
+    /**
+     * 按响应的字符集将响应体读取为字符串，保留原有的换行符
+     *
+     * @return
+     * @throws IOException
+     */
+    public String bodyAsString() throws IOException {
+        Reader reader = getReader();
+        StringBuilder sb = new StringBuilder(getContentLength() > 0 && getContentLength() < Integer.MAX_VALUE
+                ? (int) getContentLength() : 256);
+        char[] buffer = new char[BUFFER_SIZE / 2];
+        int n;
+        while ((n = reader.read(buffer)) > 0) {
+            sb.append(buffer, 0, n);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 从响应体中直接反序列化JSON
+     *
+     * @param type 目标类型
+     * @return
+     * @throws IOException
+     */
+    public <T> T readJson(Class<T> type) throws IOException {
+        return isUnicode() ? mapper.readValue(body, type) : mapper.readValue(getReader(), type);
+    }
+
+    /**
+     * 从响应体中直接反序列化JSON，用于泛型类型，如new TypeReference&lt;List&lt;User&gt;&gt;() {}
+     *
+     * @param type 目标类型
+     * @return
+     * @throws IOException
+     */
+    public <T> T readJson(TypeReference<T> type) throws IOException {
+        return isUnicode() ? mapper.<T>readValue(body, type) : mapper.<T>readValue(getReader(), type);
+    }
+
+    /**
+     * Jackson可以直接从字节流中识别UTF-8、UTF-16、UTF-32编码，其他字符集需要先解码
+     */
+    private boolean isUnicode() {
+        return getCharset().name().startsWith("UTF-");
+    }
+
+    /**
+     * 关闭响应：剩余内容不超过DRAIN_LIMIT时读取并丢弃（连接可以被复用），否则断开连接。重复调用没有影响
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long drained = 0;
+            int n;
+            while ((n = inputStream.read(buffer)) > 0) {
+                drained += n;
+                if (drained > DRAIN_LIMIT) {
+                    connection.disconnect();
+                    return;
+                }
+            }
+            inputStream.close();
+        } catch (IOException e) {
+            connection.disconnect();
+        } finally {
+            onClose.run();
+        }
+    }
+
+    /**
+     * 断开连接，读取响应失败时调用，连接不会被复用
+     */
+    void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            connection.disconnect();
+        } finally {
+            onClose.run();
+        }
+    }
+
+    /**
+     * 解析Content-Type中的charset参数
+     */
+    static Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            for (String param : contentType.split(";")) {
+                param = param.trim();
+                if (param.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                    String name = param.substring("charset=".length()).trim();
+                    if (name.length() > 1 && name.startsWith("\"") && name.endsWith("\"")) {
+                        name = name.substring(1, name.length() - 1);
+                    }
+                    try {
+                        return Charset.forName(name);
+                    } catch (IllegalArgumentException e) {
+                        break;// 不支持的字符集
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
@@ -0,0 +1,35 @@
+package cn.tjd.net;
+
+import java.io.IOException;
+
+/**
+ * 服务端返回错误状态码（4xx、5xx）时抛出的异常，携带状态码与错误响应的内容
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class HttpResponseException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final String body;
+
+    public HttpResponseException(int statusCode, String url, String body) {
+        super("Server returned HTTP response code: " + statusCode + " for URL: " + url);
+        this.statusCode = statusCode;
+        this.body = body;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return 错误响应的内容，过长时被截断
+     */
+    public String getBody() {
+        return body;
+    }
+}
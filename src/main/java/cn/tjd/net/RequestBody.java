@@ -0,0 +1,148 @@
+package cn.tjd.net;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 请求体，直接写入连接的输出流，不在内存中缓冲整个请求：<br/>
+ * 1. 长度已知（byte[]、指定长度的InputStream）时使用固定长度的流模式，发送Content-Length<br/>
+ * 2. 长度未知（JSON对象、未指定长度的InputStream、自定义写出逻辑）时使用分块传输（chunked）<br/>
+ * 注意：基于InputStream与自定义写出逻辑的请求体只能发送一次；流模式下HttpURLConnection不会自动重发请求，
+ * 需要跟随的重定向或者身份认证会抛出HttpRetryException
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public abstract class RequestBody {
+
+    public static final String JSON = "application/json";
+    public static final String OCTET_STREAM = "application/octet-stream";
+
+    /**
+     * 自定义的请求体写出逻辑
+     */
+    public interface BodyWriter {
+        void write(OutputStream outputStream) throws IOException;
+    }
+
+    private final String contentType;
+
+    protected RequestBody(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * @return 请求体的类型，为null时不设置Content-Type
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return 请求体的长度，未知时为-1（使用分块传输）
+     */
+    public abstract long getContentLength();
+
+    /**
+     * 写出请求体，输出流由调用方关闭
+     *
+     * @param outputStream 连接的输出流
+     * @param mapper       HttpClient配置的ObjectMapper
+     * @throws IOException
+     */
+    protected abstract void writeTo(OutputStream outputStream, ObjectMapper mapper) throws IOException;
+
+    /**
+     * 将对象序列化为JSON，由ObjectMapper直接写入连接的输出流
+     *
+     * @param value 任意可以被Jackson序列化的对象
+     * @return
+     */
+    public static RequestBody json(final Object value) {
+        return new RequestBody(JSON) {
+            @Override
+            public long getContentLength() {
+                return -1;
+            }
+
+            @Override
+            protected void writeTo(OutputStream outputStream, ObjectMapper mapper) throws IOException {
+                mapper.writeValue(outputStream, value);
+            }
+        };
+    }
+
+    /**
+     * @param data        请求体的内容
+     * @param contentType 请求体的类型
+     * @return
+     */
+    public static RequestBody bytes(final byte[] data, String contentType) {
+        return new RequestBody(contentType) {
+            @Override
+            public long getContentLength() {
+                return data.length;
+            }
+
+            @Override
+            protected void writeTo(OutputStream outputStream, ObjectMapper mapper) throws IOException {
+                outputStream.write(data);
+            }
+        };
+    }
+
+    /**
+     * 从输入流中读取请求体，发送完毕后关闭输入流
+     *
+     * @param inputStream 输入流
+     * @param length      内容的长度，未知时为-1
+     * @param contentType 请求体的类型
+     * @return
+     */
+    public static RequestBody stream(final InputStream inputStream, final long length, String contentType) {
+        return new RequestBody(contentType) {
+            @Override
+            public long getContentLength() {
+                return length;
+            }
+
+            @Override
+            protected void writeTo(OutputStream outputStream, ObjectMapper mapper) throws IOException {
+                try {
+                    byte[] buffer = new byte[8192];
+                    int n;
+                    while ((n = inputStream.read(buffer)) > 0) {
+                        outputStream.write(buffer, 0, n);
+                    }
+                } finally {
+                    inputStream.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * 由回调直接向连接的输出流写出请求体，使用分块传输
+     *
+     * @param contentType 请求体的类型
+     * @param writer      写出逻辑，不需要关闭输出流
+     * @return
+     */
+    public static RequestBody writer(String contentType, final BodyWriter writer) {
+        return new RequestBody(contentType) {
+            @Override
+            public long getContentLength() {
+                return -1;
+            }
+
+            @Override
+            protected void writeTo(OutputStream outputStream, ObjectMapper mapper) throws IOException {
+                writer.write(outputStream);
+            }
+        };
+    }
+}
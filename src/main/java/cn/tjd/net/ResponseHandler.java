@@ -0,0 +1,20 @@
+package cn.tjd.net;
+
+import java.io.IOException;
+
+/**
+ * 响应处理回调，以流的方式消费响应体。回调返回后剩余的响应内容会被读取并丢弃，连接归还后可以被复用
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public interface ResponseHandler<T> {
+
+    /**
+     * @param response 响应，仅在回调期间有效，不需要关闭
+     * @return 处理结果
+     * @throws IOException
+     */
+    T handle(HttpResponse response) throws IOException;
+}
@@ -0,0 +1,58 @@
+package cn.tjd.file;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * BeanAccessor属性读写的测试
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class BeanAccessorTest {
+
+    public static class Item {
+        public String code;// 没有getter与setter，直接访问
+        public int count;
+        public final String fixed = "fixed";
+        private String secret = "secret";
+        public String name = "field";
+
+        public String getName() {
+            return "getter";
+        }
+
+        public void setName(String name) {
+            this.name = name + "!";
+        }
+    }
+
+    @Test
+    public void publicFieldsWithoutGetters() {
+        BeanAccessor accessor = BeanAccessor.of(Item.class);
+        Item item = new Item();
+        item.code = "A1";
+        item.count = 3;
+        Assert.assertEquals("A1", accessor.get(item, "code"));
+        Assert.assertEquals(3, accessor.get(item, "count"));
+        Assert.assertEquals("fixed", accessor.get(item, "fixed"));
+        Assert.assertEquals("getter", accessor.get(item, "name"));// getter优先
+        Assert.assertNull(accessor.getter("secret"));// 非public字段不导出
+        Assert.assertNull(accessor.getter("missing"));
+    }
+
+    @Test
+    public void publicFieldsWithoutSetters() {
+        BeanAccessor accessor = BeanAccessor.of(Item.class);
+        Item item = (Item) accessor.newInstance();
+        accessor.binder("code").bind(item, "B2");
+        accessor.binder("count").bind(item, " 7 ");
+        accessor.binder("name").bind(item, "x");
+        Assert.assertEquals("B2", item.code);
+        Assert.assertEquals(7, item.count);
+        Assert.assertEquals("x!", item.name);// setter优先
+        Assert.assertNull(accessor.binder("fixed"));
+        Assert.assertNull(accessor.binder("secret"));
+    }
+}
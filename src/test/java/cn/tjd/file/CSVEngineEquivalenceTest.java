@@ -0,0 +1,141 @@
+package cn.tjd.file;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NATIVE与COMMONS_CSV两种写入引擎的输出必须逐字节一致
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class CSVEngineEquivalenceTest {
+
+    private static final List<Object> EDGE_VALUES = Arrays.<Object>asList(
+            // 文本：引号、逗号、换行、首尾空白、以#开头、空字符串、非ASCII字符与不成对的代理字符
+            "plain", "", " ", "a\"b", "\"", "a,b", "a\rb", "a\nb", "a\r\nb", "\r\n", " lead", "trail ", "#hash",
+            "中文", "emoji😀", "lone\uD800", "tab\t", "x=\"1\"",
+            // 数字
+            0, -1, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE, (short) -7, (byte) 3,
+            new BigInteger("-123456789012345678901234567890"), new BigDecimal("1.005"),
+            0.0, -0.0, 1.005, 2.675, -2.675, 0.125, 1e15, 1e20, -1e-10, 123456789.987654321,
+            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE, Double.MAX_VALUE,
+            0.1f, -0.0f, 1.005f, Float.NaN, Float.MAX_VALUE,
+            // 日期：公历切换前后、三位数年份、公元前、五位数年份
+            date(2020, 4, 6, 23, 59, 59), date(1970, 1, 1, 0, 0, 0), date(1582, 10, 4, 12, 0, 0),
+            date(1582, 10, 15, 12, 0, 0), date(1500, 6, 1, 0, 0, 0), date(999, 12, 31, 23, 59, 59),
+            new Date(-70000000000000L), new Date(300000000000000L), new Timestamp(1586188800123L),
+            LocalDate.of(1500, 6, 1), LocalDateTime.of(2020, 4, 6, 8, 0),
+            // 其他类型
+            true, false, 'c', '"', null);
+
+    private static Date date(int year, int month, int day, int hour, int minute, int second) {
+        return new GregorianCalendar(year, month - 1, day, hour, minute, second).getTime();
+    }
+
+    private static LinkedHashMap<String, String> headMap(int columns) {
+        LinkedHashMap<String, String> headMap = new LinkedHashMap<>();
+        for (int i = 0; i < columns; i++) {
+            headMap.put("c" + i, "c" + i);
+        }
+        return headMap;
+    }
+
+    /**
+     * 每个边界值分别出现在行首、行中与行尾
+     */
+    private static List<Map<String, Object>> rows() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Object value : EDGE_VALUES) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("c0", value);
+            row.put("c1", value);
+            row.put("c2", "x");
+            row.put("c3", value);
+            rows.add(row);
+        }
+        Map<String, Object> allNull = new LinkedHashMap<>();
+        rows.add(allNull);
+        return rows;
+    }
+
+    private static byte[] export(String encoding, CSVUtils.Engine engine, ParallelFormatting parallel) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CSVUtils.generateCsvFromIterator(headMap(4), rows().iterator(), encoding, out, engine, CellFormatters.DEFAULT,
+                parallel);
+        return out.toByteArray();
+    }
+
+    private static void assertSameOutput(String encoding, ParallelFormatting parallel) throws IOException {
+        String expected = new String(export(encoding, CSVUtils.Engine.COMMONS_CSV, parallel), encoding);
+        String actual = new String(export(encoding, CSVUtils.Engine.NATIVE, parallel), encoding);
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void utf8() throws IOException {
+        assertSameOutput("UTF-8", null);
+    }
+
+    @Test
+    public void gbk() throws IOException {
+        assertSameOutput("GBK", null);
+    }
+
+    @Test
+    public void parallel() throws IOException {
+        assertSameOutput("UTF-8", new ParallelFormatting().setBatchSize(7));
+        Assert.assertEquals(new String(export("UTF-8", CSVUtils.Engine.COMMONS_CSV, null), "UTF-8"),
+                new String(export("UTF-8", CSVUtils.Engine.NATIVE, new ParallelFormatting().setBatchSize(7)), "UTF-8"));
+    }
+
+    @Test
+    public void parallelFailureRethrowsIOException() {
+        CellFormatters failing = CellFormatters.create().forColumn("c2", new CellFormatter() {
+            @Override
+            public String format(Object value) {
+                throw new UncheckedIOException(new IOException("format failed"));
+            }
+        });
+        for (CSVUtils.Engine engine : CSVUtils.Engine.values()) {
+            try {
+                CSVUtils.generateCsvFromIterator(headMap(4), rows().iterator(), "UTF-8", new ByteArrayOutputStream(),
+                        engine, failing, new ParallelFormatting().setBatchSize(7));
+                Assert.fail(engine.name());
+            } catch (IOException e) {
+                Assert.assertEquals("format failed", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void dateRoutineIsShared() throws IOException {
+        for (Object value : EDGE_VALUES) {
+            if (value instanceof Date) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                CSVByteWriter writer = new CSVByteWriter(out, StandardCharsets.UTF_8, 1024);
+                writer.writeDate((Date) value);
+                writer.close();
+                Assert.assertEquals(CellFormatters.DEFAULT_DATE.format(value), out.toString("UTF-8"));
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package cn.tjd.file;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+/**
+ * CellFormatters默认规则的测试
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class CellFormattersTest {
+
+    private static Date date(int year, int month, int day, int hour, int minute, int second) {
+        Calendar calendar = new GregorianCalendar(year, month - 1, day, hour, minute, second);
+        return calendar.getTime();
+    }
+
+    @Test
+    public void dateMatchesSimpleDateFormat() {
+        Date date = date(2020, 4, 10, 8, 5, 9);
+        Assert.assertEquals("2020-04-10 08:05:09", CellFormatters.DEFAULT.format(null, date));
+        Assert.assertEquals(new SimpleDateFormat(CSVUtils.DEFAULT_DATE_PATTERN).format(date),
+                CellFormatters.DEFAULT.format(null, date));
+    }
+
+    @Test
+    public void dateBeforeGregorianCutoverUsesJulianCalendar() {
+        // java.util.Date在1582-10-15之前使用儒略历，输出需要与SimpleDateFormat一致
+        Date date = date(1500, 6, 1, 0, 0, 0);
+        Assert.assertEquals("1500-06-01 00:00:00", CellFormatters.DEFAULT.format(null, date));
+        Assert.assertEquals("1500-06-01", CellFormatters.date("yyyy-MM-dd").format(date));
+        Assert.assertEquals("1582-10-04", CellFormatters.date("yyyy-MM-dd").format(date(1582, 10, 4, 0, 0, 0)));
+        Assert.assertEquals("1582-10-15", CellFormatters.date("yyyy-MM-dd").format(date(1582, 10, 15, 0, 0, 0)));
+    }
+
+    @Test
+    public void javaTimeUsesIsoCalendar() {
+        Assert.assertEquals("1500-06-01", CellFormatters.DEFAULT.format(null, LocalDate.of(1500, 6, 1)));
+        Assert.assertEquals("1500-06-01 12:30:00",
+                CellFormatters.DEFAULT.format(null, LocalDateTime.of(1500, 6, 1, 12, 30)));
+    }
+
+    @Test
+    public void patternSupportedOnlyByDateTimeFormatter() {
+        // 'e'（本地化的星期）不被SimpleDateFormat支持，Date按DateTimeFormatter格式化
+        CellFormatter formatter = CellFormatters.date("yyyy-MM-dd e");
+        Assert.assertTrue(formatter.format(date(2020, 4, 10, 0, 0, 0)).startsWith("2020-04-10 "));
+    }
+}
@@ -0,0 +1,34 @@
+package cn.tjd.file;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * ColumnTable字典编码列的测试
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class ColumnTableTest {
+
+    private static final String[] DICTIONARY = {"北京", "上海"};
+
+    @Test
+    public void validCodes() {
+        ColumnTable table = new ColumnTable(3).addString("城市", DICTIONARY, new int[]{0, -1, 1});
+        Assert.assertEquals(1, table.getColumnCount());
+    }
+
+    @Test
+    public void invalidCodes() {
+        for (int code : new int[]{2, -2, Integer.MAX_VALUE}) {
+            try {
+                new ColumnTable(3).addString("城市", DICTIONARY, new int[]{0, code, 1});
+                Assert.fail(String.valueOf(code));
+            } catch (IllegalArgumentException e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("：" + code + "，"));
+            }
+        }
+    }
+}
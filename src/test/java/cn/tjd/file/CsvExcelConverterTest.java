@@ -0,0 +1,81 @@
+package cn.tjd.file;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV转Excel的测试
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class CsvExcelConverterTest {
+
+    private static List<List<String>> convert(String csv, String encoding, boolean firstRowAsHeader,
+                                              ExcelUtils.ExcelType excelType) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvExcelConverter.csvToExcel(new ByteArrayInputStream(csv.getBytes(encoding)), encoding, firstRowAsHeader,
+                excelType, "data", out, ExcelExportConfig.DEFAULT);
+        Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()));
+        try {
+            DataFormatter formatter = new DataFormatter();
+            Sheet sheet = workbook.getSheetAt(0);
+            List<List<String>> rows = new ArrayList<>();
+            for (int r = 0; r <= sheet.getLastRowNum(); r++) {
+                Row row = sheet.getRow(r);
+                List<String> values = new ArrayList<>();
+                for (int c = 0; c < row.getLastCellNum(); c++) {
+                    values.add(formatter.formatCellValue(row.getCell(c)));
+                }
+                rows.add(values);
+            }
+            return rows;
+        } finally {
+            workbook.close();
+        }
+    }
+
+    private static List<String> row(String... values) {
+        List<String> row = new ArrayList<>();
+        for (String value : values) {
+            row.add(value);
+        }
+        return row;
+    }
+
+    @Test
+    public void bomBeforeQuotedHeader() throws Exception {
+        for (ExcelUtils.ExcelType excelType : ExcelUtils.ExcelType.values()) {
+            for (String encoding : new String[]{"UTF-8", "UTF-16LE"}) {
+                List<List<String>> rows = convert("\uFEFF\"名称\",\"数量\"\r\na,1\r\n", encoding, true, excelType);
+                Assert.assertEquals(excelType + " " + encoding, row("名称", "数量"), rows.get(0));
+                Assert.assertEquals(row("a", "1"), rows.get(1));
+            }
+        }
+    }
+
+    @Test
+    public void raggedRowsKeepExtraFields() throws Exception {
+        for (ExcelUtils.ExcelType excelType : ExcelUtils.ExcelType.values()) {
+            List<List<String>> rows = convert("a,b\r\n1,2,3,4\r\n5\r\n", "UTF-8", true, excelType);
+            Assert.assertEquals(excelType.name(), row("a", "b"), rows.get(0));
+            Assert.assertEquals(excelType.name(), row("1", "2", "3", "4"), rows.get(1));
+            Assert.assertEquals(excelType.name(), row("5", ""), rows.get(2));
+
+            rows = convert("1\r\n2,3\r\n", "UTF-8", false, excelType);
+            Assert.assertEquals(excelType.name(), row("1"), rows.get(0));
+            Assert.assertEquals(excelType.name(), row("2", "3"), rows.get(1));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package cn.tjd.file;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+/**
+ * ExcelCellValue数值解析的测试
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class ExcelCellValueTest {
+
+    private static boolean resolves(String decimal) {
+        return new ExcelCellValue().resolve(new BigDecimal(decimal));
+    }
+
+    @Test
+    public void bigDecimalWithinFifteenSignificantDigits() {
+        Assert.assertTrue(resolves("123456789012345"));
+        Assert.assertTrue(resolves("1234567890.12345"));
+        Assert.assertTrue(resolves("0.123456789012345"));
+        Assert.assertTrue(resolves("1.500000000000000000"));// DECIMAL(38,18)末尾的0不计入有效数字
+        Assert.assertTrue(resolves("-99.99"));
+    }
+
+    @Test
+    public void bigDecimalBeyondFifteenSignificantDigits() {
+        Assert.assertFalse(resolves("0.1234567890123456"));
+        Assert.assertFalse(resolves("1234567890.123456"));
+        Assert.assertFalse(resolves("1234567890123456"));
+        Assert.assertFalse(resolves("1E+20"));
+    }
+}
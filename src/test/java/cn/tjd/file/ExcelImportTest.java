@@ -0,0 +1,182 @@
+package cn.tjd.file;
+
+import org.apache.poi.hssf.usermodel.HSSFFormulaEvaluator;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFFormulaEvaluator;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ExcelUtils基于SAX的导入（ExcelSaxReader、ExcelRowIterator）的测试
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class ExcelImportTest {
+
+    public static class Person {
+        private String name;
+        private int age;
+        private String note;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public String getNote() {
+            return note;
+        }
+
+        public void setNote(String note) {
+            this.note = note;
+        }
+    }
+
+    private static Workbook newWorkbook(boolean xlsx) {
+        return xlsx ? new XSSFWorkbook() : new HSSFWorkbook();
+    }
+
+    private static byte[] write(Workbook workbook) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            workbook.write(out);
+        } finally {
+            workbook.close();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 表头：姓名、年龄、备注，rows行数据
+     */
+    private static byte[] people(boolean xlsx, int rows) throws IOException {
+        Workbook workbook = newWorkbook(xlsx);
+        Sheet sheet = workbook.createSheet("data");
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("姓名");
+        header.createCell(1).setCellValue("年龄");
+        header.createCell(2).setCellValue("备注");
+        for (int i = 1; i <= rows; i++) {
+            Row row = sheet.createRow(i);
+            row.createCell(0).setCellValue("name" + i);
+            row.createCell(1).setCellValue(20 + i);
+            if (i % 2 == 0) {
+                row.createCell(2).setCellValue("note" + i);
+            }
+        }
+        return write(workbook);
+    }
+
+    @Test
+    public void headerMapping() throws IOException {
+        Map<String, String> headMap = new LinkedHashMap<>();
+        headMap.put("name", "姓名");
+        headMap.put("age", "年龄");
+        headMap.put("note", "备注");
+        for (boolean xlsx : new boolean[]{false, true}) {
+            byte[] data = people(xlsx, 3);
+            List<Map<String, String>> rows = ExcelUtils.readAll(new ByteArrayInputStream(data));
+            Assert.assertEquals(3, rows.size());
+            Assert.assertEquals("name1", rows.get(0).get("姓名"));
+            Assert.assertEquals("21", rows.get(0).get("年龄"));
+            Assert.assertEquals("note2", rows.get(1).get("备注"));
+
+            List<Person> people = ExcelUtils.readAll(new ByteArrayInputStream(data), Person.class, headMap);
+            Assert.assertEquals(3, people.size());
+            Assert.assertEquals("name3", people.get(2).getName());
+            Assert.assertEquals(23, people.get(2).getAge());
+            Assert.assertEquals("note2", people.get(1).getNote());
+            Assert.assertTrue(people.get(0).getNote() == null || people.get(0).getNote().isEmpty());
+        }
+    }
+
+    @Test
+    public void formulaResults() throws IOException {
+        for (boolean xlsx : new boolean[]{false, true}) {
+            Workbook workbook = newWorkbook(xlsx);
+            Sheet sheet = workbook.createSheet("data");
+            Row header = sheet.createRow(0);
+            String[] titles = {"a", "b", "text", "number", "flag"};
+            for (int i = 0; i < titles.length; i++) {
+                header.createCell(i).setCellValue(titles[i]);
+            }
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("ab");
+            row.createCell(1).setCellValue(2);
+            row.createCell(2).setCellFormula("A2&\"-\"&B2");
+            row.createCell(3).setCellFormula("B2*3");
+            row.createCell(4).setCellFormula("B2>1");
+            if (xlsx) {
+                XSSFFormulaEvaluator.evaluateAllFormulaCells((XSSFWorkbook) workbook);
+            } else {
+                HSSFFormulaEvaluator.evaluateAllFormulaCells(workbook);
+            }
+            List<Map<String, String>> rows = ExcelUtils.readAll(new ByteArrayInputStream(write(workbook)));
+            Assert.assertEquals(1, rows.size());
+            Assert.assertEquals(xlsx + "", "ab-2", rows.get(0).get("text"));
+            Assert.assertEquals(xlsx + "", "6", rows.get(0).get("number"));
+            Assert.assertEquals(xlsx + "", "TRUE", rows.get(0).get("flag"));
+        }
+    }
+
+    /**
+     * 记录是否被关闭的输入流
+     */
+    private static final class TrackingInputStream extends FilterInputStream {
+        volatile boolean closed;
+
+        TrackingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+
+    @Test
+    public void earlyClose() throws IOException {
+        for (boolean xlsx : new boolean[]{false, true}) {
+            TrackingInputStream in = new TrackingInputStream(new ByteArrayInputStream(people(xlsx, 5000)));
+            ExcelRowIterator iterator = ExcelUtils.iterator(in);
+            try {
+                Assert.assertTrue(iterator.hasNext());
+                Assert.assertEquals("name1", iterator.next().get("姓名"));
+            } finally {
+                iterator.close();
+            }
+            // close()等待后台解析线程结束，解析线程退出时关闭输入流
+            Assert.assertTrue(xlsx + "", in.closed);
+            Assert.assertFalse(iterator.hasNext());
+            iterator.close();// 重复关闭没有影响
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package cn.tjd.file;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ExcelUtils导出的测试
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class ExcelUtilsTest {
+
+    /**
+     * 写入指定字节数后抛出IOException的输出流
+     */
+    private static final class FailingOutputStream extends OutputStream {
+        private final int limit;
+        private int written;
+        boolean closed;
+
+        FailingOutputStream(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (++written > limit) {
+                throw new IOException("disk full");
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static LinkedHashMap<String, String> header() {
+        LinkedHashMap<String, String> headMap = new LinkedHashMap<>();
+        headMap.put("name", "姓名");
+        headMap.put("age", "年龄");
+        return headMap;
+    }
+
+    private static List<Map<String, Object>> rows(int count) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("name", "name" + i);
+            row.put("age", i);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static void assertWriteFails(ExcelUtils.ExcelType excelType) {
+        FailingOutputStream out = new FailingOutputStream(100);
+        try {
+            ExcelUtils.createWorkBookByMap(excelType, header(), rows(100), "sheet", out);
+            Assert.fail(excelType + "：写出失败时应当抛出异常");
+        } catch (UncheckedIOException e) {
+            Assert.assertEquals("disk full", e.getCause().getMessage());
+        }
+        Assert.assertTrue(excelType + "：写出失败时应当关闭输出流", out.closed);
+    }
+
+    @Test
+    public void writeFailurePropagates() {
+        assertWriteFails(ExcelUtils.ExcelType.XLS);
+        assertWriteFails(ExcelUtils.ExcelType.XLSX);
+        assertWriteFails(ExcelUtils.ExcelType.XLSX_STREAM);
+    }
+
+    private static String[] sheetNames(ExcelUtils.ExcelType excelType, String sheetName, int maxRowsPerSheet, int rows)
+            throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelUtils.createWorkBookByMap(excelType, header(), rows(rows), sheetName, out, CellFormatters.DEFAULT,
+                new ExcelExportConfig().setMaxRowsPerSheet(maxRowsPerSheet));
+        Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()));
+        try {
+            String[] names = new String[workbook.getNumberOfSheets()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = workbook.getSheetName(i);
+            }
+            return names;
+        } finally {
+            workbook.close();
+        }
+    }
+
+    @Test
+    public void rolloverSheetNamesFitAndAreUnique() throws Exception {
+        String name30 = "abcdefghijklmnopqrstuvwxyz0123";
+        String name31 = "abcdefghijklmnopqrstuvwxyz012_2";
+        for (ExcelUtils.ExcelType excelType : new ExcelUtils.ExcelType[]{ExcelUtils.ExcelType.XLSX, ExcelUtils.ExcelType.XLSX_STREAM}) {
+            String[] names = sheetNames(excelType, name30, 3, 5);
+            Assert.assertEquals(3, names.length);
+            Assert.assertEquals(name30, names[0]);
+            Assert.assertEquals("abcdefghijklmnopqrstuvwxyz012_2", names[1]);
+            Assert.assertEquals("abcdefghijklmnopqrstuvwxyz012_3", names[2]);
+
+            // 截断后的名称与第一个Sheet重名时跳过该序号
+            names = sheetNames(excelType, name31, 3, 5);
+            Assert.assertEquals(3, names.length);
+            Assert.assertEquals(name31, names[0]);
+            Assert.assertEquals("abcdefghijklmnopqrstuvwxyz012_3", names[1]);
+            Assert.assertEquals("abcdefghijklmnopqrstuvwxyz012_4", names[2]);
+        }
+    }
+
+    @Test
+    public void sheetNamesAreSanitized() throws Exception {
+        for (ExcelUtils.ExcelType excelType : ExcelUtils.ExcelType.values()) {
+            String[] names = sheetNames(excelType, "2020/01:[*?]\\sales", 0, 1);
+            Assert.assertEquals("2020 01      sales", names[0]);
+            names = sheetNames(excelType, "abcdefghijklmnopqrstuvwxyz0123456789", 0, 1);
+            Assert.assertEquals("abcdefghijklmnopqrstuvwxyz01234", names[0]);
+        }
+    }
+
+    @Test
+    public void streamWriterValidatesSheetNames() throws IOException {
+        XlsxStreamWriter writer = new XlsxStreamWriter(new ByteArrayOutputStream());
+        writer.startSheet("Sheet", null);
+        for (String name : new String[]{"sheet", "a/b", "abcdefghijklmnopqrstuvwxyz0123456789", ""}) {
+            try {
+                writer.startSheet(name, null);
+                Assert.fail(name);
+            } catch (IllegalArgumentException expected) {
+                // 与POI的createSheet一致
+            }
+        }
+        writer.close();
+    }
+
+    @Test
+    public void defaultConfigIsReadOnly() {
+        try {
+            ExcelExportConfig.DEFAULT.setTypedCells(false);
+            Assert.fail();
+        } catch (UnsupportedOperationException expected) {
+            // DEFAULT被所有未指定配置的导出共享
+        }
+        Assert.assertTrue(ExcelExportConfig.DEFAULT.isTypedCells());
+    }
+}
@@ -0,0 +1,206 @@
+package cn.tjd.file;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ExportCache下载与淘汰的测试，请求与响应由动态代理模拟
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class ExportCacheTest {
+
+    private File dir;
+    private ExportCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("export-cache").toFile();
+        cache = new ExportCache(dir, 1 << 20, 10);
+    }
+
+    @After
+    public void tearDown() {
+        cache.clear();
+        dir.delete();
+    }
+
+    /**
+     * 记录状态码、响应头与响应体的响应
+     */
+    private static final class RecordingResponse implements InvocationHandler {
+        int status = HttpServletResponse.SC_OK;
+        final Map<String, String> headers = new HashMap<>();
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        Runnable onWrite;
+
+        HttpServletResponse proxy() {
+            return (HttpServletResponse) Proxy.newProxyInstance(ExportCacheTest.class.getClassLoader(),
+                    new Class<?>[]{HttpServletResponse.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if ("setStatus".equals(name) || "sendError".equals(name)) {
+                status = (Integer) args[0];
+            } else if ("setHeader".equals(name)) {
+                headers.put((String) args[0], (String) args[1]);
+            } else if ("getOutputStream".equals(name)) {
+                return new ServletOutputStream() {
+                    @Override
+                    public void write(int b) {
+                        if (onWrite != null) {
+                            onWrite.run();
+                            onWrite = null;
+                        }
+                        body.write(b);
+                    }
+                };
+            }
+            return null;
+        }
+    }
+
+    private static HttpServletRequest request(final Map<String, String> headers, final Map<String, Object> attributes) {
+        return (HttpServletRequest) Proxy.newProxyInstance(ExportCacheTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        String name = method.getName();
+                        if ("getHeader".equals(name)) {
+                            return headers.get(args[0]);
+                        } else if ("getMethod".equals(name)) {
+                            return "GET";
+                        } else if ("getAttribute".equals(name)) {
+                            return attributes.get(args[0]);
+                        } else if ("setAttribute".equals(name)) {
+                            attributes.put((String) args[0], args[1]);
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    private static ExportJobManager.JobWriter writer(final String content) {
+        return new ExportJobManager.JobWriter() {
+            @Override
+            public void write(OutputStream outputStream) throws Exception {
+                outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+    }
+
+    private RecordingResponse serve(String range) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        if (range != null) {
+            headers.put("Range", range);
+        }
+        RecordingResponse response = new RecordingResponse();
+        cache.serve("report", "report.csv", writer("0123456789"), request(headers, new HashMap<String, Object>()),
+                response.proxy());
+        return response;
+    }
+
+    @Test
+    public void ranges() throws IOException {
+        RecordingResponse response = serve("bytes=2-5");
+        Assert.assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.status);
+        Assert.assertEquals("bytes 2-5/10", response.headers.get("Content-Range"));
+        Assert.assertEquals("2345", response.body.toString("UTF-8"));
+
+        response = serve("bytes=-3");
+        Assert.assertEquals("789", response.body.toString("UTF-8"));
+
+        // last小于first的Range在语法上无效，忽略后返回完整文件
+        response = serve("bytes=5-2");
+        Assert.assertEquals(HttpServletResponse.SC_OK, response.status);
+        Assert.assertEquals("0123456789", response.body.toString("UTF-8"));
+
+        response = serve("bytes=10-");
+        Assert.assertEquals(416, response.status);
+        Assert.assertEquals("bytes */10", response.headers.get("Content-Range"));
+    }
+
+    @Test
+    public void suffixesAreCachedSeparately() throws IOException {
+        Assert.assertEquals("csv", new String(Files.readAllBytes(cache.get("report", ".csv", writer("csv")).toPath()), "UTF-8"));
+        Assert.assertEquals("xlsx", new String(Files.readAllBytes(cache.get("report", ".xlsx", writer("xlsx")).toPath()), "UTF-8"));
+        Assert.assertEquals("csv", new String(Files.readAllBytes(cache.get("report", ".csv", writer("other")).toPath()), "UTF-8"));
+        Assert.assertEquals(2, cache.getEntryCount());
+        // 重启后按完整文件名恢复
+        cache = new ExportCache(dir, 1 << 20, 10);
+        Assert.assertEquals(2, cache.getEntryCount());
+        Assert.assertTrue(cache.invalidate("report"));
+        Assert.assertEquals(0, cache.getEntryCount());
+    }
+
+    @Test
+    public void fileIsKeptWhileServing() throws IOException {
+        final File file = cache.get("report", ".csv", writer("0123456789"));
+        final boolean[] existed = new boolean[1];
+        RecordingResponse response = new RecordingResponse();
+        response.onWrite = new Runnable() {
+            @Override
+            public void run() {
+                cache.invalidate("report");
+                existed[0] = file.exists();
+            }
+        };
+        cache.serve("report", "report.csv", writer("0123456789"), request(new HashMap<String, String>(),
+                new HashMap<String, Object>()), response.proxy());
+        Assert.assertTrue(existed[0]);
+        Assert.assertEquals("0123456789", response.body.toString("UTF-8"));
+        Assert.assertFalse(file.exists());
+    }
+
+    @Test
+    public void regeneratedFileGetsNewEtag() throws IOException {
+        String etag = serve(null).headers.get("ETag");
+        cache.invalidate("report");
+        RecordingResponse response = serve(null);
+        Assert.assertFalse(etag.equals(response.headers.get("ETag")));
+
+        // 旧的ETag不能用于断点续传，返回完整文件
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Range", "bytes=5-");
+        headers.put("If-Range", etag);
+        response = new RecordingResponse();
+        cache.serve("report", "report.csv", writer("0123456789"), request(headers, new HashMap<String, Object>()),
+                response.proxy());
+        Assert.assertEquals(HttpServletResponse.SC_OK, response.status);
+        Assert.assertEquals("0123456789", response.body.toString("UTF-8"));
+    }
+
+    @Test
+    public void sendfileDefersDeletion() throws IOException {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        cache.serve("report", "report.csv", writer("0123456789"), request(new HashMap<String, String>(), attributes),
+                new RecordingResponse().proxy());
+        File file = new File((String) attributes.get("org.apache.tomcat.sendfile.filename"));
+        cache.invalidate("report");
+        // 容器在Servlet返回之后才打开文件
+        Assert.assertTrue(file.exists());
+        file.delete();
+    }
+}
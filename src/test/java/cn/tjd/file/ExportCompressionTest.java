@@ -0,0 +1,103 @@
+package cn.tjd.file;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Accept-Encoding协商的测试
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class ExportCompressionTest {
+
+    private static HttpServletRequest request(final String acceptEncoding) {
+        return (HttpServletRequest) Proxy.newProxyInstance(ExportCompressionTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if ("getHeader".equals(method.getName()) && "Accept-Encoding".equals(args[0])) {
+                            return acceptEncoding;
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    private static boolean accepts(String acceptEncoding) {
+        return ExportCompression.acceptsGzip(request(acceptEncoding));
+    }
+
+    @Test
+    public void accepted() {
+        Assert.assertTrue(accepts("gzip"));
+        Assert.assertTrue(accepts("gzip, deflate, br"));
+        Assert.assertTrue(accepts("deflate, GZIP;q=0.5"));
+        Assert.assertTrue(accepts("x-gzip"));
+        Assert.assertTrue(accepts("*"));
+        Assert.assertTrue(accepts("br;q=1.0, *;q=0.1"));
+        Assert.assertTrue(accepts("gzip ; Q = 0.001"));
+        Assert.assertTrue(accepts("*;q=0, gzip"));
+    }
+
+    @Test
+    public void rejected() {
+        Assert.assertFalse(ExportCompression.acceptsGzip(null));
+        Assert.assertFalse(accepts(null));
+        Assert.assertFalse(accepts(""));
+        Assert.assertFalse(accepts("identity"));
+        Assert.assertFalse(accepts("deflate, br"));
+        Assert.assertFalse(accepts("gzip;q=0"));
+        Assert.assertFalse(accepts("gzip;q=0.000"));
+        Assert.assertFalse(accepts("gzip;q=0, *"));
+        Assert.assertFalse(accepts("*, gzip;q=0"));
+        Assert.assertFalse(accepts("*;q=0"));
+        Assert.assertFalse(accepts("gzip;q=abc"));
+    }
+
+    private static Map<String, String> headers(ExportCompression compression, String acceptEncoding) throws Exception {
+        final Map<String, String> headers = new HashMap<>();
+        HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(
+                ExportCompressionTest.class.getClassLoader(), new Class<?>[]{HttpServletResponse.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if ("setHeader".equals(method.getName()) || "addHeader".equals(method.getName())) {
+                            headers.put((String) args[0], (String) args[1]);
+                        } else if ("getOutputStream".equals(method.getName())) {
+                            return new ServletOutputStream() {
+                                @Override
+                                public void write(int b) {
+                                }
+                            };
+                        }
+                        return null;
+                    }
+                });
+        compression.open(request(acceptEncoding), response, "data", ".csv", "text/csv").close();
+        return headers;
+    }
+
+    @Test
+    public void varyOnBothBranches() throws Exception {
+        Map<String, String> gzip = headers(ExportCompression.gzipEncoding(), "gzip");
+        Assert.assertEquals("gzip", gzip.get("Content-Encoding"));
+        Assert.assertEquals("Accept-Encoding", gzip.get("Vary"));
+
+        Map<String, String> plain = headers(ExportCompression.gzipEncoding(), "identity");
+        Assert.assertNull(plain.get("Content-Encoding"));
+        Assert.assertEquals("Accept-Encoding", plain.get("Vary"));
+
+        Assert.assertNull(headers(ExportCompression.NONE, "gzip").get("Vary"));
+    }
+}
@@ -0,0 +1,137 @@
+package cn.tjd.file;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * MappedCSVReader分块并行读取的结果必须与CSVUtils顺序读取的结果一致
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class MappedCSVReaderTest {
+
+    private File file;
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("mapped", ".csv");
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+        file.delete();
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<Map<String, String>> readWithCSVUtils() throws IOException {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            return CSVUtils.readAll(inputStream, "UTF-8");
+        }
+    }
+
+    private List<Map<String, String>> readMapped(boolean ordered, int chunkSize) throws IOException {
+        final List<Map<String, String>> result = Collections.synchronizedList(new ArrayList<Map<String, String>>());
+        MappedCSVReader.read(file, "UTF-8", ordered, pool, chunkSize, new RowHandler<RowView>() {
+            @Override
+            public void handle(RowView row) {
+                result.add(row.toMap());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 引号字段中的换行、逗号与转义引号，以及引号出现在未被引号包围的字段中间
+     */
+    private static String quotedContent(int rows) {
+        StringBuilder csv = new StringBuilder("id,text,note\r\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(i).append(',');
+            switch (i % 5) {
+                case 0:
+                    csv.append("\"line1\r\nline2,\"\"quoted\"\"\"");
+                    break;
+                case 1:
+                    csv.append("\"\n\n,\r\n\"");
+                    break;
+                case 2:
+                    csv.append("a\"b");
+                    break;
+                case 3:
+                    csv.append("\"\"");
+                    break;
+                default:
+                    csv.append("中文");
+                    break;
+            }
+            csv.append(',').append(i % 3 == 0 ? "\"x\r\ny\"" : "z").append(i % 7 == 0 ? "\n" : "\r\n");
+        }
+        return csv.toString();
+    }
+
+    @Test
+    public void quotedNewlinesAcrossChunks() throws IOException {
+        write(quotedContent(500));
+        List<Map<String, String>> expected = readWithCSVUtils();
+        Assert.assertEquals(500, expected.size());
+        // 分块小于单条记录的长度，边界必然落在引号字段中间
+        for (int chunkSize : new int[]{1, 7, 64, 1000, MappedCSVReader.DEFAULT_CHUNK_SIZE}) {
+            Assert.assertEquals("chunkSize=" + chunkSize, expected, readMapped(true, chunkSize));
+        }
+        Assert.assertEquals(expected, MappedCSVReader.readAll(file, "UTF-8", pool));
+    }
+
+    @Test
+    public void unorderedReadsEveryRow() throws IOException {
+        write(quotedContent(500));
+        List<Map<String, String>> expected = readWithCSVUtils();
+        List<Map<String, String>> actual = readMapped(false, 64);
+        Assert.assertEquals(expected.size(), actual.size());
+        Assert.assertTrue(actual.containsAll(expected));
+    }
+
+    @Test
+    public void duplicateBlankHeaders() throws IOException {
+        write("a,,,b\r\n1,x,y,2\r\n3,,z,4\r\n");
+        List<Map<String, String>> expected = readWithCSVUtils();
+        Assert.assertEquals("z", expected.get(1).get(""));
+        Assert.assertEquals(expected, readMapped(true, 8));
+    }
+
+    @Test
+    public void duplicateNamedHeadersAreRejected() throws IOException {
+        write("a,b,a\r\n1,2,3\r\n");
+        try {
+            readWithCSVUtils();
+            Assert.fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            readMapped(true, 8);
+            Assert.fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
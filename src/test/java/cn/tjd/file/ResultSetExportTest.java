@@ -0,0 +1,150 @@
+package cn.tjd.file;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC结果集导出CSV与Excel的测试，结果集由CachedRowSet在内存中构造
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class ResultSetExportTest {
+
+    private static final String[] NAMES = {"id", "name", "amount", "ratio", "active", "created", "day", "note"};
+    private static final int[] TYPES = {Types.BIGINT, Types.VARCHAR, Types.DECIMAL, Types.DOUBLE, Types.BOOLEAN,
+            Types.TIMESTAMP, Types.DATE, Types.VARCHAR};
+
+    /**
+     * 两行数据：第一行各列均有值，第二行全部为NULL
+     */
+    private static CachedRowSet resultSet() throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(NAMES.length);
+        for (int i = 0; i < NAMES.length; i++) {
+            metaData.setColumnName(i + 1, NAMES[i]);
+            metaData.setColumnLabel(i + 1, NAMES[i]);
+            metaData.setColumnType(i + 1, TYPES[i]);
+            metaData.setNullable(i + 1, RowSetMetaDataImpl.columnNullable);
+        }
+        metaData.setPrecision(3, 10);
+        metaData.setScale(3, 2);
+        CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.setMetaData(metaData);
+
+        rowSet.moveToInsertRow();
+        rowSet.updateLong(1, 1L);
+        rowSet.updateString(2, "张三, \"Z\"");
+        rowSet.updateBigDecimal(3, new BigDecimal("12.50"));
+        rowSet.updateDouble(4, 0.25);
+        rowSet.updateBoolean(5, true);
+        rowSet.updateTimestamp(6, Timestamp.valueOf("2020-05-09 10:11:12"));
+        rowSet.updateDate(7, Date.valueOf("2020-05-09"));
+        rowSet.updateString(8, "备注");
+        rowSet.insertRow();
+
+        rowSet.moveToInsertRow();
+        for (int i = 1; i <= NAMES.length; i++) {
+            rowSet.updateNull(i);
+        }
+        rowSet.insertRow();
+        rowSet.moveToCurrentRow();
+        rowSet.beforeFirst();
+        return rowSet;
+    }
+
+    private static Map<String, String> labels() {
+        Map<String, String> labels = new HashMap<>();
+        labels.put("name", "姓名");
+        labels.put("amount", "金额");
+        return labels;
+    }
+
+    private static String csv(String encoding) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CSVUtils.generateCsv(resultSet(), labels(), encoding, out);
+        return new String(out.toByteArray(), encoding);
+    }
+
+    @Test
+    public void csv() throws Exception {
+        String expected = "id,姓名,金额,ratio,active,created,day,note\r\n"
+                + "1,\"张三, \"\"Z\"\"\",12.50,0.25,true,2020-05-09 10:11:12,2020-05-09,备注\r\n"
+                + "\"\",,,,,,,\r\n";// 行首的空值加引号，与CSVPrinter一致
+        Assert.assertEquals(expected, csv("UTF-8"));// NATIVE引擎
+        Assert.assertEquals(expected, csv("UTF-16"));// 不兼容ASCII的编码由CSVPrinter写出
+    }
+
+    private static Workbook excel(ExcelUtils.ExcelType excelType) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelUtils.createWorkBook(excelType, resultSet(), labels(), "data", out);
+        return WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static boolean isEmpty(Cell cell) {
+        return cell == null || cell.getCellTypeEnum() == CellType.BLANK
+                || cell.getCellTypeEnum() == CellType.STRING && cell.getStringCellValue().isEmpty();
+    }
+
+    @Test
+    public void excel() throws Exception {
+        for (ExcelUtils.ExcelType excelType : ExcelUtils.ExcelType.values()) {
+            Workbook workbook = excel(excelType);
+            try {
+                Sheet sheet = workbook.getSheet("data");
+                Assert.assertNotNull(excelType.name(), sheet);
+                Assert.assertEquals(excelType.name(), 2, sheet.getLastRowNum());
+
+                Row header = sheet.getRow(0);
+                String[] titles = {"id", "姓名", "金额", "ratio", "active", "created", "day", "note"};
+                for (int i = 0; i < titles.length; i++) {
+                    Assert.assertEquals(excelType.name(), titles[i], header.getCell(i).getStringCellValue());
+                }
+
+                Row row = sheet.getRow(1);
+                Assert.assertEquals(CellType.NUMERIC, row.getCell(0).getCellTypeEnum());
+                Assert.assertEquals(1.0, row.getCell(0).getNumericCellValue(), 0);
+                Assert.assertEquals("张三, \"Z\"", row.getCell(1).getStringCellValue());
+                Assert.assertEquals(CellType.NUMERIC, row.getCell(2).getCellTypeEnum());
+                Assert.assertEquals(12.5, row.getCell(2).getNumericCellValue(), 0);
+                Assert.assertEquals("0.00", row.getCell(2).getCellStyle().getDataFormatString());
+                Assert.assertEquals(0.25, row.getCell(3).getNumericCellValue(), 0);
+                Assert.assertEquals(CellType.BOOLEAN, row.getCell(4).getCellTypeEnum());
+                Assert.assertTrue(row.getCell(4).getBooleanCellValue());
+                Assert.assertTrue(excelType.name(), DateUtil.isCellDateFormatted(row.getCell(5)));
+                Assert.assertEquals(Timestamp.valueOf("2020-05-09 10:11:12").getTime(), row.getCell(5).getDateCellValue().getTime());
+                Assert.assertTrue(excelType.name(), DateUtil.isCellDateFormatted(row.getCell(6)));
+                Assert.assertEquals(Date.valueOf("2020-05-09").getTime(), row.getCell(6).getDateCellValue().getTime());
+                Assert.assertEquals("备注", row.getCell(7).getStringCellValue());
+
+                Row nulls = sheet.getRow(2);
+                for (int i = 0; i < NAMES.length; i++) {
+                    Assert.assertTrue(excelType + "第" + i + "列", isEmpty(nulls.getCell(i)));
+                }
+            } finally {
+                workbook.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package cn.tjd.file;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 去重读取与普通读取结果一致性的测试
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class StringDeduplicatorTest {
+
+    @Test
+    public void csvWithBlankHeaders() throws Exception {
+        // 空表头只保留一个key，b的下标为3，大于表头索引的数量
+        byte[] data = "a,,,b\r\n1,x,y,2\r\n3,,z,4\r\n".getBytes(StandardCharsets.UTF_8);
+        List<Map<String, String>> plain = CSVUtils.readAll(new ByteArrayInputStream(data), "UTF-8");
+        List<Map<String, String>> dedup = CSVUtils.readAll(new ByteArrayInputStream(data), "UTF-8",
+                new StringDeduplicator());
+        Assert.assertEquals("2", plain.get(0).get("b"));
+        Assert.assertEquals(plain, dedup);
+    }
+
+    @Test
+    public void xlsxWithDuplicateHeaders() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Workbook workbook = new XSSFWorkbook();
+        try {
+            Sheet sheet = workbook.createSheet("data");
+            String[][] rows = {{"a", "a", "b", "c"}, {"1", "2", "3", "4"}, {"5", "6", "7", "8"}};
+            for (int i = 0; i < rows.length; i++) {
+                Row row = sheet.createRow(i);
+                for (int j = 0; j < rows[i].length; j++) {
+                    row.createCell(j).setCellValue(rows[i][j]);
+                }
+            }
+            workbook.write(out);
+        } finally {
+            workbook.close();
+        }
+        byte[] data = out.toByteArray();
+        List<Map<String, String>> plain = ExcelUtils.readAll(new ByteArrayInputStream(data));
+        List<Map<String, String>> dedup = ExcelUtils.readAll(new ByteArrayInputStream(data), new StringDeduplicator());
+        Assert.assertEquals("8", plain.get(1).get("c"));
+        Assert.assertEquals(plain, dedup);
+    }
+
+    @Test
+    public void lowCardinalityColumnsShareInstances() throws Exception {
+        StringBuilder csv = new StringBuilder("status,id\r\n");
+        for (int i = 0; i < 100; i++) {
+            csv.append(i % 2 == 0 ? "open" : "closed").append(',').append(i).append("\r\n");
+        }
+        StringDeduplicator deduplicator = new StringDeduplicator(16, 10);
+        List<Map<String, String>> rows = CSVUtils.readAll(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), "UTF-8", deduplicator);
+        Assert.assertSame(rows.get(0).get("status"), rows.get(98).get("status"));
+        Assert.assertTrue(deduplicator.getColumnReports().get(0).isDictionary());
+        Assert.assertFalse(deduplicator.getColumnReports().get(1).isDictionary());
+        Assert.assertTrue(deduplicator.getSavedBytes() > 0);
+    }
+}
@@ -0,0 +1,142 @@
+package cn.tjd.net;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ConnectionLimiter排队与超时的测试
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class ConnectionLimiterTest {
+
+    /**
+     * 记录回调次数的监听器
+     */
+    private static final class CountingListener implements ConnectionLimiter.Listener {
+        final AtomicInteger acquired = new AtomicInteger();
+        final AtomicInteger timeouts = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        @Override
+        public void onAcquired() {
+            acquired.incrementAndGet();
+            done.countDown();
+        }
+
+        @Override
+        public void onTimeout() {
+            timeouts.incrementAndGet();
+            done.countDown();
+        }
+    }
+
+    private static long deadline(long millis) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    public void queuedWaiterTimesOutWithoutRelease() throws Exception {
+        ConnectionLimiter limiter = new ConnectionLimiter(1);
+        limiter.acquire(deadline(1000), "test");
+        CountingListener listener = new CountingListener();
+        limiter.acquireAsync(deadline(100), listener);
+        // 一直没有连接归还，超时仍然按时回调
+        Assert.assertTrue(listener.done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, listener.timeouts.get());
+        Assert.assertEquals(0, listener.acquired.get());
+        // 超时的等待者已出队，归还的连接不会交给它
+        limiter.release();
+        Assert.assertEquals(1, limiter.available());
+    }
+
+    @Test
+    public void grantedWaiterDoesNotTimeOut() throws Exception {
+        ConnectionLimiter limiter = new ConnectionLimiter(1);
+        limiter.acquire(deadline(1000), "test");
+        CountingListener listener = new CountingListener();
+        limiter.acquireAsync(deadline(200), listener);
+        limiter.release();
+        Assert.assertEquals(1, listener.acquired.get());
+        Thread.sleep(400);
+        Assert.assertEquals(0, listener.timeouts.get());
+        Assert.assertEquals(0, limiter.available());
+        limiter.release();
+        Assert.assertEquals(1, limiter.available());
+    }
+
+    @Test
+    public void expiredDeadlineTimesOutImmediately() {
+        ConnectionLimiter limiter = new ConnectionLimiter(0);
+        CountingListener listener = new CountingListener();
+        limiter.acquireAsync(System.nanoTime() - 1, listener);
+        Assert.assertEquals(1, listener.timeouts.get());
+    }
+
+    @Test
+    public void asyncRequestTimesOutWhileHostIsBusy() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch unblock = new CountDownLatch(1);
+        ExecutorService serverExecutor = Executors.newCachedThreadPool();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                entered.countDown();
+                try {
+                    unblock.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream outputStream = exchange.getResponseBody();
+                outputStream.write(body);
+                outputStream.close();
+            }
+        });
+        server.start();
+        HttpClient client = new HttpClient(new HttpClientConfig().setMaxConnectionsPerHost(1).setAcquireTimeout(200));
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+            CompletableFuture<String> first = client.getAsync(url, null);
+            Assert.assertTrue(entered.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> second = client.getAsync(url, null);
+            // 第一个请求仍占用连接，排队的请求不依赖连接归还，到达截止时间后结束
+            try {
+                second.get(5, TimeUnit.SECONDS);
+                Assert.fail();
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof SocketTimeoutException);
+            }
+            Assert.assertFalse(first.isDone());
+            unblock.countDown();
+            Assert.assertEquals("ok", first.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(HttpClientConfig.DEFAULT_MAX_CONNECTIONS, client.getAvailableConnections());
+        } finally {
+            unblock.countDown();
+            client.close();
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package cn.tjd.net;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HttpClient连接数上限、超时、错误响应与请求头的测试，服务端使用JDK自带的HttpServer
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class HttpClientTest {
+
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private HttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private String url(String host, String path) {
+        return "http://" + host + ":" + server.getAddress().getPort() + path;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] data = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, data.length);
+        OutputStream outputStream = exchange.getResponseBody();
+        outputStream.write(data);
+        outputStream.close();
+    }
+
+    /**
+     * 记录同时处理的请求数的最大值，每个请求处理100毫秒
+     */
+    private static final class ConcurrencyHandler implements HttpHandler {
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            int current = active.incrementAndGet();
+            while (true) {
+                int observed = max.get();
+                if (current <= observed || max.compareAndSet(observed, current)) {
+                    break;
+                }
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+            respond(exchange, 200, "ok");
+        }
+    }
+
+    private static void awaitAll(List<CompletableFuture<String>> futures) throws Exception {
+        for (CompletableFuture<String> future : futures) {
+            Assert.assertEquals("ok", future.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void perHostLimit() throws Exception {
+        ConcurrencyHandler handler = new ConcurrencyHandler();
+        server.createContext("/slow", handler);
+        client = new HttpClient(new HttpClientConfig().setMaxConnectionsPerHost(2));
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            futures.add(client.getAsync(url("127.0.0.1", "/slow"), null));
+        }
+        awaitAll(futures);
+        Assert.assertEquals(2, handler.max.get());
+        Assert.assertEquals(HttpClientConfig.DEFAULT_MAX_CONNECTIONS, client.getAvailableConnections());
+    }
+
+    @Test
+    public void globalLimitAcrossHosts() throws Exception {
+        ConcurrencyHandler handler = new ConcurrencyHandler();
+        server.createContext("/slow", handler);
+        client = new HttpClient(new HttpClientConfig().setMaxConnections(2).setMaxConnectionsPerHost(10));
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        // 127.0.0.1与localhost按不同的主机计数，只受全局上限约束
+        for (String host : Arrays.asList("127.0.0.1", "localhost", "127.0.0.1", "localhost", "127.0.0.1", "localhost")) {
+            futures.add(client.getAsync(url(host, "/slow"), null));
+        }
+        awaitAll(futures);
+        Assert.assertEquals(2, handler.max.get());
+        Assert.assertEquals(2, client.getAvailableConnections());
+    }
+
+    @Test
+    public void syncAcquireTimeout() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch unblock = new CountDownLatch(1);
+        server.createContext("/block", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                entered.countDown();
+                try {
+                    unblock.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                respond(exchange, 200, "ok");
+            }
+        });
+        client = new HttpClient(new HttpClientConfig().setMaxConnectionsPerHost(1).setAcquireTimeout(200));
+        try {
+            CompletableFuture<String> first = client.getAsync(url("127.0.0.1", "/block"), null);
+            Assert.assertTrue(entered.await(5, TimeUnit.SECONDS));
+            try {
+                client.get(url("127.0.0.1", "/block"), null);
+                Assert.fail();
+            } catch (SocketTimeoutException expected) {
+            }
+            unblock.countDown();
+            Assert.assertEquals("ok", first.get(5, TimeUnit.SECONDS));
+        } finally {
+            unblock.countDown();
+        }
+    }
+
+    @Test
+    public void readTimeoutReleasesConnection() throws Exception {
+        server.createContext("/sleep", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                respond(exchange, 200, "late");
+            }
+        });
+        client = new HttpClient(new HttpClientConfig().setReadTimeout(200));
+        try {
+            client.get(url("127.0.0.1", "/sleep"), null);
+            Assert.fail();
+        } catch (SocketTimeoutException expected) {
+        }
+        Assert.assertEquals(HttpClientConfig.DEFAULT_MAX_CONNECTIONS, client.getAvailableConnections());
+    }
+
+    @Test
+    public void errorResponseIsDrained() throws Exception {
+        final List<Integer> ports = new ArrayList<>();
+        server.createContext("/error", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                synchronized (ports) {
+                    ports.add(exchange.getRemoteAddress().getPort());
+                }
+                StringBuilder body = new StringBuilder("错误");
+                while (body.length() < 100 * 1024) {
+                    body.append("0123456789");
+                }
+                respond(exchange, 500, body.toString());
+            }
+        });
+        server.createContext("/ok", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                synchronized (ports) {
+                    ports.add(exchange.getRemoteAddress().getPort());
+                }
+                respond(exchange, 200, "ok");
+            }
+        });
+        client = new HttpClient();
+        try {
+            client.get(url("127.0.0.1", "/error"), null);
+            Assert.fail();
+        } catch (HttpResponseException e) {
+            Assert.assertEquals(500, e.getStatusCode());
+            Assert.assertTrue(e.getBody().startsWith("错误0123456789"));
+            Assert.assertTrue(e.getBody().length() < 64 * 1024);// 只保留前64KB
+        }
+        Assert.assertEquals("ok", client.get(url("127.0.0.1", "/ok"), null));
+        // 错误响应被完整读取，连接由keep-alive缓存复用
+        Assert.assertEquals(ports.get(0), ports.get(1));
+        Assert.assertEquals(HttpClientConfig.DEFAULT_MAX_CONNECTIONS, client.getAvailableConnections());
+    }
+
+    @Test
+    public void headersAreCopiedOnCreation() throws Exception {
+        server.createContext("/echo", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange, 200, String.valueOf(exchange.getRequestHeaders().getFirst("X-Test")));
+            }
+        });
+        HttpClientConfig config = new HttpClientConfig().setHeader("X-Test", "before");
+        client = new HttpClient(config);
+        config.setHeader("X-Test", "after");
+        Assert.assertEquals("before", client.get(url("127.0.0.1", "/echo"), null));
+        HttpClient other = new HttpClient(config);
+        try {
+            Assert.assertEquals("after", other.get(url("127.0.0.1", "/echo"), null));
+        } finally {
+            other.close();
+        }
+    }
+
+    @Test
+    public void closeRejectsNewAsyncRequests() throws Exception {
+        server.createContext("/ok", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange, 200, "ok");
+            }
+        });
+        client = new HttpClient();
+        Assert.assertEquals("ok", client.getAsync(url("127.0.0.1", "/ok"), null).get(5, TimeUnit.SECONDS));
+        client.close();
+        try {
+            client.getAsync(url("127.0.0.1", "/ok"), null).get(5, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        Assert.assertEquals(HttpClientConfig.DEFAULT_MAX_CONNECTIONS, client.getAvailableConnections());
+    }
+}
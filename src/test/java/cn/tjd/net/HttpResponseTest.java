@@ -0,0 +1,204 @@
+package cn.tjd.net;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HttpResponse字符集、分块传输、长度未知的响应以及JSON反序列化的测试
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class HttpResponseTest {
+
+    private static final Charset GBK = Charset.forName("GBK");
+
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private HttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.start();
+        client = new HttpClient();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    /**
+     * @param contentType 响应的Content-Type
+     * @param body        响应体
+     * @param chunked     true：分块传输，每次写入一个字节；false：指定Content-Length
+     */
+    private void serve(String path, final String contentType, final byte[] body, final boolean chunked) {
+        server.createContext(path, new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().set("Content-Type", contentType);
+                exchange.sendResponseHeaders(200, chunked ? 0 : body.length);
+                OutputStream outputStream = exchange.getResponseBody();
+                if (chunked) {
+                    for (byte b : body) {
+                        outputStream.write(b);
+                        outputStream.flush();
+                    }
+                } else {
+                    outputStream.write(body);
+                }
+                outputStream.close();
+            }
+        });
+    }
+
+    @Test
+    public void charsetFromContentType() throws IOException {
+        serve("/gbk", "text/plain; charset=GBK", "中文，GBK".getBytes(GBK), false);
+        serve("/quoted", "text/plain;charset=\"gbk\"", "引号".getBytes(GBK), false);
+        serve("/default", "text/plain", "默认UTF-8".getBytes(StandardCharsets.UTF_8), false);
+        Assert.assertEquals("中文，GBK", client.get(url("/gbk"), null));
+        Assert.assertEquals("引号", client.get(url("/quoted"), null));
+        Assert.assertEquals("默认UTF-8", client.get(url("/default"), null));
+
+        HttpResponse response = client.getResponse(url("/gbk"), null);
+        try {
+            Assert.assertEquals(GBK, response.getCharset());
+            Assert.assertEquals((long) "中文，GBK".getBytes(GBK).length, response.getContentLength());
+        } finally {
+            response.close();
+        }
+    }
+
+    @Test
+    public void charsetOf() {
+        Assert.assertEquals(StandardCharsets.UTF_8, HttpResponse.charsetOf(null));
+        Assert.assertEquals(StandardCharsets.UTF_8, HttpResponse.charsetOf("application/json"));
+        Assert.assertEquals(StandardCharsets.UTF_8, HttpResponse.charsetOf("text/plain; charset=no-such-charset"));
+        Assert.assertEquals(StandardCharsets.ISO_8859_1, HttpResponse.charsetOf("text/plain; CHARSET=ISO-8859-1"));
+    }
+
+    @Test
+    public void chunkedBody() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            text.append("行").append(i).append("\r\n");
+        }
+        serve("/chunked", "text/plain; charset=UTF-8", text.toString().getBytes(StandardCharsets.UTF_8), true);
+        HttpResponse response = client.getResponse(url("/chunked"), null);
+        try {
+            Assert.assertEquals("chunked", response.getHeader("Transfer-Encoding"));
+            Assert.assertEquals(-1L, response.getContentLength());
+            Assert.assertEquals(text.toString(), response.bodyAsString());
+        } finally {
+            response.close();
+        }
+        Assert.assertEquals(HttpClientConfig.DEFAULT_MAX_CONNECTIONS, client.getAvailableConnections());
+    }
+
+    @Test
+    public void unknownLengthBody() throws Exception {
+        // 既没有Content-Length也没有分块传输，服务端关闭连接表示响应结束，HttpServer不支持这种响应，直接使用Socket
+        final ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try (Socket socket = serverSocket.accept()) {
+                    InputStream inputStream = socket.getInputStream();
+                    int last = 0;
+                    int b;
+                    while ((b = inputStream.read()) >= 0) {// 读取到请求头结束的空行
+                        last = last << 8 | b;
+                        if (last == 0x0D0A0D0A) {
+                            break;
+                        }
+                    }
+                    OutputStream outputStream = socket.getOutputStream();
+                    outputStream.write(("HTTP/1.1 200 OK\r\nContent-Type: text/plain; charset=GBK\r\n"
+                            + "Connection: close\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                    outputStream.write("长度未知".getBytes(GBK));
+                } catch (IOException e) {
+                    // 由测试的断言报告
+                }
+            }
+        });
+        thread.start();
+        try {
+            HttpResponse response = client.getResponse("http://127.0.0.1:" + serverSocket.getLocalPort() + "/", null);
+            try {
+                Assert.assertEquals(-1L, response.getContentLength());
+                Assert.assertNull(response.getHeader("Transfer-Encoding"));
+                Assert.assertEquals("长度未知", response.bodyAsString());
+            } finally {
+                response.close();
+            }
+        } finally {
+            thread.join(5000);
+            serverSocket.close();
+        }
+    }
+
+    @Test
+    public void readJsonFromStream() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 500; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"name\":\"名称").append(i).append("\"}");
+        }
+        json.append(']');
+        serve("/utf8", "application/json", json.toString().getBytes(StandardCharsets.UTF_8), true);
+        serve("/gbk", "application/json; charset=GBK", json.toString().getBytes(GBK), true);
+        serve("/utf16", "application/json; charset=UTF-16", json.toString().getBytes(StandardCharsets.UTF_16), false);
+        TypeReference<List<Map<String, Object>>> type = new TypeReference<List<Map<String, Object>>>() {
+        };
+        for (String path : new String[]{"/utf8", "/gbk", "/utf16"}) {
+            List<Map<String, Object>> items = client.get(url(path), null, type);
+            Assert.assertEquals(path, 500, items.size());
+            Assert.assertEquals(path, "名称499", items.get(499).get("name"));
+        }
+        serve("/object", "application/json; charset=GBK", "{\"name\":\"对象\"}".getBytes(GBK), false);
+        Assert.assertEquals("对象", client.get(url("/object"), null, Map.class).get("name"));
+    }
+
+    @Test
+    public void closeAfterPartialRead() throws IOException {
+        byte[] body = new byte[16 * 1024];
+        serve("/partial", "application/octet-stream", body, false);
+        HttpResponse response = client.getResponse(url("/partial"), null);
+        Assert.assertEquals(0, response.getBody().read());
+        response.getBody().close();// 不关闭连接
+        response.close();
+        response.close();// 重复关闭只归还一次连接
+        Assert.assertEquals(HttpClientConfig.DEFAULT_MAX_CONNECTIONS, client.getAvailableConnections());
+    }
+}
@@ -0,0 +1,189 @@
+package cn.tjd.net;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * RequestBody固定长度与分块传输的测试，由服务端检查收到的请求头与请求体
+ *
+ * @Auther: agent
+ * @Date: 2026-10-18
+ * @DESCRIPTION:
+ **/
+public class RequestBodyTest {
+
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private HttpClient client;
+
+    // 服务端最近一次收到的请求
+    private volatile String contentLength;
+    private volatile String transferEncoding;
+    private volatile String contentType;
+    private volatile byte[] received;
+
+    @Before
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+                transferEncoding = exchange.getRequestHeaders().getFirst("Transfer-Encoding");
+                contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                InputStream inputStream = exchange.getRequestBody();
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = inputStream.read(buffer)) > 0) {
+                    body.write(buffer, 0, n);
+                }
+                received = body.toByteArray();
+                byte[] data = "ok".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, data.length);
+                OutputStream outputStream = exchange.getResponseBody();
+                outputStream.write(data);
+                outputStream.close();
+            }
+        });
+        server.start();
+        client = new HttpClient(new HttpClientConfig().setChunkSize(1024));
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    private static byte[] data(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    private void assertFixedLength(byte[] expected) {
+        Assert.assertEquals(String.valueOf(expected.length), contentLength);
+        Assert.assertNull(transferEncoding);
+        Assert.assertTrue(Arrays.equals(expected, received));
+    }
+
+    private void assertChunked(byte[] expected) {
+        Assert.assertEquals("chunked", transferEncoding);
+        Assert.assertNull(contentLength);
+        Assert.assertTrue(Arrays.equals(expected, received));
+    }
+
+    /**
+     * 记录是否被关闭的输入流
+     */
+    private static final class TrackingInputStream extends ByteArrayInputStream {
+        boolean closed;
+
+        TrackingInputStream(byte[] data) {
+            super(data);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+
+    @Test
+    public void bytesUseFixedLength() throws IOException {
+        byte[] data = data(100 * 1024);
+        Assert.assertEquals("ok", client.post(url(), RequestBody.bytes(data, RequestBody.OCTET_STREAM)));
+        assertFixedLength(data);
+        Assert.assertEquals(RequestBody.OCTET_STREAM, contentType);
+
+        Assert.assertEquals("ok", client.put(url(), RequestBody.bytes(new byte[0], "text/plain")));
+        assertFixedLength(new byte[0]);
+    }
+
+    @Test
+    public void streamWithLengthUsesFixedLength() throws IOException {
+        byte[] data = data(50000);
+        TrackingInputStream inputStream = new TrackingInputStream(data);
+        client.post(url(), RequestBody.stream(inputStream, data.length, RequestBody.OCTET_STREAM));
+        assertFixedLength(data);
+        Assert.assertTrue(inputStream.closed);
+    }
+
+    @Test
+    public void streamWithoutLengthIsChunked() throws IOException {
+        byte[] data = data(50000);
+        TrackingInputStream inputStream = new TrackingInputStream(data);
+        client.post(url(), RequestBody.stream(inputStream, -1, RequestBody.OCTET_STREAM));
+        assertChunked(data);
+        Assert.assertTrue(inputStream.closed);
+    }
+
+    @Test
+    public void shortStreamFailsAndReleasesConnection() {
+        TrackingInputStream inputStream = new TrackingInputStream(data(10));
+        try {
+            client.post(url(), RequestBody.stream(inputStream, 20, RequestBody.OCTET_STREAM));
+            Assert.fail();
+        } catch (IOException expected) {
+            // 实际写出的内容少于声明的长度
+        }
+        Assert.assertTrue(inputStream.closed);
+        Assert.assertEquals(HttpClientConfig.DEFAULT_MAX_CONNECTIONS, client.getAvailableConnections());
+    }
+
+    @Test
+    public void jsonIsChunked() throws IOException {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("name", "中文");
+        value.put("items", Collections.nCopies(1000, "item"));
+        client.post(url(), RequestBody.json(value));
+        assertChunked(new ObjectMapper().writeValueAsBytes(value));
+        Assert.assertEquals(RequestBody.JSON, contentType);
+    }
+
+    @Test
+    public void writerIsChunked() throws IOException {
+        final byte[] data = data(300 * 1024);
+        client.post(url(), RequestBody.writer("text/csv", new RequestBody.BodyWriter() {
+            @Override
+            public void write(OutputStream outputStream) throws IOException {
+                for (int i = 0; i < data.length; i += 1000) {
+                    outputStream.write(data, i, Math.min(1000, data.length - i));
+                }
+            }
+        }));
+        assertChunked(data);
+        Assert.assertEquals("text/csv", contentType);
+    }
+}